@@ -0,0 +1,95 @@
+package com.konrad.energyappbackend.benchmark;
+
+import com.konrad.energyappbackend.domain.BestWindowIndex;
+import com.konrad.energyappbackend.domain.CleanShareWindows;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.domain.WindowRangeIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Charging window search: building the prefix sums and indexes of a snapshot, and answering
+ * unconstrained, time-constrained and minimum clean share queries.
+ *
+ * <p>The {@link BestWindowIndex} covers the two-day charging horizon, as in a snapshot, so its
+ * build cost does not grow with the fixture.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChargingWindowBenchmark {
+
+    private static final int HORIZON_SLOTS = 96;
+
+    @Param({GenerationFixtures.TWO_DAYS, GenerationFixtures.WEEK, GenerationFixtures.YEAR})
+    public int slots;
+
+    /**
+     * Window length in slots (3 hours).
+     */
+    @Param({"6"})
+    public int length;
+
+    private GenerationSeries series;
+    private CleanShareWindows windows;
+    private BestWindowIndex bestWindows;
+    private WindowRangeIndex windowRanges;
+    private double medianAverage;
+
+    @Setup
+    public void setUp() {
+        series = GenerationFixtures.series(slots);
+        windows = new CleanShareWindows(series);
+        bestWindows = new BestWindowIndex(windows, 0, Math.min(slots, HORIZON_SLOTS));
+        windowRanges = new WindowRangeIndex(windows);
+        /// builds the range table for this length
+        windowRanges.bestStart(length, 0, slots);
+
+        double[] averages = new double[slots - length + 1];
+        for (int start = 0; start < averages.length; start++) {
+            averages[start] = windows.average(start, length);
+        }
+        Arrays.sort(averages);
+        medianAverage = averages[averages.length / 2];
+    }
+
+    @Benchmark
+    public CleanShareWindows buildPrefixSums() {
+        return new CleanShareWindows(series);
+    }
+
+    @Benchmark
+    public BestWindowIndex buildBestWindowIndex() {
+        return new BestWindowIndex(windows, 0, Math.min(slots, HORIZON_SLOTS));
+    }
+
+    @Benchmark
+    public int buildRangeIndex() {
+        return new WindowRangeIndex(windows).bestStart(length, 0, slots);
+    }
+
+    @Benchmark
+    public int slidingWindowScan() {
+        return windows.bestStart(0, slots, length);
+    }
+
+    @Benchmark
+    public int bestWindowLookup() {
+        return bestWindows.bestStart(length);
+    }
+
+    @Benchmark
+    public int constrainedBestWindow() {
+        return windowRanges.bestStart(length, slots / 4, slots / 2);
+    }
+
+    @Benchmark
+    public int firstWindowAboveMedian() {
+        return windowRanges.firstStartAtLeast(length, 0, slots, medianAverage);
+    }
+}
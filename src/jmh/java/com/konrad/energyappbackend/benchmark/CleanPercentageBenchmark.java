@@ -0,0 +1,87 @@
+package com.konrad.energyappbackend.benchmark;
+
+import com.konrad.energyappbackend.client.dto.FuelMix;
+import com.konrad.energyappbackend.client.dto.GenerationData;
+import com.konrad.energyappbackend.domain.EnergySource;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clean energy share of every slot of a fixture, for each representation of a fuel mix
+ * that {@link EnergySource#calculateCleanPercentage} accepts, and for the column that
+ * {@link GenerationSeries} precomputes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CleanPercentageBenchmark {
+
+    @Param({GenerationFixtures.TWO_DAYS, GenerationFixtures.WEEK, GenerationFixtures.YEAR})
+    public int slots;
+
+    private List<Map<String, Double>> maps;
+    private List<List<FuelMix>> lists;
+    private double[][] arrays;
+    private GenerationSeries series;
+
+    @Setup
+    public void setUp() {
+        List<GenerationData> intervals = GenerationFixtures.intervals(slots);
+        maps = intervals.stream().map(CleanPercentageBenchmark::toMap).toList();
+        lists = intervals.stream().map(GenerationData::generationMix).toList();
+        arrays = GenerationFixtures.percentages(slots);
+        series = GenerationFixtures.series(slots);
+    }
+
+    @Benchmark
+    public double fuelMixMap() {
+        double total = 0.0;
+        for (Map<String, Double> mix : maps) {
+            total += EnergySource.calculateCleanPercentage(mix);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double fuelMixList() {
+        double total = 0.0;
+        for (List<FuelMix> mix : lists) {
+            total += EnergySource.calculateCleanPercentage(mix);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double percentagesByOrdinal() {
+        double total = 0.0;
+        for (double[] percentages : arrays) {
+            total += EnergySource.calculateCleanPercentage(percentages);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double seriesColumn() {
+        double total = 0.0;
+        for (int slot = 0; slot < series.size(); slot++) {
+            total += series.cleanShare(slot);
+        }
+        return total;
+    }
+
+    private static Map<String, Double> toMap(GenerationData interval) {
+        Map<String, Double> mix = new LinkedHashMap<>();
+        for (FuelMix fuel : interval.generationMix()) {
+            mix.put(fuel.fuel(), fuel.perc());
+        }
+        return mix;
+    }
+}
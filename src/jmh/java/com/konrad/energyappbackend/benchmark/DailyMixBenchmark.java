@@ -0,0 +1,58 @@
+package com.konrad.energyappbackend.benchmark;
+
+import com.konrad.energyappbackend.client.dto.GenerationData;
+import com.konrad.energyappbackend.domain.ForecastSnapshot;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.web.dto.DailyMixDto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grouping of half-hour slots into daily mixes, from parsed API records to a published
+ * snapshot: building the columnar series, aggregating every day of the fixture, and
+ * building a whole {@link ForecastSnapshot} with its indexes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DailyMixBenchmark {
+
+    @Param({GenerationFixtures.TWO_DAYS, GenerationFixtures.WEEK, GenerationFixtures.YEAR})
+    public int slots;
+
+    private List<GenerationData> intervals;
+    private GenerationSeries series;
+    private int days;
+
+    @Setup
+    public void setUp() {
+        intervals = GenerationFixtures.intervals(slots);
+        series = GenerationFixtures.series(slots);
+        days = slots / 48;
+    }
+
+    @Benchmark
+    public GenerationSeries seriesFromIntervals() {
+        return GenerationSeries.from(intervals);
+    }
+
+    @Benchmark
+    public void dailyMixes(Blackhole blackhole) {
+        for (int day = 0; day < days; day++) {
+            DailyMixDto mix = ForecastSnapshot.toDailyMix(GenerationFixtures.FIRST_DAY.plusDays(day), series);
+            blackhole.consume(mix);
+        }
+    }
+
+    @Benchmark
+    public ForecastSnapshot snapshot() {
+        return ForecastSnapshot.of(GenerationFixtures.FIRST_DAY, Instant.EPOCH, series);
+    }
+}
@@ -0,0 +1,51 @@
+package com.konrad.energyappbackend.benchmark;
+
+import com.konrad.energyappbackend.domain.FleetScheduler;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fleet charging schedule over the two-day charging horizon under a shared site limit,
+ * for fleets of up to 10k vehicles with random energy needs, charger powers and availability.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FleetSchedulerBenchmark {
+
+    private static final int HORIZON_SLOTS = 96;
+    private static final long SEED = 42L;
+
+    @Param({"1000", "10000"})
+    public int vehicles;
+
+    private FleetScheduler scheduler;
+    private List<FleetScheduler.Demand> demands;
+
+    @Setup
+    public void setUp() {
+        GenerationSeries series = GenerationFixtures.series(HORIZON_SLOTS);
+        scheduler = new FleetScheduler(series, 0, HORIZON_SLOTS, 4.0 * vehicles);
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        demands = new ArrayList<>(vehicles);
+        for (int i = 0; i < vehicles; i++) {
+            int from = random.nextInt(80);
+            demands.add(new FleetScheduler.Demand("ev-" + i,
+                    5 + random.nextInt(60), 7 + random.nextInt(15), from, from + 4 + random.nextInt(40)));
+        }
+    }
+
+    @Benchmark
+    public FleetScheduler.Schedule schedule() {
+        return scheduler.schedule(demands);
+    }
+}
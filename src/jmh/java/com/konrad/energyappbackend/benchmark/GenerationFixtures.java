@@ -0,0 +1,101 @@
+package com.konrad.energyappbackend.benchmark;
+
+import com.konrad.energyappbackend.client.dto.FuelMix;
+import com.konrad.energyappbackend.client.dto.GenerationData;
+import com.konrad.energyappbackend.domain.EnergySource;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic half-hourly generation data for benchmarks.
+ *
+ * <p>Every slot has a share for each {@link EnergySource}, summing to 100%, with wind and
+ * solar following a daily cycle plus noise, so window searches do not hit trivial ties.
+ * The same seed always yields the same data, so results are comparable between runs.
+ */
+final class GenerationFixtures {
+
+    /**
+     * Fixture sizes: two days (the charging horizon), one week and one year of half-hour slots.
+     */
+    static final String TWO_DAYS = "96";
+    static final String WEEK = "336";
+    static final String YEAR = "17520";
+
+    static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+    private static final EnergySource[] SOURCES = EnergySource.values();
+    private static final long SEED = 42L;
+
+    private GenerationFixtures() {
+    }
+
+    /**
+     * @return percentages indexed by {@code [slot][EnergySource.ordinal()]}
+     */
+    static double[][] percentages(int slots) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        double[][] percentages = new double[slots][SOURCES.length];
+        for (int slot = 0; slot < slots; slot++) {
+            double hourOfDay = (slot % 48) / 2.0;
+            double[] weights = percentages[slot];
+            for (EnergySource source : SOURCES) {
+                weights[source.ordinal()] = 1.0 + random.nextDouble(10.0);
+            }
+            weights[EnergySource.WIND.ordinal()] += 20.0 + 15.0 * Math.sin(slot / 97.0) + random.nextDouble(10.0);
+            weights[EnergySource.SOLAR.ordinal()] += Math.max(0.0, 12.0 * Math.sin((hourOfDay - 6.0) / 12.0 * Math.PI));
+            weights[EnergySource.GAS.ordinal()] += 25.0;
+
+            double total = 0.0;
+            for (double weight : weights) {
+                total += weight;
+            }
+            for (int source = 0; source < weights.length; source++) {
+                weights[source] = Math.round(weights[source] / total * 1000.0) / 10.0;
+            }
+        }
+        return percentages;
+    }
+
+    static long slotStart(int slot) {
+        return FIRST_DAY.atStartOfDay(ZoneOffset.UTC).toEpochSecond() + slot * GenerationSeries.SLOT_SECONDS;
+    }
+
+    static GenerationSeries series(int slots) {
+        double[][] percentages = percentages(slots);
+        long[] slotStarts = new long[slots];
+        double[][] columns = new double[SOURCES.length][slots];
+        for (int slot = 0; slot < slots; slot++) {
+            slotStarts[slot] = slotStart(slot);
+            for (int source = 0; source < SOURCES.length; source++) {
+                columns[source][slot] = percentages[slot][source];
+            }
+        }
+        return GenerationSeries.of(slotStarts, columns);
+    }
+
+    /**
+     * @return the same data in the layout of a Generation API response
+     */
+    static List<GenerationData> intervals(int slots) {
+        double[][] percentages = percentages(slots);
+        List<GenerationData> intervals = new ArrayList<>(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            List<FuelMix> mix = new ArrayList<>(SOURCES.length);
+            for (EnergySource source : SOURCES) {
+                mix.add(new FuelMix(source.getFuelName(), percentages[slot][source.ordinal()]));
+            }
+            intervals.add(new GenerationData(
+                    Instant.ofEpochSecond(slotStart(slot)).toString(),
+                    Instant.ofEpochSecond(slotStart(slot + 1)).toString(),
+                    mix));
+        }
+        return intervals;
+    }
+}
@@ -0,0 +1,65 @@
+package com.konrad.energyappbackend.loadtest;
+
+import com.konrad.energyappbackend.EnergyAppBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * The application started on a random local port against a {@link StubGenerationApi}.
+ *
+ * <p>Scheduled refreshes are off and logging is reduced to warnings, so a run measures
+ * request handling only. Tomcat accepts up to 20,000 connections, so the connector is not
+ * the limit at the client counts the load tests use.
+ */
+final class ApplicationUnderTest implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final String baseUrl;
+
+    private ApplicationUnderTest(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    static ApplicationUnderTest start(StubGenerationApi stub, boolean virtualThreads) {
+        return start(stub, virtualThreads, new String[0]);
+    }
+
+    /**
+     * @param overrides further {@code key=value} properties, applied after the defaults
+     */
+    static ApplicationUnderTest start(StubGenerationApi stub, boolean virtualThreads, String... overrides) {
+        return new ApplicationUnderTest(new SpringApplicationBuilder(EnergyAppBackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.max-connections=20000",
+                        "server.tomcat.accept-count=10000",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "app.generation.base-url=" + stub.baseUrl(),
+                        "app.forecast.refresh-cron=-",
+                        "app.history.enabled=false",
+                        "logging.level.root=WARN")
+                .properties(overrides)
+                .run());
+    }
+
+    URI uri(String pathAndQuery) {
+        return URI.create(baseUrl + pathAndQuery);
+    }
+
+    static HttpClient httpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,121 @@
+package com.konrad.energyappbackend.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.konrad.energyappbackend.client.dto.GenerationData;
+import com.konrad.energyappbackend.client.dto.GenerationResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Recorded Generation API responses, replayed for any requested interval.
+ *
+ * <p>Recordings are {@code /generation/{from}/{to}} responses saved as JSON, e.g. with
+ * {@code curl https://api.carbonintensity.org.uk/generation/2025-12-04T00:00Z/2025-12-07T00:00Z}.
+ * All recorded slots are put in time order; a request is answered with the recorded mixes,
+ * re-stamped to the requested slots and aligned by position in the recording, wrapping
+ * around if the request is longer than the recording.
+ */
+final class GenerationRecording {
+
+    static final String SAMPLE = "/recordings/generation-sample.json";
+
+    private static final long SLOT_SECONDS = 30 * 60;
+    private static final DateTimeFormatter API_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm'Z'");
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final List<GenerationData> intervals;
+    private final long firstSlotStart;
+
+    private GenerationRecording(List<GenerationData> intervals) {
+        if (intervals.isEmpty()) {
+            throw new IllegalArgumentException("Recording contains no intervals");
+        }
+        this.intervals = List.copyOf(intervals);
+        this.firstSlotStart = epochSecond(intervals.get(0).from());
+    }
+
+    /**
+     * @param location a recorded JSON file, a directory of them, or null for the bundled sample
+     */
+    static GenerationRecording load(String location) {
+        if (location == null || location.isBlank()) {
+            try (InputStream in = GenerationRecording.class.getResourceAsStream(SAMPLE)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing " + SAMPLE + " on the classpath");
+                }
+                return new GenerationRecording(sorted(read(in)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        Path path = Path.of(location);
+        List<GenerationData> intervals = new ArrayList<>();
+        try (Stream<Path> files = Files.isDirectory(path) ? Files.list(path) : Stream.of(path)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".json")).sorted().toList()) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    intervals.addAll(read(in));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new GenerationRecording(sorted(intervals));
+    }
+
+    int size() {
+        return intervals.size();
+    }
+
+    /**
+     * @return a Generation API response for {@code [from, to)}
+     */
+    byte[] replay(Instant from, Instant to) {
+        long start = from.getEpochSecond() - Math.floorMod(from.getEpochSecond(), SLOT_SECONDS);
+        int offset = (int) Math.floorMod((start - firstSlotStart) / SLOT_SECONDS, (long) intervals.size());
+
+        List<GenerationData> data = new ArrayList<>();
+        for (long slot = start, i = 0; slot < to.getEpochSecond(); slot += SLOT_SECONDS, i++) {
+            GenerationData recorded = intervals.get((int) ((offset + i) % intervals.size()));
+            data.add(new GenerationData(format(slot), format(slot + SLOT_SECONDS), recorded.generationMix()));
+        }
+        try {
+            return MAPPER.writeValueAsBytes(new GenerationResponse(data));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<GenerationData> read(InputStream in) throws IOException {
+        GenerationResponse response = MAPPER.readValue(in, GenerationResponse.class);
+        return response.data() != null ? response.data() : List.of();
+    }
+
+    private static List<GenerationData> sorted(List<GenerationData> intervals) {
+        List<GenerationData> sorted = new ArrayList<>(intervals);
+        sorted.sort(Comparator.comparingLong(interval -> epochSecond(interval.from())));
+        return sorted;
+    }
+
+    private static long epochSecond(String timestamp) {
+        return OffsetDateTime.parse(timestamp).toEpochSecond();
+    }
+
+    private static String format(long epochSecond) {
+        return API_FORMAT.format(Instant.ofEpochSecond(epochSecond).atOffset(ZoneOffset.UTC));
+    }
+}
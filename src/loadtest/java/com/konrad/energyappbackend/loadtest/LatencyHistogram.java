@@ -0,0 +1,110 @@
+package com.konrad.energyappbackend.loadtest;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe latency histogram with logarithmic buckets, in the style of HdrHistogram.
+ *
+ * <p>Values are recorded in microseconds. Each power of two is split into 32 buckets, so a
+ * reported percentile is at most about 3% above the true value, over the whole range from
+ * one microsecond to hours, in a fixed 16 KiB of counters.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final double[] REPORTED_PERCENTILES = {50, 75, 90, 95, 99, 99.9, 99.99};
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * HALF);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    void recordNanos(long nanos) {
+        long micros = Math.max(nanos / 1_000, 0);
+        counts.incrementAndGet(index(micros));
+        total.incrementAndGet();
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    long count() {
+        return total.get();
+    }
+
+    double maxMillis() {
+        return maxMicros.get() / 1_000.0;
+    }
+
+    /**
+     * @param percentile 0-100
+     * @return latency in milliseconds at or below which that share of the values lies
+     */
+    double percentileMillis(double percentile) {
+        long count = total.get();
+        if (count == 0) {
+            return 0.0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int index = 0; index < counts.length(); index++) {
+            seen += counts.get(index);
+            if (seen >= rank) {
+                return Math.min(highestValue(index), maxMicros.get()) / 1_000.0;
+            }
+        }
+        return maxMillis();
+    }
+
+    /**
+     * Prints the percentile distribution and the number of values per power-of-two range.
+     */
+    void print(PrintStream out) {
+        out.printf("    %-10s %10s%n", "percentile", "ms");
+        for (double percentile : REPORTED_PERCENTILES) {
+            out.printf("    %-10s %10.2f%n", percentile, percentileMillis(percentile));
+        }
+        out.printf("    %-10s %10.2f%n", "max", maxMillis());
+
+        out.printf("    %-21s %10s%n", "range ms", "count");
+        long lower = 0;
+        long upper = 1_000;
+        int index = 0;
+        while (index < counts.length() && lower <= maxMicros.get()) {
+            long inRange = 0;
+            while (index < counts.length() && lowestValue(index) < upper) {
+                inRange += counts.get(index++);
+            }
+            if (inRange > 0) {
+                out.printf("    %9.1f - %9.1f %10d%n", lower / 1_000.0, upper / 1_000.0, inRange);
+            }
+            lower = upper;
+            upper *= 2;
+        }
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    static long lowestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF - 1;
+        return (long) (index - shift * HALF) << shift;
+    }
+
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF - 1;
+        return ((long) (index - shift * HALF + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,135 @@
+package com.konrad.energyappbackend.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the API at fixed arrival rates against a local {@link StubGenerationApi}.
+ *
+ * <p>The load is an open model: requests are started on a fixed schedule whether or not
+ * earlier ones have completed, and latency is measured from the scheduled start, so a stalled
+ * server shows up in the percentiles instead of slowing the load down. For every endpoint and
+ * rate a warm-up run is followed by a measured run, which reports the achieved rate, a latency
+ * histogram, errors by status and the number of upstream calls. Everything runs on the local
+ * machine; no network access is needed.
+ *
+ * <p>Settings (system properties):
+ * <ul>
+ *   <li>{@code endpoints} - comma separated paths, default {@code /api/energy-mix,/api/charging-window?hours=3}</li>
+ *   <li>{@code rates} - requests per second, default {@code 100,500,1000}</li>
+ *   <li>{@code durationSeconds} (30), {@code warmupSeconds} (5)</li>
+ *   <li>{@code upstreamLatencyMs} (200), {@code upstreamJitterMs} (100), {@code upstreamErrorRate} (0)</li>
+ *   <li>{@code recording} - recorded response file or directory, default the bundled sample</li>
+ *   <li>{@code virtualThreads} - run Tomcat on virtual threads (false)</li>
+ * </ul>
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java -Drates=200,2000 -DupstreamErrorRate=0.05
+ * </pre>
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] endpoints = System.getProperty("endpoints", "/api/energy-mix,/api/charging-window?hours=3").split(",");
+        int[] rates = Arrays.stream(System.getProperty("rates", "100,500,1000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Duration duration = Duration.ofSeconds(Long.getLong("durationSeconds", 30));
+        Duration warmup = Duration.ofSeconds(Long.getLong("warmupSeconds", 5));
+        boolean virtualThreads = Boolean.getBoolean("virtualThreads");
+
+        GenerationRecording recording = GenerationRecording.load(System.getProperty("recording"));
+        StubGenerationApi.Settings settings = StubGenerationApi.Settings.fromSystemProperties(200, 100);
+
+        System.out.printf("Stub upstream: %d recorded slots, %s%n", recording.size(), settings);
+        System.out.printf("Server threads: %s%n", virtualThreads ? "virtual" : "platform");
+
+        try (StubGenerationApi stub = StubGenerationApi.start(recording, settings);
+             ApplicationUnderTest app = ApplicationUnderTest.start(stub, virtualThreads)) {
+            HttpClient http = ApplicationUnderTest.httpClient();
+            for (String endpoint : endpoints) {
+                HttpRequest request = HttpRequest.newBuilder(app.uri(endpoint.trim()))
+                        .timeout(Duration.ofSeconds(30))
+                        .build();
+                for (int rate : rates) {
+                    drive(http, request, rate, warmup, stub);
+                    RunResult result = drive(http, request, rate, duration, stub);
+                    result.print(endpoint.trim(), rate);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends {@code rate} requests per second for {@code duration}, each on its own virtual thread.
+     */
+    private static RunResult drive(HttpClient http, HttpRequest request, int rate, Duration duration,
+                                   StubGenerationApi stub) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        long requests = Math.max(1, rate * duration.toSeconds());
+        long intervalNanos = 1_000_000_000L / rate;
+
+        stub.reset();
+        long startNanos = System.nanoTime();
+        long sentNanos;
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long scheduled = startNanos + i * intervalNanos;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                senders.submit(() -> send(http, request, scheduled, histogram, errors));
+            }
+            sentNanos = System.nanoTime() - startNanos;
+        }
+        return new RunResult(histogram, errors, requests / (sentNanos / 1e9), stub.calls(), stub.failures());
+    }
+
+    private static void send(HttpClient http, HttpRequest request, long scheduledNanos,
+                             LatencyHistogram histogram, Map<String, LongAdder> errors) {
+        try {
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) {
+                errors.computeIfAbsent("HTTP " + response.statusCode(), key -> new LongAdder()).increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.computeIfAbsent("interrupted", key -> new LongAdder()).increment();
+        } catch (Exception e) {
+            errors.computeIfAbsent(e.getClass().getSimpleName(), key -> new LongAdder()).increment();
+        }
+        histogram.recordNanos(System.nanoTime() - scheduledNanos);
+    }
+
+    private record RunResult(LatencyHistogram histogram, Map<String, LongAdder> errors, double achievedRate,
+                             int upstreamCalls, int upstreamFailures) {
+
+        void print(String endpoint, int rate) {
+            long errorCount = errors.values().stream().mapToLong(LongAdder::sum).sum();
+            System.out.printf("%n%s @ %d req/s: %d requests, achieved %.0f req/s, %d errors, "
+                            + "%d upstream calls (%d failed)%n",
+                    endpoint, rate, histogram.count(), achievedRate, errorCount, upstreamCalls, upstreamFailures);
+            if (errorCount > 0) {
+                Map<String, Long> byType = new TreeMap<>();
+                errors.forEach((type, count) -> byType.put(type, count.sum()));
+                System.out.printf("    errors: %s%n", byType);
+            }
+            histogram.print(System.out);
+        }
+    }
+}
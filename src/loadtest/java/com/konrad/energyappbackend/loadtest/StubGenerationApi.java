@@ -0,0 +1,160 @@
+package com.konrad.energyappbackend.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Carbon Intensity Generation API.
+ *
+ * <p>Answers {@code GET /generation/{from}/{to}} from a {@link GenerationRecording} after a
+ * latency of {@code latency} plus a uniformly random {@code jitter}, and fails that share of
+ * calls given by {@code errorRate} with {@code 503}. It counts calls, failures and the peak
+ * number of calls in progress, so a load test can see how many upstream connections the
+ * application opened.
+ */
+final class StubGenerationApi implements AutoCloseable {
+
+    private static final byte[] ERROR_BODY =
+            "{\"error\":{\"code\":\"503\",\"message\":\"Stubbed failure\"}}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final GenerationRecording recording;
+    private final Settings settings;
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger peakRunning = new AtomicInteger();
+
+    /**
+     * @param latency fixed delay of every response
+     * @param jitter upper bound of the random delay added to {@code latency}
+     * @param errorRate share of calls (0-1) answered with {@code 503}
+     */
+    record Settings(Duration latency, Duration jitter, double errorRate) {
+
+        Settings {
+            if (errorRate < 0 || errorRate > 1) {
+                throw new IllegalArgumentException("Error rate must be between 0 and 1");
+            }
+        }
+
+        /**
+         * Reads {@code upstreamLatencyMs}, {@code upstreamJitterMs} and {@code upstreamErrorRate}.
+         */
+        static Settings fromSystemProperties(long defaultLatencyMs, long defaultJitterMs) {
+            return new Settings(
+                    Duration.ofMillis(Long.getLong("upstreamLatencyMs", defaultLatencyMs)),
+                    Duration.ofMillis(Long.getLong("upstreamJitterMs", defaultJitterMs)),
+                    Double.parseDouble(System.getProperty("upstreamErrorRate", "0")));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("latency %d ms + jitter up to %d ms, error rate %.1f%%",
+                    latency.toMillis(), jitter.toMillis(), errorRate * 100);
+        }
+    }
+
+    private StubGenerationApi(GenerationRecording recording, Settings settings) throws IOException {
+        this.recording = recording;
+        this.settings = settings;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/generation/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    static StubGenerationApi start(GenerationRecording recording, Settings settings) throws IOException {
+        StubGenerationApi stub = new StubGenerationApi(recording, settings);
+        stub.server.start();
+        return stub;
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    Settings settings() {
+        return settings;
+    }
+
+    int calls() {
+        return calls.get();
+    }
+
+    int failures() {
+        return failures.get();
+    }
+
+    int peakRunning() {
+        return peakRunning.get();
+    }
+
+    void reset() {
+        calls.set(0);
+        failures.set(0);
+        peakRunning.set(running.get());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        calls.incrementAndGet();
+        peakRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delay = settings.latency().toMillis() + random.nextLong(settings.jitter().toMillis() + 1);
+            Thread.sleep(delay);
+
+            if (random.nextDouble() < settings.errorRate()) {
+                failures.incrementAndGet();
+                respond(exchange, 503, ERROR_BODY);
+                return;
+            }
+
+            String[] parts = exchange.getRequestURI().getPath().split("/");
+            respond(exchange, 200, recording.replay(parse(parts[2]), parse(parts[3])));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(503, -1);
+        } catch (RuntimeException e) {
+            exchange.sendResponseHeaders(400, -1);
+        } finally {
+            running.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Accepts the application's {@code Instant} format as well as the API's own {@code yyyy-MM-ddTHH:mmZ}.
+     */
+    private static Instant parse(String timestamp) {
+        return OffsetDateTime.parse(timestamp).toInstant();
+    }
+}
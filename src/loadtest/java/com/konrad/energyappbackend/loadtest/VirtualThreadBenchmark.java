@@ -0,0 +1,155 @@
+package com.konrad.energyappbackend.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Compares the servlet stack on platform threads and on virtual threads.
+ *
+ * <p>For every thread mode and client count the application is started fresh against a
+ * {@link StubGenerationApi}, and that many concurrent clients call
+ * {@code GET /api/energy-mix?from=&to=} in a closed loop. Every call asks for a day no call
+ * has asked for recently, so it misses the client cache, is not coalesced with another call
+ * and keeps its request thread blocked on the stub's latency. The snapshot-backed endpoints
+ * are answered from memory and would not show the difference between the thread modes. Each
+ * run reports throughput, latency percentiles, errors, the peak number of platform threads
+ * and the number of upstream calls and connections.
+ *
+ * <p>Upstream calls are capped at {@code upstreamPermits} and callers wait up to a minute for
+ * a permit, so the limiter queues requests rather than failing them.
+ *
+ * <p>Settings (system properties): {@code clients} (default {@code 1000,5000,10000}),
+ * {@code durationSeconds} (20), {@code upstreamLatencyMs} (300), {@code upstreamJitterMs} (0),
+ * {@code upstreamErrorRate} (0), {@code upstreamPermits} (500), {@code recording} (bundled sample).
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java -Dloadtest.main=com.konrad.energyappbackend.loadtest.VirtualThreadBenchmark
+ * </pre>
+ */
+public final class VirtualThreadBenchmark {
+
+    /**
+     * Days the requested day cycles through, far more than the client cache holds.
+     */
+    private static final int DISTINCT_DAYS = 20_000;
+    private static final LocalDate LAST_DAY = LocalDate.of(2025, 12, 31);
+
+    private VirtualThreadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] clientCounts = Arrays.stream(System.getProperty("clients", "1000,5000,10000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Duration duration = Duration.ofSeconds(Long.getLong("durationSeconds", 20));
+        GenerationRecording recording = GenerationRecording.load(System.getProperty("recording"));
+
+        List<Result> results = new ArrayList<>();
+        try (StubGenerationApi stub = StubGenerationApi.start(
+                recording, StubGenerationApi.Settings.fromSystemProperties(300, 0))) {
+            for (boolean virtualThreads : new boolean[] {false, true}) {
+                for (int clients : clientCounts) {
+                    results.add(run(stub, virtualThreads, clients, duration));
+                }
+            }
+        }
+
+        System.out.printf("%n%-9s %8s %10s %10s %9s %9s %9s %7s %9s %9s %9s%n",
+                "threads", "clients", "requests", "req/s", "p50 ms", "p99 ms", "max ms",
+                "errors", "peak thr", "upstream", "up. peak");
+        for (Result result : results) {
+            System.out.println(result.format());
+        }
+    }
+
+    private static Result run(StubGenerationApi stub, boolean virtualThreads, int clients, Duration duration)
+            throws Exception {
+        stub.reset();
+        try (ApplicationUnderTest app = ApplicationUnderTest.start(stub, virtualThreads,
+                "app.generation.max-concurrent-calls=" + Integer.getInteger("upstreamPermits", 500),
+                "app.generation.permit-timeout-ms=60000")) {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+
+            HttpClient http = ApplicationUnderTest.httpClient();
+            AtomicLong sequence = new AtomicLong();
+            Supplier<HttpRequest> requests = () -> {
+                LocalDate day = LAST_DAY.minusDays(sequence.getAndIncrement() % DISTINCT_DAYS);
+                return HttpRequest.newBuilder(app.uri("/api/energy-mix?from=" + day + "&to=" + day))
+                        .timeout(Duration.ofSeconds(60))
+                        .build();
+            };
+
+            LatencyHistogram histogram = new LatencyHistogram();
+            LongAdder errors = new LongAdder();
+            CountDownLatch start = new CountDownLatch(1);
+
+            long startNanos;
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < clients; i++) {
+                    executor.submit(() -> {
+                        start.await();
+                        callUntil(http, requests, System.nanoTime() + duration.toNanos(), histogram, errors);
+                        return null;
+                    });
+                }
+                startNanos = System.nanoTime();
+                start.countDown();
+            }
+            return Result.of(virtualThreads, clients, histogram, errors.sum(), System.nanoTime() - startNanos,
+                    threads.getPeakThreadCount(), stub.calls(), stub.peakRunning());
+        }
+    }
+
+    private static void callUntil(HttpClient http, Supplier<HttpRequest> requests, long deadlineNanos,
+                                  LatencyHistogram histogram, LongAdder errors) {
+        while (System.nanoTime() < deadlineNanos) {
+            HttpRequest request = requests.get();
+            long started = System.nanoTime();
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    errors.increment();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                errors.increment();
+            }
+            histogram.recordNanos(System.nanoTime() - started);
+        }
+    }
+
+    private record Result(boolean virtualThreads, int clients, long requests, double throughput,
+                          double p50, double p99, double max, long errors,
+                          int peakThreads, int upstreamCalls, int upstreamPeak) {
+
+        static Result of(boolean virtualThreads, int clients, LatencyHistogram histogram, long errors,
+                         long elapsedNanos, int peakThreads, int upstreamCalls, int upstreamPeak) {
+            return new Result(virtualThreads, clients, histogram.count(), histogram.count() / (elapsedNanos / 1e9),
+                    histogram.percentileMillis(50), histogram.percentileMillis(99), histogram.maxMillis(),
+                    errors, peakThreads, upstreamCalls, upstreamPeak);
+        }
+
+        String format() {
+            return String.format("%-9s %8d %10d %10.0f %9.1f %9.1f %9.1f %7d %9d %9d %9d",
+                    virtualThreads ? "virtual" : "platform", clients, requests, throughput,
+                    p50, p99, max, errors, peakThreads, upstreamCalls, upstreamPeak);
+        }
+    }
+}
@@ -1,10 +1,21 @@
 package com.konrad.energyappbackend.client;
 
-import com.konrad.energyappbackend.client.dto.GenerationResponse;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.ZonedDateTime;
 
 
 public interface GenerationClient {
-    GenerationResponse getGenerationInterval(ZonedDateTime from, ZonedDateTime to);
+    GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to);
+
+    /**
+     * Non-blocking variant of {@link #getGenerationSeries}. The default runs the blocking call
+     * on a bounded elastic thread; implementations that can do better override it.
+     */
+    default Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        return Mono.fromCallable(() -> getGenerationSeries(from, to))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
 }
@@ -0,0 +1,136 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caching decorator for {@link GenerationClient}.
+ *
+ * <p>The Carbon Intensity API publishes data per half-hour settlement period, so a response
+ * cannot change before the next :00 or :30 boundary. Every entry is kept until the first
+ * boundary after it was fetched and is then fetched again from the delegate.
+ *
+ * <p>The cache holds at most {@code maxEntries} intervals. When it is full, expired entries
+ * are dropped first, then the entry closest to expiry. A limit of 0 disables caching.
+ * Lookups do not lock; eviction and insertion happen together under one lock, so concurrent
+ * misses cannot push the cache past its limit.
+ *
+ * <p>The blocking and the reactive methods share the same entries.
+ */
+public class CachingGenerationClient implements GenerationClient {
+
+    static final long SETTLEMENT_PERIOD_SECONDS = 30 * 60;
+
+    private final GenerationClient delegate;
+    private final int maxEntries;
+    private final Clock clock;
+
+    private final Map<IntervalKey, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingGenerationClient(GenerationClient delegate, int maxEntries, Clock clock) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Max entries must not be negative");
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        IntervalKey key = IntervalKey.of(from, to);
+        Instant now = clock.instant();
+
+        CacheEntry entry = entries.get(key);
+        if (entry != null && now.isBefore(entry.expiresAt())) {
+            hits.increment();
+            return entry.series();
+        }
+
+        misses.increment();
+        GenerationSeries series = delegate.getGenerationSeries(from, to);
+        store(key, series, now);
+        return series;
+    }
+
+    @Override
+    public Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        return Mono.defer(() -> {
+            IntervalKey key = IntervalKey.of(from, to);
+            Instant now = clock.instant();
+
+            CacheEntry entry = entries.get(key);
+            if (entry != null && now.isBefore(entry.expiresAt())) {
+                hits.increment();
+                return Mono.just(entry.series());
+            }
+
+            misses.increment();
+            return delegate.fetchGenerationSeries(from, to)
+                    .doOnNext(series -> store(key, series, now));
+        });
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the first half-hour boundary strictly after the given instant.
+     */
+    static Instant nextSettlementBoundary(Instant instant) {
+        long seconds = instant.getEpochSecond();
+        return Instant.ofEpochSecond(seconds - Math.floorMod(seconds, SETTLEMENT_PERIOD_SECONDS)
+                + SETTLEMENT_PERIOD_SECONDS);
+    }
+
+    private void store(IntervalKey key, GenerationSeries series, Instant now) {
+        if (maxEntries == 0) {
+            return;
+        }
+        synchronized (entries) {
+            if (!entries.containsKey(key)) {
+                makeRoom(now);
+            }
+            entries.put(key, new CacheEntry(series, nextSettlementBoundary(now)));
+        }
+    }
+
+    /**
+     * Frees one slot when the cache is full. Called with the {@code entries} lock held.
+     */
+    private void makeRoom(Instant now) {
+        if (entries.size() < maxEntries) {
+            return;
+        }
+
+        entries.values().removeIf(entry -> !now.isBefore(entry.expiresAt()));
+
+        while (entries.size() >= maxEntries) {
+            entries.entrySet().stream()
+                    .min(Comparator.comparing(e -> e.getValue().expiresAt()))
+                    .ifPresent(e -> entries.remove(e.getKey()));
+        }
+    }
+
+    private record CacheEntry(GenerationSeries series, Instant expiresAt) { }
+}
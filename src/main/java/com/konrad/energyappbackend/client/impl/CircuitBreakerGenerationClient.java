@@ -0,0 +1,155 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker decorator for {@link GenerationClient}.
+ *
+ * <p>After {@code failureThreshold} consecutive failed calls the circuit opens: calls fail at
+ * once with {@link ExternalApiException} instead of waiting for the upstream timeout. Once
+ * {@code openDuration} has passed the circuit is half-open and lets up to {@code trialCalls}
+ * calls through at a time. The first successful trial closes the circuit, a failed one opens it
+ * again for another {@code openDuration}; callers beyond the trial calls are rejected.
+ *
+ * <p>Only failures of the upstream itself count: no answer (timeout, connection failure) or a
+ * 5xx. A 4xx or an unusable body depends on the requested range, so it is passed on without
+ * counting, and a bad user range cannot open the circuit for every caller.
+ *
+ * <p>Blocking and reactive callers share the same state. A cancelled reactive trial call
+ * counts as neither success nor failure.
+ */
+@Slf4j
+public class CircuitBreakerGenerationClient implements GenerationClient {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final GenerationClient delegate;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final int trialCalls;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openUntil = Instant.MIN;
+    private int trialsInFlight;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public CircuitBreakerGenerationClient(GenerationClient delegate, int failureThreshold, Duration openDuration,
+                                          int trialCalls, Clock clock) {
+        if (failureThreshold < 1 || trialCalls < 1) {
+            throw new IllegalArgumentException("Failure threshold and trial calls must be at least 1");
+        }
+        this.delegate = delegate;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.trialCalls = trialCalls;
+        this.clock = clock;
+    }
+
+    @Override
+    public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        boolean trial = acquire();
+        GenerationSeries series;
+        try {
+            series = delegate.getGenerationSeries(from, to);
+        } catch (RuntimeException ex) {
+            onFailure(trial, ex);
+            throw ex;
+        }
+        onSuccess(trial);
+        return series;
+    }
+
+    @Override
+    public Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        return Mono.defer(() -> {
+            boolean trial = acquire();
+            return delegate.fetchGenerationSeries(from, to)
+                    .doOnSuccess(series -> onSuccess(trial))
+                    .doOnError(ex -> onFailure(trial, ex))
+                    .doOnCancel(() -> onIgnored(trial));
+        });
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Number of calls rejected without reaching the upstream.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return whether the call is a half-open trial
+     * @throws ExternalApiException if the circuit does not let the call through
+     */
+    private synchronized boolean acquire() {
+        if (state == State.OPEN && !clock.instant().isBefore(openUntil)) {
+            state = State.HALF_OPEN;
+            log.info("Generation API circuit half-open, trying {} call(s)", trialCalls);
+        }
+        if (state == State.CLOSED) {
+            return false;
+        }
+        if (state == State.HALF_OPEN && trialsInFlight < trialCalls) {
+            trialsInFlight++;
+            return true;
+        }
+        rejected.increment();
+        throw new ExternalApiException("Generation API circuit is open, not calling it until " + openUntil);
+    }
+
+    private synchronized void onSuccess(boolean trial) {
+        if (trial) {
+            trialsInFlight--;
+        } else if (state == State.OPEN) {
+            ///  a late success of a call started before the circuit opened is no trial
+            return;
+        }
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            log.info("Generation API circuit closed");
+        }
+    }
+
+    private synchronized void onFailure(boolean trial, Throwable cause) {
+        if (cause instanceof ExternalApiException external && !external.isUpstreamFailure()) {
+            onIgnored(trial);
+            return;
+        }
+        if (trial) {
+            trialsInFlight--;
+        }
+        consecutiveFailures++;
+        ///  a late failure of a call started before the circuit opened does not extend it
+        if ((trial && state == State.HALF_OPEN)
+                || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openUntil = clock.instant().plus(openDuration);
+            log.warn("Generation API circuit open for {} s after {} failure(s): {}",
+                    openDuration.toSeconds(), consecutiveFailures, cause.getMessage());
+        }
+    }
+
+    private synchronized void onIgnored(boolean trial) {
+        if (trial) {
+            trialsInFlight--;
+        }
+    }
+}
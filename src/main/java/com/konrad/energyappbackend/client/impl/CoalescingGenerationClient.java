@@ -0,0 +1,99 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import reactor.core.publisher.Mono;
+
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single-flight decorator for {@link GenerationClient}.
+ *
+ * <p>Concurrent callers asking for the same interval share one in-flight upstream call:
+ * the first caller performs the request, all others wait for its result and receive the
+ * same parsed {@link GenerationSeries}. A failure is delivered once to every waiter and
+ * is not remembered, so the next request after it starts a fresh call.
+ *
+ * <p>Blocking and reactive callers share the same in-flight calls. A reactive call runs to
+ * completion even if the subscriber that started it cancels, so other waiters still get
+ * the result.
+ */
+public class CoalescingGenerationClient implements GenerationClient {
+
+    private final GenerationClient delegate;
+
+    private final Map<IntervalKey, CompletableFuture<GenerationSeries>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    public CoalescingGenerationClient(GenerationClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        IntervalKey key = IntervalKey.of(from, to);
+        CompletableFuture<GenerationSeries> call = new CompletableFuture<>();
+
+        CompletableFuture<GenerationSeries> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        try {
+            call.complete(delegate.getGenerationSeries(from, to));
+        } catch (Throwable ex) {
+            call.completeExceptionally(ex);
+        } finally {
+            inFlight.remove(key, call);
+        }
+        return await(call);
+    }
+
+    @Override
+    public Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        return Mono.defer(() -> {
+            IntervalKey key = IntervalKey.of(from, to);
+            CompletableFuture<GenerationSeries> call = new CompletableFuture<>();
+
+            CompletableFuture<GenerationSeries> running = inFlight.putIfAbsent(key, call);
+            if (running != null) {
+                coalesced.increment();
+                return Mono.fromFuture(running.copy());
+            }
+
+            call.whenComplete((series, ex) -> inFlight.remove(key, call));
+            delegate.fetchGenerationSeries(from, to)
+                    .defaultIfEmpty(GenerationSeries.empty())
+                    .subscribe(call::complete, call::completeExceptionally);
+            ///  a copy, so cancelling this subscriber does not cancel the shared call
+            return Mono.fromFuture(call.copy());
+        });
+    }
+
+    /**
+     * Number of calls that were answered by another caller's in-flight request.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private static GenerationSeries await(CompletableFuture<GenerationSeries> call) {
+        try {
+            return call.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
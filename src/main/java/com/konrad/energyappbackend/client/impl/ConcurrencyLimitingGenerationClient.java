@@ -0,0 +1,142 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency-limiting decorator for {@link GenerationClient}.
+ *
+ * <p>At most {@code maxConcurrentCalls} upstream calls run at the same time; further callers
+ * wait in arrival order for a free permit. A caller that does not get a permit within
+ * {@code permitTimeout} fails with {@link ExternalApiException} instead of opening another
+ * connection. This keeps thousands of waiting requests (e.g. on virtual threads) from turning
+ * into thousands of upstream connections.
+ *
+ * <p>Blocking and reactive callers share the same permits. A reactive caller waits without
+ * holding a thread, and gives its permit back when the call completes, fails or is cancelled.
+ */
+public class ConcurrencyLimitingGenerationClient implements GenerationClient {
+
+    private final GenerationClient delegate;
+    private final int maxConcurrentCalls;
+    private final Duration permitTimeout;
+
+    /// waiters are completed outside the lock; a cancelled waiter is skipped when polled
+    private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+    private int permitsInUse;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public ConcurrencyLimitingGenerationClient(GenerationClient delegate, int maxConcurrentCalls,
+                                               Duration permitTimeout) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("Max concurrent calls must be at least 1");
+        }
+        this.delegate = delegate;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.permitTimeout = permitTimeout;
+    }
+
+    @Override
+    public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        CompletableFuture<Void> permit = acquire();
+        try {
+            permit.get(permitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return delegate.getGenerationSeries(from, to);
+        } catch (TimeoutException ex) {
+            throw rejection(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ExternalApiException("Interrupted while waiting for a Generation API call slot", ex);
+        } catch (ExecutionException ex) {
+            ///  permits are only ever completed normally
+            throw new IllegalStateException(ex);
+        } finally {
+            release(permit);
+        }
+    }
+
+    @Override
+    public Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        return Mono.defer(() -> {
+            CompletableFuture<Void> permit = acquire();
+            ///  a copy, so a timeout or cancellation does not complete the queued permit itself
+            return Mono.fromFuture(permit.copy())
+                    .timeout(permitTimeout)
+                    .onErrorMap(TimeoutException.class, this::rejection)
+                    .then(Mono.defer(() -> delegate.fetchGenerationSeries(from, to)))
+                    .doFinally(signal -> release(permit));
+        });
+    }
+
+    /**
+     * Number of calls rejected because no permit became free in time.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Number of upstream calls currently running.
+     */
+    public synchronized int getActiveCount() {
+        return permitsInUse;
+    }
+
+    /**
+     * @return a completed future if a permit is free, otherwise one that completes when a
+     *         permit is handed over
+     */
+    private CompletableFuture<Void> acquire() {
+        synchronized (this) {
+            if (permitsInUse < maxConcurrentCalls) {
+                permitsInUse++;
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        }
+    }
+
+    /**
+     * Returns a granted permit, or stops waiting for one that has not been granted yet.
+     */
+    private void release(CompletableFuture<Void> permit) {
+        if (permit.cancel(false)) {
+            return;
+        }
+        while (true) {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                next = waiters.poll();
+                if (next == null) {
+                    permitsInUse--;
+                    return;
+                }
+            }
+            ///  hand the permit over; a waiter that gave up in the meantime is skipped
+            if (next.complete(null)) {
+                return;
+            }
+        }
+    }
+
+    private ExternalApiException rejection(Throwable cause) {
+        rejected.increment();
+        return new ExternalApiException("Too many concurrent Generation API calls, no slot free within "
+                + permitTimeout.toMillis() + " ms", cause);
+    }
+}
@@ -0,0 +1,97 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Splits every request into whole UTC days.
+ *
+ * <p>The delegate is asked for each day {@code [00:00, 24:00)} touched by the requested interval
+ * separately, up to {@code parallelism} days at once, and the days are joined back into one
+ * series in start order, keeping only slots that overlap the requested interval. With the cache
+ * below this decorator, every day is cached on its own, so overlapping requests reuse the days
+ * they share and only the missing days go upstream.
+ *
+ * <p>Each day keeps only the slots that start within it, so a slot the upstream returns on
+ * both sides of a midnight appears once in the result.
+ */
+public class DayChunkingGenerationClient implements GenerationClient {
+
+    static final long DAY_SECONDS = 24 * 60 * 60;
+
+    private final GenerationClient delegate;
+    private final int parallelism;
+
+    private final LongAdder chunks = new LongAdder();
+
+    public DayChunkingGenerationClient(GenerationClient delegate, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.delegate = delegate;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        ///  the days are fetched in parallel through the reactive path, so only this thread waits
+        return fetchGenerationSeries(from, to).block();
+    }
+
+    @Override
+    public Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        long fromSecond = from.toEpochSecond();
+        long toSecond = to.toEpochSecond();
+        if (fromSecond >= toSecond) {
+            return delegate.fetchGenerationSeries(from, to);
+        }
+
+        List<Long> days = daysBetween(fromSecond, toSecond);
+        chunks.add(days.size());
+        return Flux.fromIterable(days)
+                .flatMapSequential(this::fetchDay, parallelism)
+                .collectList()
+                .map(parts -> clip(GenerationSeries.concat(parts), fromSecond, toSecond));
+    }
+
+    /**
+     * Number of day requests made to the delegate.
+     */
+    public long getChunkCount() {
+        return chunks.sum();
+    }
+
+    /**
+     * @return start of every UTC day overlapping {@code [fromSecond, toSecond)}, in epoch seconds
+     */
+    static List<Long> daysBetween(long fromSecond, long toSecond) {
+        List<Long> days = new ArrayList<>();
+        for (long day = fromSecond - Math.floorMod(fromSecond, DAY_SECONDS); day < toSecond; day += DAY_SECONDS) {
+            days.add(day);
+        }
+        return days;
+    }
+
+    private Mono<GenerationSeries> fetchDay(long day) {
+        ZonedDateTime start = ZonedDateTime.ofInstant(Instant.ofEpochSecond(day), ZoneOffset.UTC);
+        return delegate.fetchGenerationSeries(start, start.plusDays(1))
+                .defaultIfEmpty(GenerationSeries.empty())
+                .map(series -> series.slice(series.indexOf(day), series.indexOf(day + DAY_SECONDS)));
+    }
+
+    ///  keeps the slots ending after from and starting before to
+    private static GenerationSeries clip(GenerationSeries series, long fromSecond, long toSecond) {
+        return series.slice(
+                series.indexOf(fromSecond - GenerationSeries.SLOT_SECONDS + 1),
+                series.indexOf(toSecond));
+    }
+}
@@ -1,33 +1,113 @@
 package com.konrad.energyappbackend.client.impl;
 
 import com.konrad.energyappbackend.client.GenerationClient;
-import com.konrad.energyappbackend.client.dto.GenerationResponse;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class GenerationClientImpl implements GenerationClient {
 
+    private static final Duration UPSTREAM_TIMEOUT = Duration.ofSeconds(6);
+
+    static final String REQUEST_TIMER = "generation.api.requests";
+
     private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary payloadSize;
+    private final Timer decodeTime;
+    private final int maxResponseBytes;
 
-    public GenerationClientImpl(WebClient webClient) {
+    ///  one timer per tag combination, looked up instead of rebuilt on every call
+    private final Map<RequestTags, Timer> requestTimers = new ConcurrentHashMap<>();
+
+    public GenerationClientImpl(WebClient webClient, MeterRegistry meterRegistry,
+                                @Value("${app.generation.max-response-size:4MB}") DataSize maxResponseSize) {
         this.webClient = webClient;
+        this.meterRegistry = meterRegistry;
+        this.maxResponseBytes = Math.toIntExact(maxResponseSize.toBytes());
+        this.payloadSize = DistributionSummary.builder("generation.api.response.size")
+                .description("Size of Generation API response bodies")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.decodeTime = Timer.builder("generation.api.decode")
+                .description("Time to decode a Generation API response body")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     @Override
-    public GenerationResponse getGenerationInterval(ZonedDateTime from, ZonedDateTime to) {
+    public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        return fetchGenerationSeries(from, to).block();
+    }
+
+    @Override
+    public Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
 
         String fromStr = from.toInstant().toString();
         String toStr = to.toInstant().toString();
 
-        return webClient.get()
-                .uri(builder -> builder.path("/generation/{from}/{to}").build(fromStr, toStr))
-                .retrieve()
-                .bodyToMono(GenerationResponse.class)
-                .block(Duration.ofSeconds(6));
+        ///  decode straight into columns, sized for one slot per half hour of the range
+        int expectedSlots = (int) (Duration.between(from, to).toSeconds() / GenerationSeries.SLOT_SECONDS) + 1;
+
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AtomicInteger status = new AtomicInteger();
+            return webClient.get()
+                    .uri(builder -> builder.path("/generation/{from}/{to}").build(fromStr, toStr))
+                    .exchangeToMono(response -> {
+                        status.set(response.statusCode().value());
+                        return response.body(GenerationSeriesDecoder.extractor(
+                                expectedSlots, maxResponseBytes, payloadSize, decodeTime));
+                    })
+                    .timeout(UPSTREAM_TIMEOUT)
+                    .onErrorMap(TimeoutException.class, ex -> new ExternalApiException(
+                            "Generation API did not respond within " + UPSTREAM_TIMEOUT.toSeconds() + "s", ex))
+                    .defaultIfEmpty(GenerationSeries.empty())
+                    .doOnSuccess(series -> sample.stop(requestTimer(status.get(), null, "SUCCESS")))
+                    .doOnError(ex -> sample.stop(requestTimer(statusOf(ex, status.get()), ex, "ERROR")))
+                    ///  hedged, timed out by a caller or abandoned by a client that went away
+                    .doOnCancel(() -> sample.stop(requestTimer(status.get(), null, "CANCELLED")));
+        });
+    }
+
+    private Timer requestTimer(int status, Throwable error, String outcome) {
+        RequestTags tags = new RequestTags(status, error == null ? null : error.getClass(), outcome);
+        Timer timer = requestTimers.get(tags);
+        return timer != null ? timer : requestTimers.computeIfAbsent(tags, this::registerRequestTimer);
+    }
+
+    private Timer registerRequestTimer(RequestTags tags) {
+        return Timer.builder(REQUEST_TIMER)
+                .description("Generation API calls, from the request until the body is decoded")
+                .tag("status", tags.status() == 0 ? "NONE" : String.valueOf(tags.status()))
+                .tag("exception", tags.exception() == null ? "none" : tags.exception().getSimpleName())
+                .tag("outcome", tags.outcome())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    ///  error responses are turned into exceptions by a filter, before the body extractor sees them
+    private static int statusOf(Throwable error, int status) {
+        return error instanceof ExternalApiException external && external.getStatusCode() != 0
+                ? external.getStatusCode()
+                : status;
     }
 
+    private record RequestTags(int status, Class<?> exception, String outcome) { }
 }
@@ -0,0 +1,286 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.konrad.energyappbackend.domain.EnergySource;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ReactiveHttpInputMessage;
+import org.springframework.web.reactive.function.BodyExtractor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Month;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * Streaming decoder for Generation API responses.
+ *
+ * <p>Reads the {@code data[].from / generationmix[].fuel / perc} layout token by token with
+ * Jackson's {@link JsonParser} and writes straight into the primitive columns of a
+ * {@link GenerationSeries}. No intermediate records, timestamp strings or fuel name strings
+ * are created: timestamps are parsed to epoch seconds and fuel names matched against
+ * {@link EnergySource} from the parser's character buffer. Allocation is a few arrays that
+ * grow with the number of slots. Unknown fields are skipped; unknown fuels are added to
+ * {@link EnergySource#OTHER}, as in {@link GenerationSeries#from}.
+ */
+public final class GenerationSeriesDecoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int SOURCE_COUNT = EnergySource.values().length;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] slotStarts;
+    private double[][] columns;
+    private int size;
+
+    private GenerationSeriesDecoder(int expectedSlots) {
+        int capacity = Math.max(expectedSlots, MIN_CAPACITY);
+        this.slotStarts = new long[capacity];
+        this.columns = new double[SOURCE_COUNT][capacity];
+    }
+
+    /**
+     * Body extractor for {@code WebClient}: joins the response buffers and decodes them.
+     *
+     * @param expectedSlots number of slots the response is expected to hold, used to size the columns
+     * @param maxBytes largest body accepted; a longer one fails with {@link ExternalApiException}
+     * @param payloadSize records the size of every response body in bytes
+     * @param decodeTime records the time spent decoding a joined body
+     */
+    public static BodyExtractor<Mono<GenerationSeries>, ReactiveHttpInputMessage> extractor(
+            int expectedSlots, int maxBytes, DistributionSummary payloadSize, Timer decodeTime) {
+        return (message, context) -> decode(message.getBody(), expectedSlots, maxBytes, payloadSize, decodeTime);
+    }
+
+    static Mono<GenerationSeries> decode(Flux<DataBuffer> body, int expectedSlots, int maxBytes,
+                                         DistributionSummary payloadSize, Timer decodeTime) {
+        ///  the codecs' in-memory limit does not apply to a custom extractor, so cap the join here
+        return DataBufferUtils.join(body, maxBytes)
+                .onErrorMap(DataBufferLimitException.class, ex -> ExternalApiException.invalidResponse(
+                        "Generation API response exceeds " + maxBytes + " bytes", ex))
+                .map(buffer -> {
+                    payloadSize.record(buffer.readableByteCount());
+                    return decodeTime.record(() -> decode(buffer, expectedSlots));
+                })
+                .defaultIfEmpty(GenerationSeries.empty());
+    }
+
+    /**
+     * Decodes a complete response body and releases the buffer.
+     */
+    static GenerationSeries decode(DataBuffer buffer, int expectedSlots) {
+        try (InputStream in = buffer.asInputStream(true)) {
+            return decode(in, expectedSlots);
+        } catch (IOException e) {
+            throw ExternalApiException.invalidResponse("Could not read Generation API response: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decodes a complete response body.
+     *
+     * @param in JSON response of the Generation API
+     * @param expectedSlots number of slots the response is expected to hold, used to size the columns
+     * @return series sorted by slot start
+     */
+    public static GenerationSeries decode(InputStream in, int expectedSlots) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            return new GenerationSeriesDecoder(expectedSlots).read(parser);
+        }
+    }
+
+    private GenerationSeries read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw ExternalApiException.invalidResponse("Generation API response is not a JSON object");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                readIntervals(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return toSeries();
+    }
+
+    private void readIntervals(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            ensureCapacity(size + 1);
+            readInterval(parser, size);
+            size++;
+        }
+    }
+
+    private void readInterval(JsonParser parser, int slot) throws IOException {
+        boolean hasStart = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("from".equals(field) && value == JsonToken.VALUE_STRING) {
+                slotStarts[slot] = parseEpochSecond(
+                        parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                hasStart = true;
+            } else if ("generationmix".equals(field) && value == JsonToken.START_ARRAY) {
+                readMix(parser, slot);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (!hasStart) {
+            throw ExternalApiException.invalidResponse("Generation API returned an interval without 'from'");
+        }
+    }
+
+    private void readMix(JsonParser parser, int slot) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            EnergySource source = null;
+            double perc = 0.0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("fuel".equals(field) && value == JsonToken.VALUE_STRING) {
+                    source = EnergySource.fromFuelName(
+                            parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                } else if ("perc".equals(field) && value.isNumeric()) {
+                    perc = parser.getDoubleValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            columns[(source != null ? source : EnergySource.OTHER).ordinal()][slot] += perc;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= slotStarts.length) {
+            return;
+        }
+        int grown = Math.max(capacity, slotStarts.length * 2);
+        slotStarts = Arrays.copyOf(slotStarts, grown);
+        for (int source = 0; source < SOURCE_COUNT; source++) {
+            columns[source] = Arrays.copyOf(columns[source], grown);
+        }
+    }
+
+    private GenerationSeries toSeries() {
+        if (size == 0) {
+            return GenerationSeries.empty();
+        }
+        if (size < slotStarts.length) {
+            slotStarts = Arrays.copyOf(slotStarts, size);
+            for (int source = 0; source < SOURCE_COUNT; source++) {
+                columns[source] = Arrays.copyOf(columns[source], size);
+            }
+        }
+        return GenerationSeries.ofUnsorted(slotStarts, columns);
+    }
+
+    /**
+     * Parses {@code yyyy-MM-ddTHH:mm[:ss[.fraction]]} followed by {@code Z} or {@code +HH:mm}
+     * without creating objects. Anything else is handed to {@link OffsetDateTime#parse}.
+     *
+     * @throws ExternalApiException if the text is not a valid time
+     */
+    static long parseEpochSecond(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        if (length < 17 || chars[i + 4] != '-' || chars[i + 7] != '-' || chars[i + 10] != 'T'
+                || chars[i + 13] != ':') {
+            return parseFallback(chars, offset, length);
+        }
+        int year = digits(chars, i, 4);
+        int month = digits(chars, i + 5, 2);
+        int day = digits(chars, i + 8, 2);
+        int hour = digits(chars, i + 11, 2);
+        int minute = digits(chars, i + 14, 2);
+        int second = 0;
+        i += 16;
+
+        if (i < end && chars[i] == ':') {
+            if (i + 3 > end) {
+                return parseFallback(chars, offset, length);
+            }
+            second = digits(chars, i + 1, 2);
+            i += 3;
+            /// fraction of a second does not matter for half-hour slots
+            if (i < end && chars[i] == '.') {
+                i++;
+                while (i < end && chars[i] >= '0' && chars[i] <= '9') {
+                    i++;
+                }
+            }
+        }
+
+        int offsetSeconds;
+        if (i + 1 == end && (chars[i] == 'Z' || chars[i] == 'z')) {
+            offsetSeconds = 0;
+        } else if (i + 6 == end && (chars[i] == '+' || chars[i] == '-') && chars[i + 3] == ':') {
+            int sign = chars[i] == '-' ? -1 : 1;
+            int offsetHours = digits(chars, i + 1, 2);
+            int offsetMinutes = digits(chars, i + 4, 2);
+            if (offsetHours < 0 || offsetMinutes < 0) {
+                return parseFallback(chars, offset, length);
+            }
+            offsetSeconds = sign * (offsetHours * 3600 + offsetMinutes * 60);
+        } else {
+            return parseFallback(chars, offset, length);
+        }
+
+        ///  an impossible date like 02-30 goes to the fallback, which rejects it
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return parseFallback(chars, offset, length);
+        }
+        return epochDay(year, month, day) * 86_400L + hour * 3600L + minute * 60L + second - offsetSeconds;
+    }
+
+    /**
+     * Days since 1970-01-01 in the proleptic Gregorian calendar.
+     */
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+
+    /**
+     * @return the number formed by {@code count} ASCII digits, or -1 if any is not a digit
+     */
+    private static int digits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = chars[i];
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static long parseFallback(char[] chars, int offset, int length) {
+        String text = new String(chars, offset, length);
+        try {
+            return OffsetDateTime.parse(text).toEpochSecond();
+        } catch (DateTimeParseException e) {
+            throw ExternalApiException.invalidResponse("Generation API returned an invalid time '" + text + "'", e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.domain.EnergySource;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary file format of one recorded Generation API response.
+ *
+ * <p>Layout, little-endian: a header of magic number, source count and slot count (three ints),
+ * then the slot starts as epoch seconds ({@code long[slots]}), then one {@code double[slots]}
+ * column per {@link EnergySource} in ordinal order. The columns are stored exactly as
+ * {@link GenerationSeries} holds them, so a replay is a few bulk copies out of a mapped file.
+ */
+final class GenerationSeriesFile {
+
+    static final int MAGIC = 0x47454E31; // "GEN1"
+    static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+    private static final EnergySource[] SOURCES = EnergySource.values();
+
+    private GenerationSeriesFile() {
+    }
+
+    /**
+     * @return file name of the recording of that interval, e.g. {@code generation_1764806400_1765065600.bin}
+     */
+    static String fileName(IntervalKey key) {
+        return "generation_" + key.from().getEpochSecond() + "_" + key.to().getEpochSecond() + ".bin";
+    }
+
+    /**
+     * Writes the series to a temporary file next to {@code file} and moves it into place, so a
+     * concurrent replay never sees a partially written recording.
+     */
+    static void write(Path file, GenerationSeries series) throws IOException {
+        int slots = series.size();
+        ByteBuffer buffer = ByteBuffer
+                .allocate(HEADER_BYTES + slots * Long.BYTES + SOURCES.length * slots * Double.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC).putInt(SOURCES.length).putInt(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            buffer.putLong(series.slotStart(slot));
+        }
+        for (EnergySource source : SOURCES) {
+            for (int slot = 0; slot < slots; slot++) {
+                buffer.putDouble(series.percentage(source, slot));
+            }
+        }
+        buffer.flip();
+
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps a recording read-only. The mapping stays valid after the channel is closed.
+     */
+    static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Decodes a recording. Reads through a duplicate, so one mapped buffer can be shared by
+     * concurrent readers.
+     *
+     * @throws IllegalStateException if the data is not a recording of the current sources
+     */
+    static GenerationSeries read(ByteBuffer data) {
+        ByteBuffer buffer = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(0);
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IllegalStateException("Not a generation recording");
+        }
+        int sources = buffer.getInt();
+        int slots = buffer.getInt();
+        if (sources != SOURCES.length) {
+            throw new IllegalStateException(String.format(
+                    "Recording has %d sources, expected %d", sources, SOURCES.length));
+        }
+        if (buffer.remaining() != slots * Long.BYTES + sources * slots * Double.BYTES) {
+            throw new IllegalStateException("Recording is truncated");
+        }
+
+        long[] slotStarts = new long[slots];
+        buffer.asLongBuffer().get(slotStarts);
+        buffer.position(buffer.position() + slots * Long.BYTES);
+
+        double[][] columns = new double[sources][slots];
+        for (double[] column : columns) {
+            buffer.asDoubleBuffer().get(column);
+            buffer.position(buffer.position() + slots * Double.BYTES);
+        }
+        return GenerationSeries.of(slotStarts, columns);
+    }
+}
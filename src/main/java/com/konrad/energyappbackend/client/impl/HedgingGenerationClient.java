@@ -0,0 +1,158 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hedging decorator for {@link GenerationClient}.
+ *
+ * <p>If a call has not answered after the hedge delay, a second identical call is started and
+ * whichever answers first is used; the other one is cancelled. The delay is the configured
+ * percentile of the latencies of recent successful calls, kept in a decaying histogram, clamped
+ * to {@code [minDelay, maxDelay]}; until enough calls have been measured it is {@code maxDelay}.
+ *
+ * <p>Hedges are paid for from a budget: every call adds {@code budgetPercent / 100} of a hedge,
+ * up to a small burst, so hedges never exceed that share of the calls. A call that fails while
+ * the other one is still running leaves that one to answer, so a failed first call waits for a
+ * hedge in flight. A failure of the first call before any hedge was started is returned at once,
+ * and the error of the call that failed last is returned when both fail.
+ */
+public class HedgingGenerationClient implements GenerationClient {
+
+    /**
+     * Measured calls needed before the percentile replaces {@code maxDelay}.
+     */
+    static final int MIN_SAMPLES = 20;
+
+    /**
+     * Hedges that can be saved up while calls answer in time.
+     */
+    static final int MAX_SAVED_HEDGES = 10;
+
+    /**
+     * Budget units per hedge; one unit is a hundredth of a percent, so shares add up exactly.
+     */
+    private static final long HEDGE_COST = 10_000;
+
+    private final GenerationClient delegate;
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final long budgetPerCall;
+    private final MeterRegistry meterRegistry;
+    private final Timer latency;
+    private final Counter hedges;
+    private final Counter budgetExhausted;
+
+    private long budget;
+
+    public HedgingGenerationClient(GenerationClient delegate, double percentile, Duration minDelay,
+                                   Duration maxDelay, double budgetPercent, MeterRegistry meterRegistry) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Hedge percentile must be between 0 and 1");
+        }
+        if (minDelay.compareTo(maxDelay) > 0) {
+            throw new IllegalArgumentException("Minimum hedge delay must not exceed the maximum");
+        }
+        if (budgetPercent < 0 || budgetPercent > 100) {
+            throw new IllegalArgumentException("Hedge budget must be between 0 and 100 percent");
+        }
+        this.delegate = delegate;
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        this.budgetPerCall = Math.round(budgetPercent * 100);
+        this.meterRegistry = meterRegistry;
+        this.latency = Timer.builder("generation.upstream.latency")
+                .description("Latency of successful Generation API calls, hedges and permit waits included")
+                .publishPercentiles(percentile)
+                .distributionStatisticExpiry(Duration.ofMinutes(5))
+                .register(meterRegistry);
+        this.hedges = Counter.builder("generation.upstream.hedges")
+                .description("Second calls started because the first one was slow")
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder("generation.upstream.hedges.skipped")
+                .description("Hedges not started because the hedge budget was used up")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        return fetchGenerationSeries(from, to).block();
+    }
+
+    @Override
+    public Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        return Mono.defer(() -> {
+            earnBudget();
+            ///  calls that have neither answered nor failed; none are started once it drops to 0
+            AtomicInteger running = new AtomicInteger(1);
+            Mono<GenerationSeries> first = call(from, to, running);
+            ///  a skipped hedge never answers, so the first call decides the result
+            Mono<GenerationSeries> hedge = Mono.delay(hedgeDelay())
+                    .flatMap(tick -> spendBudget() && running.getAndUpdate(n -> n == 0 ? 0 : n + 1) > 0
+                            ? call(from, to, running)
+                            : Mono.never());
+            return Mono.firstWithSignal(first, hedge);
+        });
+    }
+
+    /**
+     * Current hedge delay: the configured latency percentile, clamped to the configured bounds.
+     */
+    Duration hedgeDelay() {
+        HistogramSnapshot snapshot = latency.takeSnapshot();
+        ValueAtPercentile[] percentiles = snapshot.percentileValues();
+        if (snapshot.count() < MIN_SAMPLES || percentiles.length == 0) {
+            return maxDelay;
+        }
+        Duration delay = Duration.ofNanos((long) percentiles[0].value(TimeUnit.NANOSECONDS));
+        if (delay.compareTo(minDelay) < 0) {
+            return minDelay;
+        }
+        return delay.compareTo(maxDelay) > 0 ? maxDelay : delay;
+    }
+
+    /**
+     * Number of hedges started so far.
+     */
+    public long getHedgeCount() {
+        return (long) hedges.count();
+    }
+
+    /**
+     * One upstream call. A failure is only passed on once no other call is left running.
+     */
+    private Mono<GenerationSeries> call(ZonedDateTime from, ZonedDateTime to, AtomicInteger running) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            ///  only completed calls are measured, a cancelled loser says nothing about the latency
+            return delegate.fetchGenerationSeries(from, to)
+                    .doOnSuccess(series -> sample.stop(latency))
+                    .onErrorResume(ex -> running.decrementAndGet() > 0 ? Mono.never() : Mono.error(ex));
+        });
+    }
+
+    private synchronized void earnBudget() {
+        budget = Math.min(MAX_SAVED_HEDGES * HEDGE_COST, budget + budgetPerCall);
+    }
+
+    private synchronized boolean spendBudget() {
+        if (budget < HEDGE_COST) {
+            budgetExhausted.increment();
+            return false;
+        }
+        budget -= HEDGE_COST;
+        hedges.increment();
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.store.GenerationHistory;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.ZonedDateTime;
+
+/**
+ * Decorator for {@link GenerationClient} that appends every successful upstream response to the
+ * {@link GenerationHistory}. A failed write is logged and does not fail the request.
+ */
+@Slf4j
+public class HistoryGenerationClient implements GenerationClient {
+
+    private final GenerationClient delegate;
+    private final GenerationHistory history;
+    private final Clock clock;
+
+    public HistoryGenerationClient(GenerationClient delegate, GenerationHistory history, Clock clock) {
+        this.delegate = delegate;
+        this.history = history;
+        this.clock = clock;
+    }
+
+    @Override
+    public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        GenerationSeries series = delegate.getGenerationSeries(from, to);
+        append(series);
+        return series;
+    }
+
+    @Override
+    public Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        ///  the write may have to grow and remap the file, so it stays off the event loop
+        return delegate.fetchGenerationSeries(from, to)
+                .flatMap(series -> Mono.fromRunnable(() -> append(series))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .thenReturn(series));
+    }
+
+    private void append(GenerationSeries series) {
+        try {
+            history.append(series, clock.instant());
+        } catch (UncheckedIOException ex) {
+            log.warn("Could not append Generation API response to history: {}", ex.getMessage());
+        }
+    }
+}
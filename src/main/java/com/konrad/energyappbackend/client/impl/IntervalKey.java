@@ -0,0 +1,15 @@
+package com.konrad.energyappbackend.client.impl;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+/**
+ * Identity of a generation request, normalized to instants so that the same interval
+ * expressed in different zones maps to the same key.
+ */
+record IntervalKey(Instant from, Instant to) {
+
+    static IntervalKey of(ZonedDateTime from, ZonedDateTime to) {
+        return new IntervalKey(from.toInstant(), to.toInstant());
+    }
+}
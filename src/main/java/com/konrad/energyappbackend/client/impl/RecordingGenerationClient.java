@@ -0,0 +1,58 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+
+/**
+ * Recording decorator for {@link GenerationClient}.
+ *
+ * <p>Every successful upstream response is written to {@code directory}, one file per
+ * requested interval (see {@link GenerationSeriesFile}), replacing an older recording of the
+ * same interval. A {@link ReplayGenerationClient} on the same directory serves them later
+ * without network access. A failed write is logged and does not fail the request.
+ */
+@Slf4j
+public class RecordingGenerationClient implements GenerationClient {
+
+    private final GenerationClient delegate;
+    private final Path directory;
+
+    public RecordingGenerationClient(GenerationClient delegate, Path directory) {
+        this.delegate = delegate;
+        this.directory = directory;
+    }
+
+    @Override
+    public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        GenerationSeries series = delegate.getGenerationSeries(from, to);
+        record(IntervalKey.of(from, to), series);
+        return series;
+    }
+
+    @Override
+    public Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        IntervalKey key = IntervalKey.of(from, to);
+        ///  file I/O stays off the event loop
+        return delegate.fetchGenerationSeries(from, to)
+                .flatMap(series -> Mono.fromRunnable(() -> record(key, series))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .thenReturn(series));
+    }
+
+    private void record(IntervalKey key, GenerationSeries series) {
+        Path file = directory.resolve(GenerationSeriesFile.fileName(key));
+        try {
+            GenerationSeriesFile.write(file, series);
+            log.debug("Recorded {} slots for {} - {} to {}", series.size(), key.from(), key.to(), file);
+        } catch (IOException ex) {
+            log.warn("Could not record Generation API response to {}: {}", file, ex.getMessage());
+        }
+    }
+}
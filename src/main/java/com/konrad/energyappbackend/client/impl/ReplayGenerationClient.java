@@ -0,0 +1,75 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link GenerationClient} that serves responses recorded by {@link RecordingGenerationClient}
+ * instead of calling the Generation API.
+ *
+ * <p>Each recording is memory-mapped on first use and the mapping is kept, so a replay is a
+ * few bulk copies from the page cache into the columns of a new {@link GenerationSeries}, with
+ * no system call. An interval without a recording fails with {@link ExternalApiException},
+ * like an unavailable upstream. Only valid recordings stay mapped: a missing, unreadable or
+ * invalid file is looked up again on the next call, so a recording fixed on disk is picked
+ * up without a restart. The reactive variant reads on the calling thread.
+ */
+public class ReplayGenerationClient implements GenerationClient {
+
+    private final Path directory;
+    private final Map<IntervalKey, MappedByteBuffer> recordings = new ConcurrentHashMap<>();
+
+    public ReplayGenerationClient(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        IntervalKey key = IntervalKey.of(from, to);
+        MappedByteBuffer recording = recordings.get(key);
+        if (recording == null) {
+            recording = recordings.computeIfAbsent(key, this::map);
+        }
+        try {
+            return GenerationSeriesFile.read(recording);
+        } catch (IllegalStateException ex) {
+            recordings.remove(key, recording);
+            throw new ExternalApiException("Invalid recording for " + key.from() + " - " + key.to()
+                    + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+        return Mono.fromCallable(() -> getGenerationSeries(from, to));
+    }
+
+    /**
+     * Number of recordings currently mapped.
+     */
+    public int mappedCount() {
+        return recordings.size();
+    }
+
+    private MappedByteBuffer map(IntervalKey key) {
+        Path file = directory.resolve(GenerationSeriesFile.fileName(key));
+        try {
+            return GenerationSeriesFile.map(file);
+        } catch (NoSuchFileException ex) {
+            throw new ExternalApiException("No recorded Generation API response for "
+                    + key.from() + " - " + key.to() + " in " + directory, ex);
+        } catch (IOException ex) {
+            throw new ExternalApiException("Could not read recording " + file + ": " + ex.getMessage(), ex);
+        }
+    }
+}
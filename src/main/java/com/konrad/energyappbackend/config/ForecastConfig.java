@@ -0,0 +1,24 @@
+package com.konrad.energyappbackend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Clock;
+
+/**
+ * Configuration for the background forecast refresh.
+ * <p>
+ * Enables scheduling of the half-hourly snapshot refresh and provides the UTC clock
+ * used to decide which day a snapshot belongs to.
+ *
+ */
+@Configuration
+@EnableScheduling
+public class ForecastConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+}
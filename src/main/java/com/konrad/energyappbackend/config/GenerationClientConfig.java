@@ -0,0 +1,151 @@
+package com.konrad.energyappbackend.config;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.client.impl.CachingGenerationClient;
+import com.konrad.energyappbackend.client.impl.CircuitBreakerGenerationClient;
+import com.konrad.energyappbackend.client.impl.CoalescingGenerationClient;
+import com.konrad.energyappbackend.client.impl.ConcurrencyLimitingGenerationClient;
+import com.konrad.energyappbackend.client.impl.DayChunkingGenerationClient;
+import com.konrad.energyappbackend.client.impl.GenerationClientImpl;
+import com.konrad.energyappbackend.client.impl.HedgingGenerationClient;
+import com.konrad.energyappbackend.client.impl.HistoryGenerationClient;
+import com.konrad.energyappbackend.client.impl.RecordingGenerationClient;
+import com.konrad.energyappbackend.client.impl.ReplayGenerationClient;
+import com.konrad.energyappbackend.store.GenerationHistory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Assembles the {@link GenerationClient}s used by the services.
+ * <p>
+ * Both clients share the decorators around the upstream:
+ * - appending of every fetched slot to the {@link GenerationHistory}
+ * - optionally, hedging of slow calls with a second identical call
+ * - a limit on concurrent upstream calls, hedges included
+ * - a circuit breaker around the Generation API, which stops calling it while it keeps failing
+ * <p>
+ * The primary client, used for the forecast, adds on top of that:
+ * - splitting of every request into UTC days, fetched in parallel and cached separately
+ * - cache of responses until the next half-hour settlement boundary
+ * - single-flight coalescing of concurrent requests for the same interval
+ * <p>
+ * The {@code rangeGenerationClient}, used for range queries and exports, only coalesces: their
+ * weekly chunks go to the upstream as they are, so a long range neither costs one call per day
+ * nor evicts the forecast days from the cache.
+ * <p>
+ * The source below the decorators depends on {@code app.generation.mode}:
+ * - {@code live} (default): the Generation API
+ * - {@code record}: the Generation API, saving every response to {@code app.generation.recordings-dir}
+ * - {@code replay}: responses saved in that directory, without network access
+ * <p>
+ * The counters of the decorators are registered as {@code generation.*} metrics.
+ *
+ */
+@Configuration
+public class GenerationClientConfig {
+
+    @Bean
+    public HistoryGenerationClient upstreamGenerationClient(
+            GenerationClientImpl upstream,
+            GenerationHistory history,
+            Clock clock,
+            MeterRegistry meterRegistry,
+            @Value("${app.generation.max-concurrent-calls:16}") int maxConcurrentCalls,
+            @Value("${app.generation.permit-timeout-ms:5000}") long permitTimeoutMs,
+            @Value("${app.generation.mode:live}") String mode,
+            @Value("${app.generation.recordings-dir:recordings}") Path recordingsDir,
+            @Value("${app.generation.breaker.failure-threshold:5}") int breakerFailureThreshold,
+            @Value("${app.generation.breaker.open-duration:30s}") Duration breakerOpenDuration,
+            @Value("${app.generation.breaker.trial-calls:1}") int breakerTrialCalls,
+            @Value("${app.generation.hedge.enabled:false}") boolean hedgeEnabled,
+            @Value("${app.generation.hedge.percentile:0.95}") double hedgePercentile,
+            @Value("${app.generation.hedge.min-delay:50ms}") Duration hedgeMinDelay,
+            @Value("${app.generation.hedge.max-delay:2s}") Duration hedgeMaxDelay,
+            @Value("${app.generation.hedge.budget-percent:5}") double hedgeBudgetPercent) {
+        CircuitBreakerGenerationClient guarded = new CircuitBreakerGenerationClient(
+                upstream, breakerFailureThreshold, breakerOpenDuration, breakerTrialCalls, clock);
+        GenerationClient source = switch (mode.trim().toLowerCase(Locale.ROOT)) {
+            case "live" -> guarded;
+            case "record" -> new RecordingGenerationClient(guarded, recordingsDir);
+            case "replay" -> new ReplayGenerationClient(recordingsDir);
+            default -> throw new IllegalArgumentException(
+                    "Unknown app.generation.mode '" + mode + "', expected live, record or replay");
+        };
+        ConcurrencyLimitingGenerationClient limited = new ConcurrencyLimitingGenerationClient(
+                source, maxConcurrentCalls, Duration.ofMillis(permitTimeoutMs));
+        ///  above the limiter, so a hedge needs a permit like any other call
+        GenerationClient hedged = hedgeEnabled
+                ? new HedgingGenerationClient(limited, hedgePercentile, hedgeMinDelay, hedgeMaxDelay,
+                        hedgeBudgetPercent, meterRegistry)
+                : limited;
+
+        Gauge.builder("generation.calls.active", limited, ConcurrencyLimitingGenerationClient::getActiveCount)
+                .description("Upstream calls holding a permit")
+                .register(meterRegistry);
+        FunctionCounter.builder("generation.calls.rejected", limited,
+                        ConcurrencyLimitingGenerationClient::getRejectedCount)
+                .description("Calls that did not get a permit in time")
+                .register(meterRegistry);
+        FunctionCounter.builder("generation.breaker.rejected", guarded, CircuitBreakerGenerationClient::getRejectedCount)
+                .description("Calls rejected while the circuit was open")
+                .register(meterRegistry);
+        return new HistoryGenerationClient(hedged, history, clock);
+    }
+
+    @Bean
+    @Primary
+    public DayChunkingGenerationClient generationClient(
+            HistoryGenerationClient upstreamGenerationClient,
+            Clock clock,
+            MeterRegistry meterRegistry,
+            @Value("${app.generation.cache.max-entries:64}") int cacheMaxEntries,
+            @Value("${app.generation.chunk-parallelism:4}") int chunkParallelism) {
+        CoalescingGenerationClient coalescing = new CoalescingGenerationClient(upstreamGenerationClient);
+        CachingGenerationClient caching = new CachingGenerationClient(coalescing, cacheMaxEntries, clock);
+        DayChunkingGenerationClient chunking = new DayChunkingGenerationClient(caching, chunkParallelism);
+
+        ///  hit ratio: rate of result="hit" over the rate of both results
+        FunctionCounter.builder("generation.cache.requests", caching, CachingGenerationClient::getHitCount)
+                .description("Generation client cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("generation.cache.requests", caching, CachingGenerationClient::getMissCount)
+                .description("Generation client cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("generation.cache.size", caching, CachingGenerationClient::size)
+                .description("Intervals held by the generation client cache")
+                .register(meterRegistry);
+        registerCoalescedCount(coalescing, "day", meterRegistry);
+        FunctionCounter.builder("generation.chunks", chunking, DayChunkingGenerationClient::getChunkCount)
+                .description("Day chunks requested below the chunking client")
+                .register(meterRegistry);
+        return chunking;
+    }
+
+    @Bean
+    public CoalescingGenerationClient rangeGenerationClient(HistoryGenerationClient upstreamGenerationClient,
+                                                            MeterRegistry meterRegistry) {
+        CoalescingGenerationClient coalescing = new CoalescingGenerationClient(upstreamGenerationClient);
+        registerCoalescedCount(coalescing, "range", meterRegistry);
+        return coalescing;
+    }
+
+    private static void registerCoalescedCount(CoalescingGenerationClient coalescing, String client,
+                                               MeterRegistry meterRegistry) {
+        FunctionCounter.builder("generation.coalesced", coalescing, CoalescingGenerationClient::getCoalescedCount)
+                .description("Calls that joined a call already in flight for the same interval")
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+package com.konrad.energyappbackend.config;
+
+import com.konrad.energyappbackend.store.GenerationHistory;
+import com.konrad.energyappbackend.store.impl.MappedGenerationHistory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Configuration for the local history of fetched generation slots.
+ * <p>
+ * The history is a memory-mapped file at {@code app.history.file}. It is filled from every
+ * Generation API response and used to publish the forecast on startup without waiting for
+ * the upstream. With {@code app.history.enabled=false} nothing is stored.
+ *
+ */
+@Configuration
+public class HistoryConfig {
+
+    @Bean
+    public GenerationHistory generationHistory(
+            @Value("${app.history.enabled:true}") boolean enabled,
+            @Value("${app.history.file:history/generation.bin}") Path file) throws IOException {
+        if (!enabled) {
+            return GenerationHistory.disabled();
+        }
+        return MappedGenerationHistory.open(file);
+    }
+}
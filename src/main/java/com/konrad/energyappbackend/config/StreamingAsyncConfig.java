@@ -0,0 +1,72 @@
+package com.konrad.energyappbackend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Async timeouts of the long-lived streams on the servlet stack.
+ * <p>
+ * An NDJSON export streams for minutes and the forecast update stream never ends, both far
+ * longer than the default async timeout that every other request keeps. The controllers mark
+ * those requests with a request attribute, and the timeout is changed for that request only,
+ * before its async processing starts:
+ * - {@link #EXPORT_REQUEST_ATTRIBUTE}: {@code app.export.timeout}
+ * - {@link #EVENT_STREAM_REQUEST_ATTRIBUTE}: no timeout; the stream ends when the client leaves
+ *
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StreamingAsyncConfig implements WebMvcConfigurer {
+
+    public static final String EXPORT_REQUEST_ATTRIBUTE = StreamingAsyncConfig.class.getName() + ".export";
+    public static final String EVENT_STREAM_REQUEST_ATTRIBUTE = StreamingAsyncConfig.class.getName() + ".events";
+
+    ///  zero or less is no timeout for the servlet container
+    private static final long NO_TIMEOUT = 0;
+
+    private final Duration exportTimeout;
+
+    public StreamingAsyncConfig(@Value("${app.export.timeout:10m}") Duration exportTimeout) {
+        this.exportTimeout = exportTimeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        ///  both are called before the async context is started, while its timeout can still change
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                applyTimeout(request);
+            }
+        });
+        configurer.registerDeferredResultInterceptors(new DeferredResultProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, DeferredResult<T> deferredResult) {
+                applyTimeout(request);
+            }
+        });
+    }
+
+    private void applyTimeout(NativeWebRequest request) {
+        if (!(request instanceof AsyncWebRequest asyncRequest)) {
+            return;
+        }
+        if (request.getAttribute(EXPORT_REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            asyncRequest.setTimeout(exportTimeout.toMillis());
+        } else if (request.getAttribute(EVENT_STREAM_REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            asyncRequest.setTimeout(NO_TIMEOUT);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
@@ -36,9 +37,9 @@ public class WebClientConfig {
     private static final int WRITE_TIMEOUT_SECONDS = 5;
 
     @Bean
-    public WebClient generationWebClient() {
-        DefaultUriBuilderFactory factory =
-                new DefaultUriBuilderFactory("https://api.carbonintensity.org.uk");
+    public WebClient generationWebClient(
+            @Value("${app.generation.base-url:https://api.carbonintensity.org.uk}") String baseUrl) {
+        DefaultUriBuilderFactory factory = new DefaultUriBuilderFactory(baseUrl);
         factory.setEncodingMode(DefaultUriBuilderFactory.EncodingMode.NONE);
 
         HttpClient httpClient = HttpClient.create()
@@ -72,7 +73,8 @@ public class WebClientConfig {
             return resp.bodyToMono(String.class)
                     .defaultIfEmpty("")
                     .flatMap(body -> Mono.error(new ExternalApiException(
-                            "Generation API error %s: %s".formatted(resp.statusCode(), body))));
+                            "Generation API error %s: %s".formatted(resp.statusCode(), body),
+                            resp.statusCode().value())));
         });
     }
 
@@ -0,0 +1,68 @@
+package com.konrad.energyappbackend.domain;
+
+import java.util.Arrays;
+
+/**
+ * Optimal charging window for every window length over a fixed range of slots.
+ *
+ * <p>The index is built once per forecast snapshot: for each length from one slot up to the
+ * whole range it stores the start of the cleanest window. Answering a query is then a single
+ * array lookup. Building costs O(n^2) prefix-sum comparisons, about 4,700 for a 48-hour range
+ * (96 slots, 96·97/2 windows).
+ */
+public final class BestWindowIndex {
+
+    /**
+     * {@code bestStarts[length]} is the first slot of the best window of that many slots.
+     */
+    private final int[] bestStarts;
+    private final long buildNanos;
+
+    /**
+     * @param windows window search over the snapshot's clean shares
+     * @param fromSlot first slot a window may cover
+     * @param toSlot slot after the last one a window may cover
+     */
+    public BestWindowIndex(CleanShareWindows windows, int fromSlot, int toSlot) {
+        long started = System.nanoTime();
+
+        int maxLength = Math.max(toSlot - fromSlot, 0);
+        this.bestStarts = new int[maxLength + 1];
+        bestStarts[0] = -1;
+        for (int length = 1; length <= maxLength; length++) {
+            bestStarts[length] = windows.bestStart(fromSlot, toSlot, length);
+        }
+
+        this.buildNanos = System.nanoTime() - started;
+    }
+
+    /**
+     * @param length window length in slots
+     * @return first slot of the cleanest window of that length, or -1 if it does not fit
+     */
+    public int bestStart(int length) {
+        if (length < 1 || length >= bestStarts.length) {
+            return -1;
+        }
+        return bestStarts[length];
+    }
+
+    /**
+     * @return longest window length (in slots) covered by the index
+     */
+    public int maxLength() {
+        return bestStarts.length - 1;
+    }
+
+    /**
+     * @return time it took to build the index, in nanoseconds
+     */
+    public long buildNanos() {
+        return buildNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BestWindowIndex" + Arrays.toString(bestStarts);
+    }
+}
@@ -0,0 +1,31 @@
+package com.konrad.energyappbackend.domain;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Constraints of a charging window search.
+ *
+ * @param hours duration of the window in full hours
+ * @param earliestStart the window must not start before this time, or null for no limit
+ * @param deadline the window must end at or before this time, or null for no limit
+ * @param minCleanShare if set, the earliest window with at least this average clean share (0-100)
+ *                      is returned instead of the cleanest one
+ */
+public record ChargingWindowQuery(
+        int hours,
+        ZonedDateTime earliestStart,
+        ZonedDateTime deadline,
+        Double minCleanShare
+) {
+
+    public static ChargingWindowQuery ofHours(int hours) {
+        return new ChargingWindowQuery(hours, null, null, null);
+    }
+
+    /**
+     * @return true if the query only has a duration, i.e. asks for the cleanest window overall
+     */
+    public boolean isUnconstrained() {
+        return earliestStart == null && deadline == null && minCleanShare == null;
+    }
+}
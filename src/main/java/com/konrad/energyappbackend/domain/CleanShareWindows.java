@@ -0,0 +1,72 @@
+package com.konrad.energyappbackend.domain;
+
+/**
+ * Window search over the per-slot clean energy shares of a {@link GenerationSeries}.
+ *
+ * <p>Prefix sums of the clean shares are computed once, so the clean energy sum of any window
+ * is a single subtraction. Finding the best window of any length over n slots is O(n),
+ * regardless of the window length. Windows are identified by their first slot and length
+ * in slots; callers turn the result into timestamps only for the window they return.
+ */
+public final class CleanShareWindows {
+
+    /**
+     * {@code prefixSums[i]} is the sum of clean shares of slots {@code [0, i)}.
+     */
+    private final double[] prefixSums;
+
+    public CleanShareWindows(GenerationSeries series) {
+        this.prefixSums = new double[series.size() + 1];
+        for (int slot = 0; slot < series.size(); slot++) {
+            prefixSums[slot + 1] = prefixSums[slot] + series.cleanShare(slot);
+        }
+    }
+
+    /**
+     * @return number of slots
+     */
+    public int size() {
+        return prefixSums.length - 1;
+    }
+
+    /**
+     * @return sum of clean shares of the slots {@code [start, start + length)}
+     */
+    public double sum(int start, int length) {
+        return prefixSums[start + length] - prefixSums[start];
+    }
+
+    /**
+     * @return average clean share (0-100) of the slots {@code [start, start + length)}
+     */
+    public double average(int start, int length) {
+        return sum(start, length) / length;
+    }
+
+    /**
+     * Finds the window with the highest clean energy share that lies within
+     * {@code [fromSlot, toSlot)}. On ties the earliest window wins.
+     *
+     * @param fromSlot first slot the window may cover
+     * @param toSlot slot after the last one the window may cover
+     * @param length window length in slots (at least 1)
+     * @return first slot of the best window, or -1 if no window of that length fits
+     */
+    public int bestStart(int fromSlot, int toSlot, int length) {
+        if (length < 1) {
+            throw new IllegalArgumentException("Window length must be at least 1 slot");
+        }
+
+        int best = -1;
+        double bestSum = Double.NEGATIVE_INFINITY;
+
+        for (int start = Math.max(fromSlot, 0); start <= Math.min(toSlot, size()) - length; start++) {
+            double sum = prefixSums[start + length] - prefixSums[start];
+            if (sum > bestSum) {
+                bestSum = sum;
+                best = start;
+            }
+        }
+        return best;
+    }
+}
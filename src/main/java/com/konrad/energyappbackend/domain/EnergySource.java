@@ -5,8 +5,8 @@ import lombok.Getter;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Energy sources as defined by the Carbon Intensity API.
@@ -48,30 +48,88 @@ public enum EnergySource {
     IMPORTS(false),
     OTHER(false);
 
+    private static final EnergySource[] VALUES = values();
+
     private final boolean isClean;
 
+    /**
+     * Name used by the API and in responses (e.g. "biomass").
+     */
+    private final String fuelName;
+
     EnergySource(boolean isClean) {
         this.isClean = isClean;
+        this.fuelName = name().toLowerCase(Locale.ROOT);
     }
 
     /**
      * Parses fuel name from API response to EnergySource enum.
      *
      * <p>Matching is case-insensitive. Leading/trailing whitespace is ignored.
+     * The lookup compares the name in place against the precomputed fuel names, so it
+     * allocates nothing and never throws for unknown names.
      *
      * @param fuelName name from API (e.g., "biomass", "COAL", "Wind")
      * @return corresponding EnergySource or null if not recognized
      */
     public static EnergySource fromFuelName(String fuelName) {
-        if (fuelName == null || fuelName.isBlank()) {
+        if (fuelName == null) {
             return null;
         }
 
-        try {
-            return valueOf(fuelName.toUpperCase().trim());
-        } catch (IllegalArgumentException e) {
-            return null;
+        int start = 0;
+        int end = fuelName.length();
+        while (start < end && fuelName.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && fuelName.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        int length = end - start;
+        for (EnergySource source : VALUES) {
+            if (source.fuelName.length() == length
+                    && fuelName.regionMatches(true, start, source.fuelName, 0, length)) {
+                return source;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses a fuel name given as a range of characters, e.g. straight from a JSON parser's
+     * text buffer. Same rules as {@link #fromFuelName(String)}, without creating a String.
+     *
+     * @param chars buffer holding the name
+     * @param offset index of the first character
+     * @param length number of characters
+     * @return corresponding EnergySource or null if not recognized
+     */
+    public static EnergySource fromFuelName(char[] chars, int offset, int length) {
+        int start = offset;
+        int end = offset + length;
+        while (start < end && chars[start] <= ' ') {
+            start++;
         }
+        while (end > start && chars[end - 1] <= ' ') {
+            end--;
+        }
+
+        for (EnergySource source : VALUES) {
+            if (source.fuelName.length() == end - start && matches(source.fuelName, chars, start)) {
+                return source;
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(String fuelName, char[] chars, int start) {
+        for (int i = 0; i < fuelName.length(); i++) {
+            if (Character.toLowerCase(chars[start + i]) != fuelName.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -96,23 +154,52 @@ public enum EnergySource {
             return 0.0;
         }
 
-        double cleanPercentage = fuelMix.entrySet().stream()
-                .filter(entry -> isCleanEnergySource(entry.getKey()))
-                .mapToDouble(Map.Entry::getValue)
-                .sum();
-
-        if (cleanPercentage > 100.0) {
-            throw new IllegalStateException(
-                    String.format("Clean energy percentage %.2f%% exceeds 100%%", cleanPercentage)
-            );
+        double cleanPercentage = 0.0;
+        for (Map.Entry<String, Double> entry : fuelMix.entrySet()) {
+            if (isCleanEnergySource(entry.getKey())) {
+                cleanPercentage += entry.getValue();
+            }
         }
-        return cleanPercentage;
+        return checkCleanPercentage(cleanPercentage);
     }
 
+    /**
+     * Calculates the percentage of clean energy of one half-hour interval.
+     *
+     * <p>Sums directly over the list without building intermediate collections.
+     *
+     * @param generationMix fuel entries as returned by the API
+     * @return clean energy percentage (0-100)
+     */
     public static double calculateCleanPercentage(List<FuelMix> generationMix) {
-        Map<String, Double> fuelMap = generationMix.stream()
-                .collect(Collectors.toMap(FuelMix::fuel, FuelMix::perc));
-        return calculateCleanPercentage(fuelMap);
+        if (generationMix == null) {
+            return 0.0;
+        }
+
+        double cleanPercentage = 0.0;
+        for (int i = 0, size = generationMix.size(); i < size; i++) {
+            FuelMix mix = generationMix.get(i);
+            if (isCleanEnergySource(mix.fuel())) {
+                cleanPercentage += mix.perc();
+            }
+        }
+        return checkCleanPercentage(cleanPercentage);
+    }
+
+    /**
+     * Calculates the percentage of clean energy from percentages indexed by source ordinal.
+     *
+     * @param percentages percentage of each source, {@code percentages[source.ordinal()]}
+     * @return clean energy percentage (0-100)
+     */
+    public static double calculateCleanPercentage(double[] percentages) {
+        double cleanPercentage = 0.0;
+        for (EnergySource source : VALUES) {
+            if (source.isClean) {
+                cleanPercentage += percentages[source.ordinal()];
+            }
+        }
+        return checkCleanPercentage(cleanPercentage);
     }
 
     /**
@@ -136,4 +223,13 @@ public enum EnergySource {
                 .filter(source -> !source.isClean())
                 .toArray(EnergySource[]::new);
     }
+
+    private static double checkCleanPercentage(double cleanPercentage) {
+        if (cleanPercentage > 100.0) {
+            throw new IllegalStateException(
+                    String.format("Clean energy percentage %.2f%% exceeds 100%%", cleanPercentage)
+            );
+        }
+        return cleanPercentage;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,193 @@
+package com.konrad.energyappbackend.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Assigns charging energy of many vehicles to half-hour slots under a site power limit,
+ * so that as much of the delivered energy as possible comes from clean sources.
+ *
+ * <p>Every slot can deliver at most {@code siteLimitKw / 2} kWh in total and every vehicle
+ * at most {@code chargerKw / 2} kWh per slot, within its availability range. The schedule
+ * is built greedily:
+ * <ol>
+ *   <li>slots are ranked once by clean share, cleanest first (earliest on ties),</li>
+ *   <li>vehicles are served in order of increasing slack, i.e. spare slots in their
+ *       availability range beyond what they need, so tight vehicles are not crowded out,</li>
+ *   <li>each vehicle takes energy from its cleanest slots that still have capacity.</li>
+ * </ol>
+ * For V vehicles and S slots this is O(V log V + V * S), about a million steps for 10k
+ * vehicles over two days.
+ *
+ * <p>Slots are indexes into the {@link GenerationSeries} the scheduler was built from.
+ */
+public final class FleetScheduler {
+
+    private static final double SLOT_HOURS = GenerationSeries.SLOT_SECONDS / 3600.0;
+    private static final double EPSILON = 1e-9;
+
+    private final double[] cleanShares;
+    private final int fromSlot;
+    private final int toSlot;
+    private final double slotCapacityKwh;
+    private final int[] slotsByCleanShare;
+
+    /**
+     * @param series forecast the slots refer to
+     * @param fromSlot first slot that may be used
+     * @param toSlot slot after the last one that may be used
+     * @param siteLimitKw site connection limit, shared by all vehicles in every slot
+     */
+    public FleetScheduler(GenerationSeries series, int fromSlot, int toSlot, double siteLimitKw) {
+        if (siteLimitKw <= 0) {
+            throw new IllegalArgumentException("Site limit must be positive");
+        }
+        this.fromSlot = Math.max(fromSlot, 0);
+        this.toSlot = Math.min(toSlot, series.size());
+        this.slotCapacityKwh = siteLimitKw * SLOT_HOURS;
+
+        this.cleanShares = new double[series.size()];
+        for (int slot = this.fromSlot; slot < this.toSlot; slot++) {
+            cleanShares[slot] = series.cleanShare(slot);
+        }
+        this.slotsByCleanShare = rankSlots();
+    }
+
+    /**
+     * Schedules all vehicles.
+     *
+     * @param demands energy need, charger power and availability of every vehicle
+     * @return per-vehicle allocations, in the order of {@code demands}
+     */
+    public Schedule schedule(List<Demand> demands) {
+        double[] remainingCapacity = new double[cleanShares.length];
+        Arrays.fill(remainingCapacity, fromSlot, toSlot, slotCapacityKwh);
+
+        Integer[] order = new Integer[demands.size()];
+        int[] slack = new int[demands.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            slack[i] = slack(demands.get(i));
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> slack[i]));
+
+        Assignment[] assignments = new Assignment[demands.size()];
+        for (int i : order) {
+            assignments[i] = assign(demands.get(i), remainingCapacity);
+        }
+
+        double deliveredKwh = 0.0;
+        double cleanKwh = 0.0;
+        for (Assignment assignment : assignments) {
+            deliveredKwh += assignment.deliveredKwh();
+            cleanKwh += assignment.cleanKwh();
+        }
+        return new Schedule(List.of(assignments), deliveredKwh, cleanKwh);
+    }
+
+    private Assignment assign(Demand demand, double[] remainingCapacity) {
+        int from = Math.max(demand.fromSlot(), fromSlot);
+        int to = Math.min(demand.toSlot(), toSlot);
+        double perSlotKwh = demand.chargerKw() * SLOT_HOURS;
+
+        List<Allocation> allocations = new ArrayList<>();
+        double remaining = demand.energyKwh();
+        double cleanKwh = 0.0;
+
+        for (int slot : slotsByCleanShare) {
+            if (remaining <= EPSILON) {
+                break;
+            }
+            if (slot < from || slot >= to || remainingCapacity[slot] <= EPSILON) {
+                continue;
+            }
+            double energy = Math.min(remaining, Math.min(perSlotKwh, remainingCapacity[slot]));
+            remainingCapacity[slot] -= energy;
+            remaining -= energy;
+            cleanKwh += energy * cleanShares[slot] / 100.0;
+            allocations.add(new Allocation(slot, energy));
+        }
+
+        allocations.sort(Comparator.comparingInt(Allocation::slot));
+        return new Assignment(demand.vehicleId(), List.copyOf(allocations),
+                demand.energyKwh() - Math.max(remaining, 0.0), cleanKwh, remaining <= EPSILON);
+    }
+
+    private int slack(Demand demand) {
+        int available = Math.max(0, Math.min(demand.toSlot(), toSlot) - Math.max(demand.fromSlot(), fromSlot));
+        int needed = (int) Math.ceil(demand.energyKwh() / (demand.chargerKw() * SLOT_HOURS) - EPSILON);
+        return available - needed;
+    }
+
+    private int[] rankSlots() {
+        Integer[] slots = new Integer[toSlot - fromSlot];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = fromSlot + i;
+        }
+        /// stable sort keeps the earliest of equally clean slots first
+        Arrays.sort(slots, Comparator.comparingDouble((Integer slot) -> cleanShares[slot]).reversed());
+
+        int[] ranked = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            ranked[i] = slots[i];
+        }
+        return ranked;
+    }
+
+    /**
+     * Charging need of one vehicle.
+     *
+     * @param vehicleId caller's identifier
+     * @param energyKwh energy to deliver
+     * @param chargerKw maximum charging power of the vehicle's charger
+     * @param fromSlot first slot the vehicle is plugged in
+     * @param toSlot slot after the last one the vehicle is plugged in
+     */
+    public record Demand(String vehicleId, double energyKwh, double chargerKw, int fromSlot, int toSlot) {
+
+        public Demand {
+            if (energyKwh < 0) {
+                throw new IllegalArgumentException("Energy must not be negative");
+            }
+            if (chargerKw <= 0) {
+                throw new IllegalArgumentException("Charger power must be positive");
+            }
+        }
+    }
+
+    /**
+     * Energy delivered to one vehicle in one slot.
+     */
+    public record Allocation(int slot, double energyKwh) { }
+
+    /**
+     * Slots assigned to one vehicle, ordered by time.
+     *
+     * @param complete true if the full energy need is covered
+     */
+    public record Assignment(String vehicleId, List<Allocation> allocations,
+                             double deliveredKwh, double cleanKwh, boolean complete) {
+
+        /**
+         * @return clean share (0-100) of the energy delivered to this vehicle
+         */
+        public double cleanShare() {
+            return deliveredKwh > 0 ? cleanKwh / deliveredKwh * 100.0 : 0.0;
+        }
+    }
+
+    /**
+     * Result of scheduling a fleet.
+     */
+    public record Schedule(List<Assignment> assignments, double deliveredKwh, double cleanKwh) {
+
+        /**
+         * @return clean share (0-100) of all energy delivered to the fleet
+         */
+        public double cleanShare() {
+            return deliveredKwh > 0 ? cleanKwh / deliveredKwh * 100.0 : 0.0;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.konrad.energyappbackend.domain;
+
+import com.konrad.energyappbackend.web.dto.DailyMixDto;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Immutable, precomputed view of the forecast for a given UTC day.
+ *
+ * <p>A snapshot covers {@link #FORECAST_DAYS} days starting at {@code day}. It holds the daily
+ * energy mixes served by the energy mix endpoint and the half-hourly series (with per-slot clean
+ * energy shares and their prefix sums) used by the charging window search, so that requests can
+ * be answered without touching the upstream API.
+ *
+ * <p>The charging horizon starts {@link #CHARGING_OFFSET_DAYS} day after {@code day} and lasts
+ * {@link #CHARGING_DAYS} days. The best window of every length within it is indexed up front.
+ * A snapshot served on a later day is first {@link #trimmedTo trimmed} to the time it is read.
+ *
+ * @param day UTC day the snapshot was built for (the first forecast day)
+ * @param fetchedAt when the underlying data was fetched
+ * @param series half-hourly generation mix
+ * @param dailyMixes aggregated mix for each forecast day, sorted by date
+ * @param chargingFromSlot first slot of the charging horizon
+ * @param chargingToSlot slot after the last one of the charging horizon
+ * @param windows window search over the clean shares of {@code series}
+ * @param bestWindows best window of every length within the charging horizon
+ * @param windowRanges range-maximum index for constrained window queries
+ */
+public record ForecastSnapshot(
+        LocalDate day,
+        Instant fetchedAt,
+        GenerationSeries series,
+        List<DailyMixDto> dailyMixes,
+        int chargingFromSlot,
+        int chargingToSlot,
+        CleanShareWindows windows,
+        BestWindowIndex bestWindows,
+        WindowRangeIndex windowRanges
+) {
+
+    public static final int FORECAST_DAYS = 3; // today, tomorrow, day after tomorrow
+    public static final int CHARGING_OFFSET_DAYS = 1; // charging windows start tomorrow
+    public static final int CHARGING_DAYS = 2;
+
+    private static final EnergySource[] SOURCES = EnergySource.values();
+
+    public ForecastSnapshot {
+        dailyMixes = List.copyOf(dailyMixes);
+    }
+
+    /**
+     * Builds a snapshot and precomputes the daily mixes.
+     *
+     * @param day first forecast day
+     * @param fetchedAt when the data was fetched
+     * @param series half-hourly generation mix covering the forecast days
+     * @return snapshot with daily mixes, window prefix sums and window indexes precomputed
+     */
+    public static ForecastSnapshot of(LocalDate day, Instant fetchedAt, GenerationSeries series) {
+        List<DailyMixDto> dailyMixes = new ArrayList<>(FORECAST_DAYS);
+        for (int i = 0; i < FORECAST_DAYS; i++) {
+            dailyMixes.add(toDailyMix(day.plusDays(i), series));
+        }
+
+        int chargingFromSlot = series.indexOf(startOf(day.plusDays(CHARGING_OFFSET_DAYS)));
+        int chargingToSlot = series.indexOf(startOf(day.plusDays(CHARGING_OFFSET_DAYS + CHARGING_DAYS)));
+        CleanShareWindows windows = new CleanShareWindows(series);
+        BestWindowIndex bestWindows = new BestWindowIndex(windows, chargingFromSlot, chargingToSlot);
+
+        return new ForecastSnapshot(day, fetchedAt, series, dailyMixes, chargingFromSlot, chargingToSlot,
+                windows, bestWindows, new WindowRangeIndex(windows));
+    }
+
+    /**
+     * Same forecast, fetched again: shares the series, daily mixes and indexes of this snapshot.
+     *
+     * @param fetchedAt when the unchanged data was fetched
+     * @return snapshot differing from this one only in {@code fetchedAt}
+     */
+    public ForecastSnapshot withFetchedAt(Instant fetchedAt) {
+        return new ForecastSnapshot(day, fetchedAt, series, dailyMixes, chargingFromSlot, chargingToSlot,
+                windows, bestWindows, windowRanges);
+    }
+
+    /**
+     * View of this snapshot as of a later time: the daily mixes start at the UTC day of
+     * {@code now}, and the charging horizon starts at the first slot that has not started yet.
+     * The best window index is rebuilt for the shorter horizon; everything else is shared.
+     *
+     * @param now time the snapshot is served at
+     * @return trimmed view, keeping this snapshot's {@code day} and {@code fetchedAt}
+     */
+    public ForecastSnapshot trimmedTo(Instant now) {
+        long elapsedDays = ChronoUnit.DAYS.between(day, LocalDate.ofInstant(now, ZoneOffset.UTC));
+        int firstMix = (int) Math.min(Math.max(elapsedDays, 0), dailyMixes.size());
+        int fromSlot = chargingFromSlotAt(now);
+
+        return new ForecastSnapshot(day, fetchedAt, series, dailyMixes.subList(firstMix, dailyMixes.size()),
+                fromSlot, chargingToSlot, windows, new BestWindowIndex(windows, fromSlot, chargingToSlot),
+                windowRanges);
+    }
+
+    /**
+     * @param now time the snapshot is served at
+     * @return first slot of the charging horizon that starts at or after {@code now}
+     */
+    public int chargingFromSlotAt(Instant now) {
+        return Math.max(chargingFromSlot, series.indexOf(now.getEpochSecond()));
+    }
+
+    private static long startOf(LocalDate date) {
+        return date.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+    }
+
+    /**
+     * Aggregates the slots of one UTC day into average percentages per source.
+     *
+     * @param date day to aggregate
+     * @param series series containing (at least) the slots of that day
+     * @return daily mix, with an empty mix if the series has no slots for that day
+     */
+    public static DailyMixDto toDailyMix(LocalDate date, GenerationSeries series) {
+        /// slots of the day
+        int from = series.indexOf(startOf(date));
+        int to = series.indexOf(startOf(date.plusDays(1)));
+
+        if (from == to) {
+            return new DailyMixDto(date, Map.of(), 0.0);
+        }
+
+        int numberOfIntervals = to - from;
+
+        ///  Percentages:
+        Map<String, Double> percentageUsage = new LinkedHashMap<>();
+        for (EnergySource source : SOURCES) {
+            percentageUsage.put(source.getFuelName(), series.sum(source, from, to) / numberOfIntervals);
+        }
+
+        ///  Clean energy:
+        double cleanEnergy = EnergySource.calculateCleanPercentage(percentageUsage);
+
+        return new DailyMixDto(date, Collections.unmodifiableMap(percentageUsage), cleanEnergy);
+    }
+}
@@ -0,0 +1,273 @@
+package com.konrad.energyappbackend.domain;
+
+import com.konrad.energyappbackend.client.dto.FuelMix;
+import com.konrad.energyappbackend.client.dto.GenerationData;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Half-hourly generation mix stored column by column.
+ *
+ * <p>Instead of one object per slot with a list of boxed fuel entries, the series keeps
+ * a {@code long[]} of slot start times (epoch seconds) and one {@code double[]} of percentages
+ * per {@link EnergySource}, indexed by the source's ordinal. The clean energy share of every
+ * slot is computed once when the series is created.
+ *
+ * <p>Slots are sorted by start time and always last {@link #SLOT_SECONDS}. Instances are
+ * immutable: arrays passed to {@link #of(long[], double[][])} must not be modified afterwards.
+ */
+public final class GenerationSeries {
+
+    public static final long SLOT_SECONDS = 30 * 60;
+
+    private static final EnergySource[] SOURCES = EnergySource.values();
+    private static final GenerationSeries EMPTY = new GenerationSeries(new long[0], new double[SOURCES.length][0]);
+
+    private final long[] slotStarts;
+    private final double[][] columns;
+    private final double[] cleanShares;
+
+    private GenerationSeries(long[] slotStarts, double[][] columns) {
+        this.slotStarts = slotStarts;
+        this.columns = columns;
+        this.cleanShares = new double[slotStarts.length];
+
+        for (EnergySource source : SOURCES) {
+            if (source.isClean()) {
+                double[] column = columns[source.ordinal()];
+                for (int slot = 0; slot < cleanShares.length; slot++) {
+                    cleanShares[slot] += column[slot];
+                }
+            }
+        }
+        for (double cleanShare : cleanShares) {
+            if (cleanShare > 100.0) {
+                throw new IllegalStateException(
+                        String.format("Clean energy percentage %.2f%% exceeds 100%%", cleanShare));
+            }
+        }
+    }
+
+    /**
+     * Wraps already sorted columns without copying them.
+     *
+     * @param slotStarts slot start times in epoch seconds, ascending
+     * @param columns percentages indexed by {@code [EnergySource.ordinal()][slot]}
+     * @return series backed by the given arrays
+     */
+    public static GenerationSeries of(long[] slotStarts, double[][] columns) {
+        checkShape(slotStarts, columns);
+        return new GenerationSeries(slotStarts, columns);
+    }
+
+    /**
+     * Converts intervals returned by the Generation API. Fuels that are not an
+     * {@link EnergySource} are added to {@link EnergySource#OTHER}, so the daily mixes still
+     * account for them; they never count as clean.
+     *
+     * @param data half-hourly intervals in any order
+     * @return series sorted by slot start
+     */
+    public static GenerationSeries from(List<GenerationData> data) {
+        int size = data.size();
+        long[] slotStarts = new long[size];
+        double[][] columns = new double[SOURCES.length][size];
+        for (int slot = 0; slot < size; slot++) {
+            GenerationData interval = data.get(slot);
+            slotStarts[slot] = OffsetDateTime.parse(interval.from()).toEpochSecond();
+            for (FuelMix mix : interval.generationMix()) {
+                EnergySource source = EnergySource.fromFuelName(mix.fuel());
+                columns[(source != null ? source : EnergySource.OTHER).ordinal()][slot] += mix.perc();
+            }
+        }
+        return ofUnsorted(slotStarts, columns);
+    }
+
+    /**
+     * Like {@link #of(long[], double[][])}, but accepts slots in any order. Already sorted
+     * input is wrapped without copying; otherwise the slots are copied in start order.
+     *
+     * @param slotStarts slot start times in epoch seconds
+     * @param columns percentages indexed by {@code [EnergySource.ordinal()][slot]}
+     * @return series sorted by slot start
+     */
+    public static GenerationSeries ofUnsorted(long[] slotStarts, double[][] columns) {
+        checkShape(slotStarts, columns);
+        if (isSorted(slotStarts)) {
+            return new GenerationSeries(slotStarts, columns);
+        }
+
+        int size = slotStarts.length;
+        int[] order = IntStream.range(0, size).boxed()
+                .sorted(Comparator.comparingLong(i -> slotStarts[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        long[] sortedStarts = new long[size];
+        double[][] sortedColumns = new double[SOURCES.length][size];
+        for (int slot = 0; slot < size; slot++) {
+            sortedStarts[slot] = slotStarts[order[slot]];
+            for (int source = 0; source < SOURCES.length; source++) {
+                sortedColumns[source][slot] = columns[source][order[slot]];
+            }
+        }
+        return new GenerationSeries(sortedStarts, sortedColumns);
+    }
+
+    public static GenerationSeries empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Joins series that follow each other in time into one series.
+     *
+     * @param parts series in start order, not overlapping
+     * @return series with the slots of all parts
+     */
+    public static GenerationSeries concat(List<GenerationSeries> parts) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        int size = 0;
+        for (GenerationSeries part : parts) {
+            size += part.size();
+        }
+
+        long[] slotStarts = new long[size];
+        double[][] columns = new double[SOURCES.length][size];
+        int offset = 0;
+        for (GenerationSeries part : parts) {
+            System.arraycopy(part.slotStarts, 0, slotStarts, offset, part.size());
+            for (int source = 0; source < SOURCES.length; source++) {
+                System.arraycopy(part.columns[source], 0, columns[source], offset, part.size());
+            }
+            offset += part.size();
+        }
+        return ofUnsorted(slotStarts, columns);
+    }
+
+    public int size() {
+        return slotStarts.length;
+    }
+
+    public boolean isEmpty() {
+        return slotStarts.length == 0;
+    }
+
+    /**
+     * @return start of the slot in epoch seconds
+     */
+    public long slotStart(int slot) {
+        return slotStarts[slot];
+    }
+
+    /**
+     * @return end of the slot in epoch seconds
+     */
+    public long slotEnd(int slot) {
+        return slotStarts[slot] + SLOT_SECONDS;
+    }
+
+    public double percentage(EnergySource source, int slot) {
+        return columns[source.ordinal()][slot];
+    }
+
+    /**
+     * @return sum of clean source percentages in the slot (0-100)
+     */
+    public double cleanShare(int slot) {
+        return cleanShares[slot];
+    }
+
+    /**
+     * Sums the percentages of one source over the slots {@code [fromSlot, toSlot)}.
+     */
+    public double sum(EnergySource source, int fromSlot, int toSlot) {
+        double[] column = columns[source.ordinal()];
+        double sum = 0.0;
+        for (int slot = fromSlot; slot < toSlot; slot++) {
+            sum += column[slot];
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the index of the first slot starting at or after the given time,
+     * or {@link #size()} if there is none.
+     *
+     * @param epochSecond time in epoch seconds
+     */
+    public int indexOf(long epochSecond) {
+        int index = Arrays.binarySearch(slotStarts, epochSecond);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && slotStarts[index - 1] == epochSecond) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the slots {@code [fromSlot, toSlot)} as a new series, or this series if the
+     * range covers all of it.
+     */
+    public GenerationSeries slice(int fromSlot, int toSlot) {
+        if (fromSlot == 0 && toSlot == slotStarts.length) {
+            return this;
+        }
+        double[][] sliced = new double[SOURCES.length][];
+        for (int source = 0; source < SOURCES.length; source++) {
+            sliced[source] = Arrays.copyOfRange(columns[source], fromSlot, toSlot);
+        }
+        return new GenerationSeries(Arrays.copyOfRange(slotStarts, fromSlot, toSlot), sliced);
+    }
+
+    /**
+     * Two series are equal when they have the same slots with the same percentages.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof GenerationSeries that)) {
+            return false;
+        }
+        return Arrays.equals(slotStarts, that.slotStarts) && Arrays.deepEquals(columns, that.columns);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(slotStarts) + Arrays.deepHashCode(columns);
+    }
+
+    @Override
+    public String toString() {
+        return "GenerationSeries[slots=" + slotStarts.length + "]";
+    }
+
+    private static void checkShape(long[] slotStarts, double[][] columns) {
+        if (columns.length != SOURCES.length) {
+            throw new IllegalArgumentException("Expected one column per energy source");
+        }
+        for (double[] column : columns) {
+            if (column.length != slotStarts.length) {
+                throw new IllegalArgumentException("Every column must have one value per slot");
+            }
+        }
+    }
+
+    private static boolean isSorted(long[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
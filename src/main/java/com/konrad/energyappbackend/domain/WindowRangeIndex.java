@@ -0,0 +1,135 @@
+package com.konrad.energyappbackend.domain;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Range-maximum queries over window sums, used for charging windows with an earliest start,
+ * a deadline or a minimum clean energy share.
+ *
+ * <p>For a window length k, every possible start slot i has the sum
+ * {@code windows.sum(i, k)}. A sparse table over those sums stores, for each start i and
+ * each power of two, the best start in {@code [i, i + 2^j)}. With it:
+ * <ul>
+ *   <li>the cleanest window starting anywhere in a range is found in O(1),</li>
+ *   <li>the earliest window reaching a minimum share is found in O(log n).</li>
+ * </ul>
+ *
+ * <p>Tables are built lazily, once per window length, and shared by all queries on the
+ * same snapshot. On ties the earliest window wins.
+ */
+public final class WindowRangeIndex {
+
+    private static final double TOLERANCE = 1e-9;
+
+    private final CleanShareWindows windows;
+    private final AtomicReferenceArray<int[][]> tables;
+
+    public WindowRangeIndex(CleanShareWindows windows) {
+        this.windows = windows;
+        this.tables = new AtomicReferenceArray<>(windows.size() + 1);
+    }
+
+    /**
+     * Finds the cleanest window whose first slot lies in {@code [minStart, maxStart]}.
+     *
+     * @param length window length in slots
+     * @param minStart earliest allowed first slot
+     * @param maxStart latest allowed first slot
+     * @return first slot of the best window, or -1 if the range is empty
+     */
+    public int bestStart(int length, int minStart, int maxStart) {
+        if (!clampable(length, minStart, maxStart)) {
+            return -1;
+        }
+        int from = Math.max(minStart, 0);
+        int to = Math.min(maxStart, windows.size() - length);
+
+        int[][] table = table(length);
+        int level = log2(to - from + 1);
+        return better(length, table[level][from], table[level][to - (1 << level) + 1]);
+    }
+
+    /**
+     * Finds the earliest window whose first slot lies in {@code [minStart, maxStart]} and
+     * whose average clean share is at least {@code minAverage}.
+     *
+     * @param length window length in slots
+     * @param minStart earliest allowed first slot
+     * @param maxStart latest allowed first slot
+     * @param minAverage required average clean share (0-100)
+     * @return first slot of the earliest matching window, or -1 if there is none
+     */
+    public int firstStartAtLeast(int length, int minStart, int maxStart, double minAverage) {
+        if (!clampable(length, minStart, maxStart)) {
+            return -1;
+        }
+        int from = Math.max(minStart, 0);
+        int to = Math.min(maxStart, windows.size() - length);
+        double threshold = minAverage * length - TOLERANCE;
+
+        int[][] table = table(length);
+        int position = from;
+        /// skip the largest blocks whose best window is still below the threshold
+        for (int level = table.length - 1; level >= 0; level--) {
+            int blockEnd = position + (1 << level) - 1;
+            if (blockEnd <= to && windows.sum(table[level][position], length) < threshold) {
+                position = blockEnd + 1;
+            }
+        }
+
+        if (position <= to && windows.sum(position, length) >= threshold) {
+            return position;
+        }
+        return -1;
+    }
+
+    private boolean clampable(int length, int minStart, int maxStart) {
+        if (length < 1) {
+            throw new IllegalArgumentException("Window length must be at least 1 slot");
+        }
+        int to = Math.min(maxStart, windows.size() - length);
+        return length <= windows.size() && Math.max(minStart, 0) <= to;
+    }
+
+    private int[][] table(int length) {
+        int[][] table = tables.get(length);
+        if (table == null) {
+            table = build(length);
+            tables.compareAndSet(length, null, table);
+        }
+        return table;
+    }
+
+    private int[][] build(int length) {
+        int starts = windows.size() - length + 1;
+        int levels = log2(starts) + 1;
+
+        int[][] table = new int[levels][];
+        table[0] = new int[starts];
+        for (int start = 0; start < starts; start++) {
+            table[0][start] = start;
+        }
+        for (int level = 1; level < levels; level++) {
+            int half = 1 << (level - 1);
+            int count = starts - (1 << level) + 1;
+            table[level] = new int[count];
+            for (int start = 0; start < count; start++) {
+                table[level][start] = better(length, table[level - 1][start], table[level - 1][start + half]);
+            }
+        }
+        return table;
+    }
+
+    private int better(int length, int first, int second) {
+        double firstSum = windows.sum(first, length);
+        double secondSum = windows.sum(second, length);
+        if (secondSum > firstSum || (secondSum == firstSum && second < first)) {
+            return second;
+        }
+        return first;
+    }
+
+    private static int log2(int value) {
+        return 31 - Integer.numberOfLeadingZeros(value);
+    }
+}
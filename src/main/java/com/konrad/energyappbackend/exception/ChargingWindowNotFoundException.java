@@ -0,0 +1,7 @@
+package com.konrad.energyappbackend.exception;
+
+public class ChargingWindowNotFoundException extends RuntimeException {
+    public ChargingWindowNotFoundException(String message) {
+        super(message);
+    }
+}
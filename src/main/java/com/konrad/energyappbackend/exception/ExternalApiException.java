@@ -1,8 +1,57 @@
 package com.konrad.energyappbackend.exception;
 
 public class ExternalApiException extends RuntimeException {
+
+    /**
+     * HTTP status of the upstream response, 0 if there was none.
+     */
+    private final int statusCode;
+
+    /**
+     * The upstream answered, but its body could not be used.
+     */
+    private final boolean invalidResponse;
+
     public ExternalApiException(String message) {
+        this(message, 0);
+    }
+
+    public ExternalApiException(String message, int statusCode) {
         super(message);
+        this.statusCode = statusCode;
+        this.invalidResponse = false;
+    }
+
+    public ExternalApiException(String message, Throwable cause) {
+        this(message, cause, false);
+    }
+
+    private ExternalApiException(String message, Throwable cause, boolean invalidResponse) {
+        super(message, cause);
+        this.statusCode = 0;
+        this.invalidResponse = invalidResponse;
+    }
+
+    /**
+     * A response body that is too large or malformed.
+     */
+    public static ExternalApiException invalidResponse(String message) {
+        return new ExternalApiException(message, null, true);
+    }
+
+    public static ExternalApiException invalidResponse(String message, Throwable cause) {
+        return new ExternalApiException(message, cause, true);
     }
-}
 
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return true if the upstream did not answer (timeout, connection failure) or answered
+     *         with a 5xx; false for client errors and unusable bodies, which depend on the request
+     */
+    public boolean isUpstreamFailure() {
+        return !invalidResponse && (statusCode == 0 || statusCode >= 500);
+    }
+}
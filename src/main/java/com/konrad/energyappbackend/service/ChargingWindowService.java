@@ -1,7 +1,15 @@
 package com.konrad.energyappbackend.service;
 
+import com.konrad.energyappbackend.domain.ChargingWindowQuery;
+import com.konrad.energyappbackend.exception.ChargingWindowNotFoundException;
 import com.konrad.energyappbackend.exception.ExternalApiException;
 import com.konrad.energyappbackend.web.dto.ChargingWindowDto;
+import com.konrad.energyappbackend.web.dto.VehicleWindowDto;
+import com.konrad.energyappbackend.web.dto.VehicleWindowRequest;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
 
 /**
  * Service for calculating optimal electric vehicle charging windows.
@@ -18,7 +26,7 @@ public interface ChargingWindowService {
      *
      * <p>The method:
      * <ul>
-     *   <li>Fetches half-hourly forecast data for the next 48 hours</li>
+     *   <li>Reads half-hourly clean energy shares for the next 48 hours from the current forecast snapshot</li>
      *   <li>Calculates clean energy percentage for each possible window of the requested duration</li>
      *   <li>Returns the window with the highest clean energy percentage</li>
      * </ul>
@@ -40,4 +48,52 @@ public interface ChargingWindowService {
      * </pre>
      */
     ChargingWindowDto getOptimalWindow(int hours);
+
+    /**
+     * Finds a charging window in the next two days that satisfies the given constraints.
+     *
+     * <p>Only windows starting at or after {@code earliestStart} and ending at or before
+     * {@code deadline} are considered. Without {@code minCleanShare} the cleanest such window
+     * is returned; with it, the earliest window whose average clean share reaches the threshold.
+     * Queries are answered from range-maximum indexes of the current forecast snapshot, without
+     * rescanning the forecast.
+     *
+     * @param query duration (1-6 hours) and optional constraints
+     * @return matching charging window
+     * @throws IllegalArgumentException if hours is not between 1 and 6 or the deadline is not after earliestStart
+     * @throws ChargingWindowNotFoundException if no window satisfies the constraints
+     * @throws ExternalApiException if the external API is unavailable or returns invalid data
+     *
+     * @example
+     * <pre>
+     * // Cleanest 3-hour window between 22:00 and 07:00
+     * service.getOptimalWindow(new ChargingWindowQuery(3,
+     *         ZonedDateTime.parse("2025-12-04T22:00:00Z"), ZonedDateTime.parse("2025-12-05T07:00:00Z"), null));
+     * </pre>
+     */
+    ChargingWindowDto getOptimalWindow(ChargingWindowQuery query);
+
+    /**
+     * Finds charging windows for many vehicles at once.
+     *
+     * <p>All vehicles are evaluated against the same forecast snapshot, which is read once per
+     * call. Invalid or unsatisfiable items do not fail the batch; their result carries an error
+     * message instead of a window.
+     *
+     * @param vehicles duration and optional earliest start / deadline per vehicle
+     * @return one result per vehicle, in request order
+     * @throws ExternalApiException if the external API is unavailable or returns invalid data
+     */
+    List<VehicleWindowDto> getOptimalWindows(List<VehicleWindowRequest> vehicles);
+
+    /**
+     * Non-blocking variant of {@link #getOptimalWindow(ChargingWindowQuery)} for the reactive stack.
+     * Validation and lookup failures are signalled as errors of the returned {@link Mono}.
+     */
+    Mono<ChargingWindowDto> getOptimalWindowAsync(ChargingWindowQuery query);
+
+    /**
+     * Non-blocking variant of {@link #getOptimalWindows(List)} for the reactive stack.
+     */
+    Mono<List<VehicleWindowDto>> getOptimalWindowsAsync(List<VehicleWindowRequest> vehicles);
 }
@@ -2,7 +2,12 @@ package com.konrad.energyappbackend.service;
 
 import com.konrad.energyappbackend.exception.ExternalApiException;
 import com.konrad.energyappbackend.web.dto.DailyMixDto;
+import com.konrad.energyappbackend.web.dto.SlotMixDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -18,10 +23,21 @@ import java.util.List;
  */
 public interface EnergyMixService {
 
+    /**
+     * Longest range accepted by {@link #getDailyMix(LocalDate, LocalDate)}.
+     */
+    int MAX_RANGE_DAYS = 366;
+
+    /**
+     * Longest range accepted by the streaming exports.
+     */
+    int MAX_EXPORT_DAYS = 3660;
+
     /**
      * Retrieves energy mix data for three days (today, tomorrow, day after tomorrow).
      *
-     * <p>The method:
+     * <p>The mixes are precomputed by the background forecast refresh; the steps below
+     * happen once per snapshot, not per call:
      * <ul>
      *   <li>Fetches half-hourly intervals from the external API</li>
      *   <li>Groups data by date</li>
@@ -29,7 +45,7 @@ public interface EnergyMixService {
      *   <li>Calculates the total clean energy percentage</li>
      * </ul>
      *
-     * @return list of daily energy mix data, sorted by date ascending
+     * @return daily energy mix data, sorted by date ascending, and when the forecast was fetched.
      *         Each {@link DailyMixDto} contains:
      *         <ul>
      *           <li>date - the date for which data applies</li>
@@ -38,5 +54,67 @@ public interface EnergyMixService {
      *         </ul>
      * @throws ExternalApiException if the external API is unavailable or returns invalid data
      */
-    List<DailyMixDto> getDailyMixForThreeDays();
+    ThreeDayMix getDailyMixForThreeDays();
+
+    /**
+     * Non-blocking variant of {@link #getDailyMixForThreeDays()} for the reactive stack.
+     *
+     * @return daily energy mixes; errors with {@link ExternalApiException} if the forecast
+     *         has to be loaded and the external API fails
+     */
+    Mono<ThreeDayMix> getDailyMixForThreeDaysAsync();
+
+    /**
+     * Retrieves energy mix data for every UTC day from {@code from} to {@code to}, both inclusive,
+     * aggregated like {@link #getDailyMixForThreeDays()}.
+     *
+     * <p>The range is fetched in chunks of a few days, several chunks at once, and each chunk is
+     * aggregated into daily mixes as soon as it arrives, so the half-hourly data of the whole range
+     * is never held at once. A day without data has an empty mix.
+     *
+     * @param from first day
+     * @param to last day, not before {@code from}
+     * @return daily energy mixes, sorted by date ascending
+     * @throws IllegalArgumentException if the range is reversed or longer than {@value #MAX_RANGE_DAYS} days
+     * @throws ExternalApiException if the external API is unavailable or returns invalid data
+     */
+    List<DailyMixDto> getDailyMix(LocalDate from, LocalDate to);
+
+    /**
+     * Non-blocking variant of {@link #getDailyMix(LocalDate, LocalDate)}.
+     *
+     * @return daily energy mixes; errors with {@link IllegalArgumentException} for an invalid range
+     *         or {@link ExternalApiException} if the external API fails
+     */
+    Mono<List<DailyMixDto>> getDailyMixAsync(LocalDate from, LocalDate to);
+
+    /**
+     * Streams the half-hourly mix of every slot from {@code from} to {@code to}, both inclusive,
+     * in start order.
+     *
+     * <p>Chunks are fetched only as the subscriber requests rows, a few ahead at most, and each
+     * chunk is released once its rows are emitted, so memory use does not depend on the length of
+     * the range and a slow consumer slows the upstream fetching down.
+     *
+     * @throws IllegalArgumentException right away if the range is reversed or longer than
+     *         {@value #MAX_EXPORT_DAYS} days
+     */
+    Flux<SlotMixDto> exportSlots(LocalDate from, LocalDate to);
+
+    /**
+     * Streams the daily mix of every day from {@code from} to {@code to}, both inclusive, with the
+     * same flow control as {@link #exportSlots(LocalDate, LocalDate)}.
+     *
+     * @throws IllegalArgumentException right away if the range is reversed or longer than
+     *         {@value #MAX_EXPORT_DAYS} days
+     */
+    Flux<DailyMixDto> exportDailyMix(LocalDate from, LocalDate to);
+
+    /**
+     * Daily mixes of the current forecast.
+     *
+     * @param dailyMixes one entry per forecast day; the same list instance until the forecast changes
+     * @param fetchedAt when the forecast was fetched from the Generation API
+     */
+    record ThreeDayMix(List<DailyMixDto> dailyMixes, Instant fetchedAt) { }
 }
@@ -0,0 +1,35 @@
+package com.konrad.energyappbackend.service;
+
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import com.konrad.energyappbackend.web.dto.FleetScheduleDto;
+import com.konrad.energyappbackend.web.dto.FleetScheduleRequest;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service for planning the charging of a whole fleet under a shared site power limit.
+ *
+ * <p>Unlike {@link ChargingWindowService}, which sends every vehicle to its own cleanest
+ * window, this service spreads vehicles over the next two days so that the site limit is
+ * never exceeded in any half-hour slot, while keeping the clean share of the delivered
+ * energy as high as possible.
+ */
+public interface FleetScheduleService {
+
+    /**
+     * Assigns charging slots to all vehicles of the request.
+     *
+     * <p>Vehicles whose need cannot be met within their availability and the remaining site
+     * capacity get as much energy as possible and are reported as incomplete.
+     *
+     * @param request site limit and vehicles
+     * @return per-vehicle charging slots and fleet-wide totals
+     * @throws IllegalArgumentException if a vehicle is available only after it must be charged
+     * @throws ExternalApiException if the external API is unavailable or returns invalid data
+     */
+    FleetScheduleDto schedule(FleetScheduleRequest request);
+
+    /**
+     * Non-blocking variant of {@link #schedule(FleetScheduleRequest)} for the reactive stack.
+     */
+    Mono<FleetScheduleDto> scheduleAsync(FleetScheduleRequest request);
+}
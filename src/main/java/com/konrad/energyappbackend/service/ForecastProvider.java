@@ -0,0 +1,54 @@
+package com.konrad.energyappbackend.service;
+
+import com.konrad.energyappbackend.domain.ForecastSnapshot;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Source of the current forecast snapshot shared by the energy mix and charging window services.
+ *
+ * <p>The forecast is refreshed in the background every half hour and published as an immutable
+ * {@link ForecastSnapshot}, so reading it is a single memory access on the request path.
+ */
+public interface ForecastProvider {
+
+    /**
+     * Returns the snapshot for the current UTC day.
+     *
+     * <p>If the published snapshot is of an earlier day but still covers today (e.g. right after
+     * midnight UTC), it is returned as is and today's snapshot is loaded in the background. Only
+     * if there is no such snapshot (e.g. right after startup) is it loaded synchronously;
+     * concurrent callers wait for the same load.
+     *
+     * @return snapshot covering today and the following days
+     * @throws ExternalApiException if the snapshot has to be loaded and the external API fails
+     */
+    ForecastSnapshot current();
+
+    /**
+     * Non-blocking variant of {@link #current()}. Emits the published snapshot immediately if it
+     * is for today or still covers today; otherwise loads it without blocking the calling thread.
+     *
+     * @return snapshot covering today and the following days; errors with
+     *         {@link ExternalApiException} if the snapshot has to be loaded and the external API fails
+     */
+    Mono<ForecastSnapshot> currentAsync();
+
+    /**
+     * Fetches the forecast starting today and publishes it as the new current snapshot.
+     *
+     * @return the published snapshot
+     * @throws ExternalApiException if the external API is unavailable or returns invalid data
+     */
+    ForecastSnapshot refresh();
+
+    /**
+     * Hot stream of published snapshots. A subscriber first receives the current snapshot, if
+     * one has been published, and then every snapshot that replaces it. A refresh that finds the
+     * forecast unchanged emits nothing.
+     *
+     * @return never-ending stream of snapshots; does not error when a refresh fails
+     */
+    Flux<ForecastSnapshot> updates();
+}
@@ -0,0 +1,41 @@
+package com.konrad.energyappbackend.service;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Service pushing forecast changes to subscribed clients, so dashboards do not have to poll
+ * {@code /api/energy-mix} and {@code /api/charging-window}.
+ *
+ * <p>Every update carries a {@link com.konrad.energyappbackend.web.dto.ForecastUpdateDto} as JSON:
+ * the daily mixes and the best charging window of every length of the new forecast. The
+ * controllers send the updates as Server-Sent Events.
+ */
+public interface ForecastUpdateService {
+
+    /**
+     * Subscribes to forecast updates.
+     *
+     * <p>The current forecast is sent first, if one has been published, then one update per newly
+     * published forecast and a keep-alive at a fixed interval. An update is serialized once and
+     * the same payload is sent to every subscriber. A subscriber that cannot keep up skips to the
+     * newest update.
+     *
+     * @return never-ending stream of forecast updates and keep-alives
+     */
+    Flux<ForecastUpdate> subscribe();
+
+    /**
+     * One message of the update stream.
+     *
+     * @param id identifies the forecast by its fetch time; null for a keep-alive
+     * @param json the forecast update as JSON; null for a keep-alive
+     */
+    record ForecastUpdate(String id, String json) {
+
+        public static final ForecastUpdate KEEP_ALIVE = new ForecastUpdate(null, null);
+
+        public boolean isKeepAlive() {
+            return json == null;
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package com.konrad.energyappbackend.service.impl;
 
-import com.konrad.energyappbackend.client.GenerationClient;
-import com.konrad.energyappbackend.client.dto.GenerationData;
-import com.konrad.energyappbackend.client.dto.GenerationResponse;
-import com.konrad.energyappbackend.domain.EnergySource;
+import com.konrad.energyappbackend.domain.ChargingWindowQuery;
+import com.konrad.energyappbackend.domain.ForecastSnapshot;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ChargingWindowNotFoundException;
+import com.konrad.energyappbackend.service.ForecastProvider;
 import com.konrad.energyappbackend.web.dto.ChargingWindowDto;
+import com.konrad.energyappbackend.web.dto.VehicleWindowDto;
+import com.konrad.energyappbackend.web.dto.VehicleWindowRequest;
 import com.konrad.energyappbackend.service.ChargingWindowService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.time.*;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class ChargingWindowServiceImpl implements ChargingWindowService {
@@ -18,58 +25,141 @@ public class ChargingWindowServiceImpl implements ChargingWindowService {
     private static final int MIN_HOURS = 1;
     private static final int MAX_HOURS = 6;
 
-    private final GenerationClient generationClient;
+    private final ForecastProvider forecastProvider;
+    private final Timer windowSearch;
 
-    public ChargingWindowServiceImpl(GenerationClient generationClient) {
-        this.generationClient = generationClient;
+    public ChargingWindowServiceImpl(ForecastProvider forecastProvider, MeterRegistry meterRegistry) {
+        this.forecastProvider = forecastProvider;
+        this.windowSearch = Timer.builder("charging.window.search")
+                .description("Time to find a charging window in the current forecast snapshot")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     @Override
     public ChargingWindowDto getOptimalWindow(int hours) {
-        if (hours < MIN_HOURS || hours > MAX_HOURS) {
-            throw new IllegalArgumentException("Hours must be between 1 and 6");
+        validateHours(hours);
+
+        ForecastSnapshot snapshot = forecastProvider.current();
+
+        ///  best window of every length is indexed when the snapshot is built
+        int windowSize = hours * INTERVALS_PER_HOUR;
+        int bestStart = windowSearch.record(() -> snapshot.bestWindows().bestStart(windowSize));
+
+        if (bestStart < 0) {
+            throw new ChargingWindowNotFoundException("Could not find optimal charging window");
         }
 
-        ///  get time
-        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
-        ZonedDateTime from = now.toLocalDate().plusDays(1).atStartOfDay(ZoneId.of("UTC"));
-        ZonedDateTime to = from.plusDays(2);
+        return toDto(snapshot, bestStart, windowSize);
+    }
 
-        ///  api call
-        GenerationResponse response = generationClient.getGenerationInterval(from, to);
-        List<GenerationData> dataList = response.data();
+    @Override
+    public ChargingWindowDto getOptimalWindow(ChargingWindowQuery query) {
+        validate(query);
+        return findWindow(forecastProvider.current(), query);
+    }
 
-        ///  sliding window
-        int windowSize = hours * INTERVALS_PER_HOUR;
-        double maxCleanPercentage = 0.0;
-        ZonedDateTime bestStart = null;
-        ZonedDateTime bestEnd = null;
-
-        ///  compute clean energy share per interval
-        List<Double> cleanPercentageList = new ArrayList<>();
-        for (GenerationData data : dataList) {
-            cleanPercentageList.add(EnergySource.calculateCleanPercentage(data.generationMix()));
+    @Override
+    public List<VehicleWindowDto> getOptimalWindows(List<VehicleWindowRequest> vehicles) {
+        ///  one snapshot for the whole batch, so all vehicles see the same forecast
+        return windowsFor(forecastProvider.current(), vehicles);
+    }
+
+    @Override
+    public Mono<ChargingWindowDto> getOptimalWindowAsync(ChargingWindowQuery query) {
+        return Mono.defer(() -> {
+            validate(query);
+            return forecastProvider.currentAsync();
+        }).map(snapshot -> findWindow(snapshot, query));
+    }
+
+    @Override
+    public Mono<List<VehicleWindowDto>> getOptimalWindowsAsync(List<VehicleWindowRequest> vehicles) {
+        return forecastProvider.currentAsync().map(snapshot -> windowsFor(snapshot, vehicles));
+    }
+
+    private List<VehicleWindowDto> windowsFor(ForecastSnapshot snapshot, List<VehicleWindowRequest> vehicles) {
+        List<VehicleWindowDto> results = new ArrayList<>(vehicles.size());
+        for (VehicleWindowRequest vehicle : vehicles) {
+            results.add(windowFor(snapshot, vehicle));
         }
+        return results;
+    }
 
-        for (int i = 0; i <= cleanPercentageList.size() - windowSize; i++) {
-            List<Double> window = cleanPercentageList.subList(i, i + windowSize);
+    private VehicleWindowDto windowFor(ForecastSnapshot snapshot, VehicleWindowRequest vehicle) {
+        ChargingWindowQuery query = vehicle.toQuery();
+        try {
+            validate(query);
+            return VehicleWindowDto.of(vehicle.vehicleId(), findWindow(snapshot, query));
+        } catch (IllegalArgumentException | ChargingWindowNotFoundException e) {
+            return VehicleWindowDto.failed(vehicle.vehicleId(), e.getMessage());
+        }
+    }
 
-            double cleanPercentage = window.stream().reduce(0.0, Double::sum);
+    private ChargingWindowDto findWindow(ForecastSnapshot snapshot, ChargingWindowQuery query) {
+        return windowSearch.record(() -> search(snapshot, query));
+    }
 
+    private ChargingWindowDto search(ForecastSnapshot snapshot, ChargingWindowQuery query) {
+        GenerationSeries series = snapshot.series();
+        int windowSize = query.hours() * INTERVALS_PER_HOUR;
 
-            if (cleanPercentage > maxCleanPercentage) {
-                maxCleanPercentage = cleanPercentage;
-                bestStart = ZonedDateTime.parse(dataList.get(i).from());
-                bestEnd = ZonedDateTime.parse(dataList.get(i + window.size() - 1).to());
+        if (query.isUnconstrained()) {
+            int bestStart = snapshot.bestWindows().bestStart(windowSize);
+            if (bestStart < 0) {
+                throw new ChargingWindowNotFoundException("Could not find optimal charging window");
             }
+            return toDto(snapshot, bestStart, windowSize);
+        }
+
+        ///  allowed slots: charging horizon narrowed by the constraints
+        int fromSlot = snapshot.chargingFromSlot();
+        int toSlot = snapshot.chargingToSlot();
+        if (query.earliestStart() != null) {
+            fromSlot = Math.max(fromSlot, series.indexOf(query.earliestStart().toEpochSecond()));
+        }
+        if (query.deadline() != null) {
+            /// slots ending at or before the deadline
+            long lastSlotStart = query.deadline().toEpochSecond() - GenerationSeries.SLOT_SECONDS;
+            toSlot = Math.min(toSlot, series.indexOf(lastSlotStart + 1));
         }
 
-        if (bestStart == null) {
-            throw new RuntimeException("Could not find optimal charging window");
+        ///  range-maximum lookup over window sums
+        int start = query.minCleanShare() == null
+                ? snapshot.windowRanges().bestStart(windowSize, fromSlot, toSlot - windowSize)
+                : snapshot.windowRanges().firstStartAtLeast(
+                        windowSize, fromSlot, toSlot - windowSize, query.minCleanShare());
+
+        if (start < 0) {
+            throw new ChargingWindowNotFoundException("No charging window matches the given constraints");
         }
 
-        double averageCleanPercentage = maxCleanPercentage / windowSize;
+        return toDto(snapshot, start, windowSize);
+    }
+
+    private static void validate(ChargingWindowQuery query) {
+        validateHours(query.hours());
+        if (query.earliestStart() != null && query.deadline() != null
+                && !query.deadline().isAfter(query.earliestStart())) {
+            throw new IllegalArgumentException("Deadline must be after earliest start");
+        }
+    }
+
+    private static void validateHours(int hours) {
+        if (hours < MIN_HOURS || hours > MAX_HOURS) {
+            throw new IllegalArgumentException("Hours must be between 1 and 6");
+        }
+    }
+
+    static ChargingWindowDto toDto(ForecastSnapshot snapshot, int start, int windowSize) {
+        GenerationSeries series = snapshot.series();
+        return new ChargingWindowDto(
+                toDateTime(series.slotStart(start)),
+                toDateTime(series.slotEnd(start + windowSize - 1)),
+                snapshot.windows().average(start, windowSize));
+    }
 
-        return new ChargingWindowDto(bestStart, bestEnd, averageCleanPercentage);
+    private static ZonedDateTime toDateTime(long epochSecond) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
     }
 }
@@ -1,84 +1,194 @@
 package com.konrad.energyappbackend.service.impl;
 
 import com.konrad.energyappbackend.client.GenerationClient;
-import com.konrad.energyappbackend.client.dto.FuelMix;
-import com.konrad.energyappbackend.client.dto.GenerationData;
-import com.konrad.energyappbackend.client.dto.GenerationResponse;
 import com.konrad.energyappbackend.domain.EnergySource;
+import com.konrad.energyappbackend.domain.ForecastSnapshot;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.service.ForecastProvider;
 import com.konrad.energyappbackend.web.dto.DailyMixDto;
 import com.konrad.energyappbackend.service.EnergyMixService;
+import com.konrad.energyappbackend.web.dto.SlotMixDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-
-import java.time.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiFunction;
 
 @Service
 public class EnergyMixServiceImpl implements EnergyMixService {
 
-    private static final int FORECAST_DAYS = 3; // today, tomorrow, day after tomorrow
+    /**
+     * Days per upstream request of a range query.
+     */
+    static final int CHUNK_DAYS = 7;
 
-    private final GenerationClient generationClient;
+    private final ForecastProvider forecastProvider;
 
-    public EnergyMixServiceImpl(GenerationClient generationClient) {
+    /**
+     * Sends every chunk to the upstream as it is, without the per-day split and cache of the
+     * forecast client.
+     */
+    private final GenerationClient generationClient;
+    private final Timer dailyAggregation;
+    private final Timer slotAggregation;
+
+    /**
+     * Chunks of one range query fetched at once; the client's concurrency limit bounds the total.
+     */
+    private final int chunkParallelism;
+
+    public EnergyMixServiceImpl(ForecastProvider forecastProvider,
+                                @Qualifier("rangeGenerationClient") GenerationClient generationClient,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.energy-mix.chunk-parallelism:4}") int chunkParallelism) {
+        if (chunkParallelism < 1) {
+            throw new IllegalArgumentException("Chunk parallelism must be at least 1");
+        }
+        this.forecastProvider = forecastProvider;
         this.generationClient = generationClient;
+        this.chunkParallelism = chunkParallelism;
+        this.dailyAggregation = aggregationTimer("day", meterRegistry);
+        this.slotAggregation = aggregationTimer("slot", meterRegistry);
     }
 
     @Override
-    public List<DailyMixDto> getDailyMixForThreeDays()
+    public ThreeDayMix getDailyMixForThreeDays()
     {
-        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
-        ZonedDateTime from = now.toLocalDate().atStartOfDay(ZoneId.of("UTC"));
-        ZonedDateTime to = from.plusDays(FORECAST_DAYS);
-
-        /// date helpers for three days
-        LocalDate today = LocalDate.now(ZoneOffset.UTC);
-        LocalDate tomorrow = today.plusDays(1);
-        LocalDate dayAfterTomorrow = today.plusDays(2);
+        /// daily mixes are precomputed when the snapshot is published
+        return threeDayMix(forecastProvider.current());
+    }
 
-        /// api call
-        GenerationResponse response = generationClient.getGenerationInterval(from, to);
+    @Override
+    public Mono<ThreeDayMix> getDailyMixForThreeDaysAsync() {
+        return forecastProvider.currentAsync().map(EnergyMixServiceImpl::threeDayMix);
+    }
 
-        /// group by day
-        Map<LocalDate, List<GenerationData>> resultsByDay = response.data().stream()
-                .collect(Collectors.groupingBy(this::dayOfInterval));
+    @Override
+    public List<DailyMixDto> getDailyMix(LocalDate from, LocalDate to) {
+        ///  the chunks are fetched in parallel through the reactive path, so only this thread waits
+        return getDailyMixAsync(from, to).block();
+    }
 
-        List<LocalDate> days = List.of(today, tomorrow, dayAfterTomorrow);
+    @Override
+    public Mono<List<DailyMixDto>> getDailyMixAsync(LocalDate from, LocalDate to) {
+        return Mono.defer(() -> {
+            checkRange(from, to, MAX_RANGE_DAYS);
+            return inChunks(from, to, this::dailyMixes).collectList();
+        });
+    }
 
-        /// return correct DailyMixDto
-        return days.stream()
-                .map(day -> toDailyMix(day, resultsByDay.getOrDefault(day, List.of()))).toList();
+    @Override
+    public Flux<SlotMixDto> exportSlots(LocalDate from, LocalDate to) {
+        checkRange(from, to, MAX_EXPORT_DAYS);
+        return inChunks(from, to, this::slotMixes);
     }
 
-    private LocalDate dayOfInterval(GenerationData data) {
-        return OffsetDateTime.parse(data.from()).toLocalDate();
+    @Override
+    public Flux<DailyMixDto> exportDailyMix(LocalDate from, LocalDate to) {
+        checkRange(from, to, MAX_EXPORT_DAYS);
+        return inChunks(from, to, this::dailyMixes);
     }
 
-    private DailyMixDto toDailyMix(LocalDate date, List<GenerationData> intervals) {
-        if (intervals.isEmpty()) {
-            return new DailyMixDto(date, Map.of(), 0.0);
-        }
+    /**
+     * Splits {@code [from, to]} into chunks of {@link #CHUNK_DAYS} days, converts up to
+     * {@code app.energy-mix.chunk-parallelism} of them at once and emits their rows in date order.
+     *
+     * <p>Chunks are requested one at a time as rows are consumed, so the chunks in flight, the one
+     * being emitted and one queued behind it are all that is in memory however long the range is.
+     */
+    private <T> Flux<T> inChunks(LocalDate from, LocalDate to,
+                                 BiFunction<LocalDate, LocalDate, Mono<List<T>>> chunk) {
+        int chunks = (int) ((ChronoUnit.DAYS.between(from, to) + CHUNK_DAYS) / CHUNK_DAYS);
+        ///  flatMapSequential keeps the chunks in date order however they complete
+        return Flux.range(0, chunks)
+                .map(index -> from.plusDays((long) index * CHUNK_DAYS))
+                .flatMapSequential(start -> chunk.apply(start, min(start.plusDays(CHUNK_DAYS - 1), to)),
+                        chunkParallelism, 1)
+                .concatMapIterable(rows -> rows, 1);
+    }
 
-        Map<String, Double> sums = new HashMap<>();
+    /**
+     * Aggregates the days {@code [from, to]}; the chunk's slots are dropped as soon as its daily
+     * mixes are built.
+     */
+    private Mono<List<DailyMixDto>> dailyMixes(LocalDate from, LocalDate to) {
+        return fetch(from, to).map(series -> dailyAggregation.record(() -> {
+            List<DailyMixDto> mixes = new ArrayList<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                mixes.add(ForecastSnapshot.toDailyMix(date, series));
+            }
+            return mixes;
+        }));
+    }
 
-        for (GenerationData interval : intervals) {
-            for (FuelMix mix: interval.generationMix()){
-                sums.merge(mix.fuel(), mix.perc(), Double::sum );
+    /**
+     * Converts every slot starting within the days {@code [from, to]}.
+     */
+    private Mono<List<SlotMixDto>> slotMixes(LocalDate from, LocalDate to) {
+        return fetch(from, to).map(series -> slotAggregation.record(() -> {
+            int first = series.indexOf(from.atStartOfDay(ZoneOffset.UTC).toEpochSecond());
+            int last = series.indexOf(to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond());
+            List<SlotMixDto> rows = new ArrayList<>(last - first);
+            for (int slot = first; slot < last; slot++) {
+                rows.add(toSlotMix(series, slot));
             }
-        }
+            return rows;
+        }));
+    }
+
+    private Mono<GenerationSeries> fetch(LocalDate from, LocalDate to) {
+        return generationClient.fetchGenerationSeries(
+                        from.atStartOfDay(ZoneOffset.UTC), to.plusDays(1).atStartOfDay(ZoneOffset.UTC))
+                .defaultIfEmpty(GenerationSeries.empty());
+    }
+
+    private static ThreeDayMix threeDayMix(ForecastSnapshot snapshot) {
+        return new ThreeDayMix(snapshot.dailyMixes(), snapshot.fetchedAt());
+    }
 
-        int numberOfIntervals = intervals.size();
+    private static Timer aggregationTimer(String granularity, MeterRegistry meterRegistry) {
+        return Timer.builder("energy.mix.aggregation")
+                .description("Time to aggregate one chunk of a range query")
+                .tag("granularity", granularity)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static SlotMixDto toSlotMix(GenerationSeries series, int slot) {
+        Map<String, Double> mix = new LinkedHashMap<>();
+        for (EnergySource source : EnergySource.values()) {
+            mix.put(source.getFuelName(), series.percentage(source, slot));
+        }
+        return new SlotMixDto(utc(series.slotStart(slot)), utc(series.slotEnd(slot)),
+                Collections.unmodifiableMap(mix), series.cleanShare(slot));
+    }
 
-        ///  Percentages:
-        Map<String, Double> percentageUsage = sums.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> entry.getValue() / numberOfIntervals));
+    private static void checkRange(LocalDate from, LocalDate to, int maxDays) {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days < 1) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (days > maxDays) {
+            throw new IllegalArgumentException("Range must not be longer than " + maxDays + " days");
+        }
+    }
 
-        ///  Clean energy:
-        double cleanEnergy = EnergySource.calculateCleanPercentage(percentageUsage);
+    private static ZonedDateTime utc(long epochSecond) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
+    }
 
-        return new DailyMixDto(date, percentageUsage, cleanEnergy);
+    private static LocalDate min(LocalDate first, LocalDate second) {
+        return first.isBefore(second) ? first : second;
     }
 
 }
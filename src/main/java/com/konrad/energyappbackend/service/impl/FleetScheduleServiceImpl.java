@@ -0,0 +1,94 @@
+package com.konrad.energyappbackend.service.impl;
+
+import com.konrad.energyappbackend.domain.FleetScheduler;
+import com.konrad.energyappbackend.domain.ForecastSnapshot;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.service.FleetScheduleService;
+import com.konrad.energyappbackend.service.ForecastProvider;
+import com.konrad.energyappbackend.web.dto.ChargingSlotDto;
+import com.konrad.energyappbackend.web.dto.FleetScheduleDto;
+import com.konrad.energyappbackend.web.dto.FleetScheduleRequest;
+import com.konrad.energyappbackend.web.dto.FleetVehicleRequest;
+import com.konrad.energyappbackend.web.dto.VehicleScheduleDto;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class FleetScheduleServiceImpl implements FleetScheduleService {
+
+    private final ForecastProvider forecastProvider;
+
+    public FleetScheduleServiceImpl(ForecastProvider forecastProvider) {
+        this.forecastProvider = forecastProvider;
+    }
+
+    @Override
+    public FleetScheduleDto schedule(FleetScheduleRequest request) {
+        return schedule(forecastProvider.current(), request);
+    }
+
+    @Override
+    public Mono<FleetScheduleDto> scheduleAsync(FleetScheduleRequest request) {
+        return forecastProvider.currentAsync().map(snapshot -> schedule(snapshot, request));
+    }
+
+    private FleetScheduleDto schedule(ForecastSnapshot snapshot, FleetScheduleRequest request) {
+        GenerationSeries series = snapshot.series();
+
+        List<FleetScheduler.Demand> demands = new ArrayList<>(request.vehicles().size());
+        for (FleetVehicleRequest vehicle : request.vehicles()) {
+            demands.add(toDemand(series, vehicle));
+        }
+
+        FleetScheduler scheduler = new FleetScheduler(
+                series, snapshot.chargingFromSlot(), snapshot.chargingToSlot(), request.siteLimitKw());
+        FleetScheduler.Schedule schedule = scheduler.schedule(demands);
+
+        List<VehicleScheduleDto> vehicles = new ArrayList<>(demands.size());
+        for (FleetScheduler.Assignment assignment : schedule.assignments()) {
+            vehicles.add(toDto(series, assignment));
+        }
+        return new FleetScheduleDto(schedule.deliveredKwh(), schedule.cleanShare(), vehicles);
+    }
+
+    private static FleetScheduler.Demand toDemand(GenerationSeries series, FleetVehicleRequest vehicle) {
+        if (vehicle.availableFrom() != null && vehicle.availableUntil() != null
+                && !vehicle.availableUntil().isAfter(vehicle.availableFrom())) {
+            throw new IllegalArgumentException(
+                    "Vehicle " + vehicle.vehicleId() + ": availableUntil must be after availableFrom");
+        }
+
+        ///  slots fully inside the availability range; the scheduler clamps to the charging period
+        int fromSlot = vehicle.availableFrom() == null
+                ? 0
+                : series.indexOf(vehicle.availableFrom().toEpochSecond());
+        int toSlot = vehicle.availableUntil() == null
+                ? series.size()
+                : series.indexOf(vehicle.availableUntil().toEpochSecond() - GenerationSeries.SLOT_SECONDS + 1);
+
+        return new FleetScheduler.Demand(
+                vehicle.vehicleId(), vehicle.energyKwh(), vehicle.chargerKw(), fromSlot, toSlot);
+    }
+
+    private static VehicleScheduleDto toDto(GenerationSeries series, FleetScheduler.Assignment assignment) {
+        List<ChargingSlotDto> slots = new ArrayList<>(assignment.allocations().size());
+        for (FleetScheduler.Allocation allocation : assignment.allocations()) {
+            slots.add(new ChargingSlotDto(
+                    toDateTime(series.slotStart(allocation.slot())),
+                    toDateTime(series.slotEnd(allocation.slot())),
+                    allocation.energyKwh()));
+        }
+        return new VehicleScheduleDto(assignment.vehicleId(), assignment.deliveredKwh(),
+                assignment.cleanShare(), assignment.complete(), slots);
+    }
+
+    private static ZonedDateTime toDateTime(long epochSecond) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,299 @@
+package com.konrad.energyappbackend.service.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.domain.ForecastSnapshot;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.service.ForecastProvider;
+import com.konrad.energyappbackend.store.GenerationHistory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+@Slf4j
+public class ForecastProviderImpl implements ForecastProvider {
+
+    private final GenerationClient generationClient;
+    private final GenerationHistory history;
+    private final Clock clock;
+    private final Duration warmStartMaxAge;
+    private final Timer indexBuildTimer;
+
+    /**
+     * Guards publishing only, never held during I/O, so reactive callers do not wait for
+     * a blocking refresh in progress.
+     */
+    private final Object publishLock = new Object();
+
+    /**
+     * Serializes blocking refreshes. A lock rather than {@code synchronized}, so callers waiting
+     * for a load on virtual threads do not pin their carrier threads.
+     */
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile ForecastSnapshot snapshot;
+
+    /**
+     * Trimmed view of the previous day's snapshot, kept until the next slot starts, so stale reads
+     * neither rebuild the window index nor miss the response cache.
+     */
+    private volatile StaleView staleView;
+
+    /**
+     * Replays the latest published snapshot to new subscribers. Only emitted to under
+     * {@link #publishLock}, so emissions never race.
+     */
+    private final Sinks.Many<ForecastSnapshot> updates = Sinks.many().replay().latest();
+
+    /**
+     * Background refresh of a stale snapshot; a new one is only started once the last has finished.
+     */
+    private final AtomicReference<CompletableFuture<ForecastSnapshot>> revalidation =
+            new AtomicReference<>(CompletableFuture.completedFuture(null));
+
+    public ForecastProviderImpl(GenerationClient generationClient, GenerationHistory history, Clock clock,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.history.warm-start-max-age:2h}") Duration warmStartMaxAge) {
+        this.generationClient = generationClient;
+        this.history = history;
+        this.clock = clock;
+        this.warmStartMaxAge = warmStartMaxAge;
+        this.indexBuildTimer = Timer.builder("forecast.window.index.build")
+                .description("Time to rebuild the best charging window index for a new forecast")
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>After midnight UTC the previous day's snapshot is served while today's is loaded in the
+     * background, so no caller waits for the Generation API. It is trimmed to today's mixes and
+     * to windows that have not started yet. An older snapshot is never served.
+     */
+    @Override
+    public ForecastSnapshot current() {
+        ForecastSnapshot current = snapshot;
+        if (isCurrent(current)) {
+            return current;
+        }
+        if (isPreviousDay(current)) {
+            revalidate();
+            return staleView(current);
+        }
+        return loadIfStale();
+    }
+
+    @Override
+    public Mono<ForecastSnapshot> currentAsync() {
+        return Mono.defer(() -> {
+            ForecastSnapshot current = snapshot;
+            if (isCurrent(current)) {
+                return Mono.just(current);
+            }
+            if (isPreviousDay(current)) {
+                revalidate();
+                return Mono.just(staleView(current));
+            }
+
+            ///  concurrent loads share one upstream call through the coalescing client
+            Instant fetchedAt = clock.instant();
+            LocalDate today = LocalDate.ofInstant(fetchedAt, ZoneOffset.UTC);
+            ZonedDateTime from = today.atStartOfDay(ZoneId.of("UTC"));
+            return generationClient.fetchGenerationSeries(from, from.plusDays(ForecastSnapshot.FORECAST_DAYS))
+                    .map(series -> publish(today, fetchedAt, series));
+        });
+    }
+
+    @Override
+    public ForecastSnapshot refresh() {
+        refreshLock.lock();
+        try {
+            ///  get time
+            Instant fetchedAt = clock.instant();
+            LocalDate today = LocalDate.ofInstant(fetchedAt, ZoneOffset.UTC);
+            ZonedDateTime from = today.atStartOfDay(ZoneId.of("UTC"));
+            ZonedDateTime to = from.plusDays(ForecastSnapshot.FORECAST_DAYS);
+
+            ///  api call
+            GenerationSeries series = generationClient.getGenerationSeries(from, to);
+
+            return publish(today, fetchedAt, series);
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @Override
+    public Flux<ForecastSnapshot> updates() {
+        return updates.asFlux();
+    }
+
+    /**
+     * Starts loading today's snapshot in the background, unless it is already published or
+     * being loaded. A failed load is logged; the next stale read starts another one.
+     *
+     * @return the load in progress, or a completed future if today's snapshot is published
+     */
+    CompletableFuture<ForecastSnapshot> revalidate() {
+        ForecastSnapshot current = snapshot;
+        if (isCurrent(current)) {
+            return CompletableFuture.completedFuture(current);
+        }
+        CompletableFuture<ForecastSnapshot> running = revalidation.get();
+        if (!running.isDone()) {
+            return running;
+        }
+        CompletableFuture<ForecastSnapshot> next = new CompletableFuture<>();
+        if (!revalidation.compareAndSet(running, next)) {
+            return revalidation.get();
+        }
+        ///  refresh() blocks on the Generation API, so it runs off the caller's thread
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                next.complete(refresh());
+            } catch (RuntimeException ex) {
+                log.warn("Background forecast refresh failed, serving the stale snapshot: {}", ex.getMessage());
+                next.completeExceptionally(ex);
+            }
+        });
+        return next;
+    }
+
+    /**
+     * Publishes today's forecast from the local history, so the first requests after a restart
+     * do not wait for the Generation API. The snapshot keeps the time its slots were fetched and
+     * is replaced by the next scheduled refresh. Nothing is published unless the history has
+     * slots of every forecast day, all fetched within {@code app.history.warm-start-max-age};
+     * the forecast is then loaded from the Generation API in the background right away, so the
+     * first request finds it published instead of waiting for the upstream.
+     */
+    @PostConstruct
+    public void warmStart() {
+        try {
+            Instant now = clock.instant();
+            LocalDate today = LocalDate.ofInstant(now, ZoneOffset.UTC);
+            ZonedDateTime from = today.atStartOfDay(ZoneId.of("UTC"));
+            ZonedDateTime to = from.plusDays(ForecastSnapshot.FORECAST_DAYS);
+
+            GenerationSeries series = history.read(from, to);
+            if (!coversForecastDays(series, from)) {
+                log.info("History does not cover the forecast for {}, loading it from the Generation API", today);
+                return;
+            }
+            Instant fetchedAt = history.fetchedAt(from, to);
+            if (fetchedAt == null || fetchedAt.isBefore(now.minus(warmStartMaxAge))) {
+                log.info("History for {} was fetched at {}, too long ago to warm-start from", today, fetchedAt);
+                return;
+            }
+            publish(today, fetchedAt, series);
+            log.info("Warm-started forecast snapshot for {} from history fetched at {}", today, fetchedAt);
+        } catch (RuntimeException ex) {
+            log.warn("Could not warm-start forecast snapshot from history: {}", ex.getMessage());
+        }
+        if (snapshot == null) {
+            revalidate();
+        }
+    }
+
+    ///  at least one slot in each forecast day, so no daily mix or charging day is missing
+    private static boolean coversForecastDays(GenerationSeries series, ZonedDateTime from) {
+        for (int day = 0; day < ForecastSnapshot.FORECAST_DAYS; day++) {
+            long dayEnd = from.plusDays(day + 1).toEpochSecond();
+            int first = series.indexOf(from.plusDays(day).toEpochSecond());
+            if (first == series.size() || series.slotStart(first) >= dayEnd) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ForecastSnapshot publish(LocalDate today, Instant fetchedAt, GenerationSeries series) {
+        synchronized (publishLock) {
+            ///  unchanged forecast - keep its indexes, only record that it was fetched again
+            ForecastSnapshot current = snapshot;
+            if (current != null && current.day().equals(today) && current.series().equals(series)) {
+                if (!fetchedAt.isAfter(current.fetchedAt())) {
+                    return current;
+                }
+                snapshot = current.withFetchedAt(fetchedAt);
+                return snapshot;
+            }
+            ///  a slow load must not replace a newer day's snapshot
+            if (current != null && current.day().isAfter(today)) {
+                return current;
+            }
+
+            ForecastSnapshot refreshed = ForecastSnapshot.of(today, fetchedAt, series);
+            indexBuildTimer.record(refreshed.bestWindows().buildNanos(), TimeUnit.NANOSECONDS);
+            snapshot = refreshed;
+            updates.tryEmitNext(refreshed);
+            log.info("Published forecast snapshot for {} ({} slots, window index built in {} us)",
+                    today, series.size(), refreshed.bestWindows().buildNanos() / 1_000);
+            return refreshed;
+        }
+    }
+
+    /**
+     * Refreshes the snapshot at every half-hour settlement boundary. A failed refresh keeps
+     * the previous snapshot in place.
+     */
+    @Scheduled(cron = "${app.forecast.refresh-cron:0 0/30 * * * *}", zone = "UTC")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            log.warn("Scheduled forecast refresh failed: {}", ex.getMessage());
+        }
+    }
+
+    private ForecastSnapshot loadIfStale() {
+        refreshLock.lock();
+        try {
+            ForecastSnapshot current = snapshot;
+            if (isCurrent(current)) {
+                return current;
+            }
+            return refresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    ///  a snapshot built yesterday, still served while today's is loaded
+    private boolean isPreviousDay(ForecastSnapshot candidate) {
+        return candidate != null
+                && candidate.day().plusDays(1).equals(LocalDate.ofInstant(clock.instant(), ZoneOffset.UTC));
+    }
+
+    private ForecastSnapshot staleView(ForecastSnapshot stale) {
+        Instant now = clock.instant();
+        StaleView cached = staleView;
+        if (cached != null && cached.source() == stale
+                && cached.view().chargingFromSlot() == stale.chargingFromSlotAt(now)) {
+            return cached.view();
+        }
+        ForecastSnapshot view = stale.trimmedTo(now);
+        staleView = new StaleView(stale, view);
+        return view;
+    }
+
+    private boolean isCurrent(ForecastSnapshot candidate) {
+        return candidate != null && candidate.day().equals(LocalDate.ofInstant(clock.instant(), ZoneOffset.UTC));
+    }
+
+    private record StaleView(ForecastSnapshot source, ForecastSnapshot view) { }
+}
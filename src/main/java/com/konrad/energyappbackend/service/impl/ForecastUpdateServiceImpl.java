@@ -0,0 +1,84 @@
+package com.konrad.energyappbackend.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.konrad.energyappbackend.domain.ForecastSnapshot;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.service.ForecastProvider;
+import com.konrad.energyappbackend.service.ForecastUpdateService;
+import com.konrad.energyappbackend.web.dto.ChargingWindowDto;
+import com.konrad.energyappbackend.web.dto.ForecastUpdateDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class ForecastUpdateServiceImpl implements ForecastUpdateService {
+
+    static final int MAX_WINDOW_HOURS = 6;
+
+    private static final int SLOTS_PER_HOUR = (int) (60 * 60 / GenerationSeries.SLOT_SECONDS);
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Shared by all subscribers: every snapshot is serialized once, on the thread that published
+     * it, and the latest update is replayed to new subscribers.
+     */
+    private final Flux<ForecastUpdate> updates;
+
+    public ForecastUpdateServiceImpl(ForecastProvider forecastProvider, ObjectMapper objectMapper,
+                                     @Value("${app.forecast.updates-heartbeat:30s}") Duration heartbeat) {
+        this.objectMapper = objectMapper;
+
+        Flux<ForecastUpdate> forecasts = forecastProvider.updates()
+                .mapNotNull(this::toUpdate)
+                .replay(1)
+                .autoConnect();
+        ///  one timer for all subscribers
+        Flux<ForecastUpdate> keepAlive = Flux.interval(heartbeat, heartbeat)
+                .map(tick -> ForecastUpdate.KEEP_ALIVE)
+                .share();
+        this.updates = Flux.merge(forecasts, keepAlive);
+    }
+
+    @Override
+    public Flux<ForecastUpdate> subscribe() {
+        return updates.onBackpressureLatest();
+    }
+
+    private ForecastUpdate toUpdate(ForecastSnapshot snapshot) {
+        ForecastUpdateDto update = new ForecastUpdateDto(snapshot.day(), snapshot.fetchedAt(),
+                snapshot.dailyMixes(), bestWindowsByHours(snapshot));
+        try {
+            return new ForecastUpdate(snapshot.fetchedAt().toString(), objectMapper.writeValueAsString(update));
+        } catch (JsonProcessingException ex) {
+            ///  skipping keeps the shared stream alive for the other subscribers
+            log.error("Could not serialize forecast update for {}", snapshot.day(), ex);
+            return null;
+        }
+    }
+
+    /**
+     * Best window of every length from 1 to {@link #MAX_WINDOW_HOURS} hours within the charging
+     * horizon, keyed by hours; lengths without a window are left out.
+     */
+    private static Map<Integer, ChargingWindowDto> bestWindowsByHours(ForecastSnapshot snapshot) {
+        Map<Integer, ChargingWindowDto> byHours = new LinkedHashMap<>();
+        for (int hours = 1; hours <= MAX_WINDOW_HOURS; hours++) {
+            int windowSize = hours * SLOTS_PER_HOUR;
+            int start = snapshot.bestWindows().bestStart(windowSize);
+            if (start >= 0) {
+                byHours.put(hours, ChargingWindowServiceImpl.toDto(snapshot, start, windowSize));
+            }
+        }
+        return Collections.unmodifiableMap(byHours);
+    }
+}
@@ -0,0 +1,56 @@
+package com.konrad.energyappbackend.store;
+
+import com.konrad.energyappbackend.domain.GenerationSeries;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+/**
+ * Local history of every half-hour slot fetched from the Generation API.
+ *
+ * <p>A slot fetched again replaces the stored one, so the history holds the latest known mix
+ * of each slot: forecasts are overwritten by later forecasts and finally by actual values.
+ */
+public interface GenerationHistory {
+
+    /**
+     * Stores every slot of the series.
+     *
+     * @param fetchedAt when the series was fetched from the Generation API
+     * @throws java.io.UncheckedIOException if the history cannot be written
+     */
+    void append(GenerationSeries series, Instant fetchedAt);
+
+    /**
+     * Returns the stored slots starting within {@code [from, to)}, in start order. Slots that were
+     * never fetched are missing from the result.
+     */
+    GenerationSeries read(ZonedDateTime from, ZonedDateTime to);
+
+    /**
+     * Returns when the least recently fetched of the stored slots starting within
+     * {@code [from, to)} was fetched, or null if none is stored.
+     */
+    Instant fetchedAt(ZonedDateTime from, ZonedDateTime to);
+
+    /**
+     * History that keeps nothing, for when {@code app.history.enabled} is false.
+     */
+    static GenerationHistory disabled() {
+        return new GenerationHistory() {
+            @Override
+            public void append(GenerationSeries series, Instant fetchedAt) {
+            }
+
+            @Override
+            public GenerationSeries read(ZonedDateTime from, ZonedDateTime to) {
+                return GenerationSeries.empty();
+            }
+
+            @Override
+            public Instant fetchedAt(ZonedDateTime from, ZonedDateTime to) {
+                return null;
+            }
+        };
+    }
+}
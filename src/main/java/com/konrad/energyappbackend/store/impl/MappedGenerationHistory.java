@@ -0,0 +1,315 @@
+package com.konrad.energyappbackend.store.impl;
+
+import com.konrad.energyappbackend.domain.EnergySource;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.store.GenerationHistory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link GenerationHistory} kept in one memory-mapped file of fixed-width records.
+ *
+ * <p>Layout, little-endian: a header of magic number, format version, source count and record
+ * size (four ints), the slot number of record 0 and the number of records (two longs). Then one
+ * record per half-hour slot: the slot start and the time it was fetched, both in epoch seconds
+ * ({@code long}), followed by one {@code double} percentage per {@link EnergySource} in ordinal
+ * order. Record {@code i} holds slot
+ * number {@code base + i}, where the slot number is the start in epoch seconds divided by
+ * {@link GenerationSeries#SLOT_SECONDS}, so the record of any slot is found by arithmetic alone.
+ * A record whose start does not match its position was never written.
+ *
+ * <p>Record 0 is the first slot of the UTC day of the first write. A slot before it moves the
+ * records back to make room, by at least {@link #GROWTH_SLOTS} records, so fetching older
+ * ranges day by day does not move the file every time; the new base is written only after the
+ * records are in place. The file only grows, by {@link #GROWTH_SLOTS} records at a time, and is
+ * remapped when it does. Reads copy straight from the mapping into the columns of a new
+ * {@link GenerationSeries}.
+ */
+@Slf4j
+public class MappedGenerationHistory implements GenerationHistory, Closeable {
+
+    static final int MAGIC = 0x47484953; // "GHIS"
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 4 * Integer.BYTES + 2 * Long.BYTES;
+    static final int RECORD_BYTES = 2 * Long.BYTES + EnergySource.values().length * Double.BYTES;
+    static final int GROWTH_SLOTS = 30 * 48;
+    private static final int MOVE_CHUNK_BYTES = 64 * 1024;
+
+    private static final EnergySource[] SOURCES = EnergySource.values();
+    private static final long SLOTS_PER_DAY = 24 * 60 * 60 / GenerationSeries.SLOT_SECONDS;
+    private static final int BASE_SLOT_OFFSET = 4 * Integer.BYTES;
+    private static final int SLOT_COUNT_OFFSET = BASE_SLOT_OFFSET + Long.BYTES;
+    private static final long NO_BASE = -1;
+    private static final int FETCHED_AT_OFFSET = Long.BYTES;
+    private static final int PERCENTAGES_OFFSET = 2 * Long.BYTES;
+
+    private final Path file;
+    private final FileChannel channel;
+
+    /**
+     * Readers may run concurrently; a write excludes them, so a reader never sees a slot that is
+     * being replaced half-way.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private MappedByteBuffer mapped;
+    private long baseSlot;
+    private long slotCount;
+
+    private MappedGenerationHistory(Path file, FileChannel channel) throws IOException {
+        this.file = file;
+        this.channel = channel;
+
+        if (channel.size() == 0) {
+            mapped = map(HEADER_BYTES + (long) GROWTH_SLOTS * RECORD_BYTES);
+            mapped.putInt(0, MAGIC).putInt(Integer.BYTES, VERSION)
+                    .putInt(2 * Integer.BYTES, SOURCES.length).putInt(3 * Integer.BYTES, RECORD_BYTES)
+                    .putLong(BASE_SLOT_OFFSET, NO_BASE).putLong(SLOT_COUNT_OFFSET, 0);
+        } else {
+            mapped = map(channel.size());
+            checkHeader();
+        }
+        baseSlot = mapped.getLong(BASE_SLOT_OFFSET);
+        slotCount = mapped.getLong(SLOT_COUNT_OFFSET);
+    }
+
+    /**
+     * Opens the history file, creating it and its directory if needed.
+     *
+     * @throws IOException if the file cannot be opened or is not a history file of the current sources
+     */
+    public static MappedGenerationHistory open(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            MappedGenerationHistory history = new MappedGenerationHistory(file, channel);
+            log.info("Opened generation history {} ({} slots)", file, history.slotCount);
+            return history;
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public void append(GenerationSeries series, Instant fetchedAt) {
+        if (series.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            long firstSlot = series.slotStart(0) / GenerationSeries.SLOT_SECONDS;
+            if (baseSlot == NO_BASE) {
+                baseSlot = dayStart(firstSlot);
+                mapped.putLong(BASE_SLOT_OFFSET, baseSlot);
+            } else if (firstSlot < baseSlot) {
+                moveBase(Math.min(dayStart(firstSlot), baseSlot - GROWTH_SLOTS));
+            }
+
+            long count = slotCount;
+            int skipped = 0;
+            for (int slot = 0; slot < series.size(); slot++) {
+                long start = series.slotStart(slot);
+                long index = start / GenerationSeries.SLOT_SECONDS - baseSlot;
+                if (start % GenerationSeries.SLOT_SECONDS != 0) {
+                    skipped++;
+                    continue;
+                }
+                ensureCapacity(index + 1);
+
+                int offset = offsetOf(index);
+                mapped.putLong(offset, start);
+                mapped.putLong(offset + FETCHED_AT_OFFSET, fetchedAt.getEpochSecond());
+                for (EnergySource source : SOURCES) {
+                    mapped.putDouble(offset + PERCENTAGES_OFFSET + source.ordinal() * Double.BYTES,
+                            series.percentage(source, slot));
+                }
+                count = Math.max(count, index + 1);
+            }
+
+            slotCount = count;
+            mapped.putLong(SLOT_COUNT_OFFSET, count);
+            mapped.force();
+            if (skipped > 0) {
+                log.debug("Skipped {} slots not starting on a half-hour boundary", skipped);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not extend generation history " + file, ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public GenerationSeries read(ZonedDateTime from, ZonedDateTime to) {
+        lock.readLock().lock();
+        try {
+            if (baseSlot == NO_BASE) {
+                return GenerationSeries.empty();
+            }
+            ///  records of the slots starting in [from, to)
+            long first = Math.max(0, firstSlotFrom(from.toEpochSecond()) - baseSlot);
+            long last = Math.min(slotCount, firstSlotFrom(to.toEpochSecond()) - baseSlot);
+            if (first >= last) {
+                return GenerationSeries.empty();
+            }
+
+            int capacity = (int) (last - first);
+            long[] slotStarts = new long[capacity];
+            double[][] columns = new double[SOURCES.length][capacity];
+            int size = 0;
+            for (long index = first; index < last; index++) {
+                int offset = offsetOf(index);
+                long start = mapped.getLong(offset);
+                if (start != (baseSlot + index) * GenerationSeries.SLOT_SECONDS) {
+                    continue;
+                }
+                slotStarts[size] = start;
+                for (int source = 0; source < SOURCES.length; source++) {
+                    columns[source][size] = mapped.getDouble(offset + PERCENTAGES_OFFSET + source * Double.BYTES);
+                }
+                size++;
+            }
+            return GenerationSeries.of(slotStarts, columns).slice(0, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Instant fetchedAt(ZonedDateTime from, ZonedDateTime to) {
+        lock.readLock().lock();
+        try {
+            if (baseSlot == NO_BASE) {
+                return null;
+            }
+            long first = Math.max(0, firstSlotFrom(from.toEpochSecond()) - baseSlot);
+            long last = Math.min(slotCount, firstSlotFrom(to.toEpochSecond()) - baseSlot);
+            long oldest = Long.MAX_VALUE;
+            for (long index = first; index < last; index++) {
+                int offset = offsetOf(index);
+                if (mapped.getLong(offset) == (baseSlot + index) * GenerationSeries.SLOT_SECONDS) {
+                    oldest = Math.min(oldest, mapped.getLong(offset + FETCHED_AT_OFFSET));
+                }
+            }
+            return oldest == Long.MAX_VALUE ? null : Instant.ofEpochSecond(oldest);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of records, including slots that were never written
+     */
+    public long slotCount() {
+        lock.readLock().lock();
+        try {
+            return slotCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            mapped.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves every record back so that record 0 holds {@code newBase}, and clears the records
+     * in front of them. Until the new base is written, a record that was overwritten holds a
+     * start that does not match its position and is read as missing, so an interrupted move
+     * loses slots but never returns them for the wrong time.
+     */
+    private void moveBase(long newBase) throws IOException {
+        long shift = baseSlot - newBase;
+        ensureCapacity(slotCount + shift);
+
+        long shiftBytes = shift * RECORD_BYTES;
+        byte[] chunk = new byte[MOVE_CHUNK_BYTES];
+        ///  from the end, so no record is overwritten before it has been copied
+        for (long end = slotCount * RECORD_BYTES; end > 0; ) {
+            int length = (int) Math.min(chunk.length, end);
+            long from = end - length;
+            mapped.get(Math.toIntExact(HEADER_BYTES + from), chunk, 0, length);
+            mapped.put(Math.toIntExact(HEADER_BYTES + from + shiftBytes), chunk, 0, length);
+            end = from;
+        }
+        Arrays.fill(chunk, (byte) 0);
+        for (long from = 0, end = Math.min(shift, slotCount) * RECORD_BYTES; from < end; from += chunk.length) {
+            mapped.put(Math.toIntExact(HEADER_BYTES + from), chunk, 0, (int) Math.min(chunk.length, end - from));
+        }
+        mapped.force();
+
+        log.info("Moved start of generation history {} back by {} slots", file, shift);
+        baseSlot = newBase;
+        slotCount += shift;
+        mapped.putLong(BASE_SLOT_OFFSET, baseSlot).putLong(SLOT_COUNT_OFFSET, slotCount);
+    }
+
+    private void ensureCapacity(long records) throws IOException {
+        long required = HEADER_BYTES + records * RECORD_BYTES;
+        if (required > mapped.capacity()) {
+            long capacity = (mapped.capacity() - HEADER_BYTES) / RECORD_BYTES;
+            mapped = map(HEADER_BYTES + Math.max(records, capacity + GROWTH_SLOTS) * RECORD_BYTES);
+        }
+    }
+
+    private MappedByteBuffer map(long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private void checkHeader() throws IOException {
+        if (mapped.capacity() < HEADER_BYTES || mapped.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a generation history file");
+        }
+        if (mapped.getInt(Integer.BYTES) != VERSION
+                || mapped.getInt(2 * Integer.BYTES) != SOURCES.length
+                || mapped.getInt(3 * Integer.BYTES) != RECORD_BYTES) {
+            throw new IOException(file + " was written for other energy sources or by another version");
+        }
+        if (mapped.capacity() < HEADER_BYTES + mapped.getLong(SLOT_COUNT_OFFSET) * RECORD_BYTES) {
+            throw new IOException(file + " is truncated");
+        }
+    }
+
+    ///  number of the first slot of the UTC day holding the given slot
+    private static long dayStart(long slot) {
+        return slot - Math.floorMod(slot, SLOTS_PER_DAY);
+    }
+
+    ///  number of the first slot starting at or after the given time
+    private static long firstSlotFrom(long epochSecond) {
+        return -Math.floorDiv(-epochSecond, GenerationSeries.SLOT_SECONDS);
+    }
+
+    private static int offsetOf(long index) {
+        return Math.toIntExact(HEADER_BYTES + index * RECORD_BYTES);
+    }
+}
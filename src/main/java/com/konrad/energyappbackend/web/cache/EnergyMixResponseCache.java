@@ -0,0 +1,190 @@
+package com.konrad.energyappbackend.web.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.konrad.energyappbackend.web.dto.DailyMixDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized body of the three-day {@code /api/energy-mix} response.
+ *
+ * <p>The daily mixes are precomputed once per forecast snapshot and the snapshot hands out the
+ * same list until the next refresh, so the JSON and a gzip copy of it are built once per list and
+ * reused for every request until the list changes. Responses carry a strong ETag derived from the
+ * JSON, so {@code If-None-Match} is answered with 304 by Spring, and a {@code max-age} that ends at
+ * the next half-hour refresh. A forecast fetched before the last half-hour boundary is overdue for
+ * its refresh, so it is sent with {@code max-age=0} instead.
+ *
+ * <p>Used by both the servlet and the reactive controller. Hits, misses and the size of the cached
+ * bodies are registered as {@code energy.mix.response.*} metrics.
+ */
+@Component
+public class EnergyMixResponseCache implements MeterBinder {
+
+    static final long SETTLEMENT_PERIOD_SECONDS = 30 * 60;
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    private final AtomicReference<Entry> current = new AtomicReference<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public EnergyMixResponseCache(ObjectMapper objectMapper, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    /**
+     * Builds the response for the given daily mixes from the cached bytes, serializing them only
+     * if they are not the list of the previous call.
+     *
+     * @param dailyMixes daily mixes of the current snapshot
+     * @param fetchedAt when the snapshot was fetched
+     * @param acceptEncoding value of the request's {@code Accept-Encoding} header, may be null
+     * @return 200 response with the JSON, gzip-compressed if the client accepts it
+     */
+    public ResponseEntity<byte[]> response(List<DailyMixDto> dailyMixes, Instant fetchedAt, String acceptEncoding) {
+        Entry entry = entryFor(dailyMixes);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.maxAge(untilNextRefresh(fetchedAt)))
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            ///  the compressed bytes are another representation, so they get their own strong ETag
+            return builder.eTag("\"" + entry.etag() + "-gzip\"")
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(entry.gzip());
+        }
+        return builder.eTag("\"" + entry.etag() + "\"").body(entry.json());
+    }
+
+    private Entry entryFor(List<DailyMixDto> dailyMixes) {
+        Entry entry = current.get();
+        ///  identity, not equality: the snapshot keeps one list instance until it is replaced
+        if (entry != null && entry.dailyMixes() == dailyMixes) {
+            hits.increment();
+            return entry;
+        }
+        misses.increment();
+        byte[] json = serialize(dailyMixes);
+        entry = new Entry(dailyMixes, json, gzip(json), etag(json));
+        current.set(entry);
+        return entry;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("energy.mix.response.cache", hits, LongAdder::sum)
+                .description("Energy mix responses served from cached bytes or serialized again")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("energy.mix.response.cache", misses, LongAdder::sum)
+                .description("Energy mix responses served from cached bytes or serialized again")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("energy.mix.response.size", this, cache -> cache.bodySize(false))
+                .description("Size of the cached energy mix response body")
+                .baseUnit("bytes")
+                .tag("encoding", "identity")
+                .register(registry);
+        Gauge.builder("energy.mix.response.size", this, cache -> cache.bodySize(true))
+                .description("Size of the cached energy mix response body")
+                .baseUnit("bytes")
+                .tag("encoding", "gzip")
+                .register(registry);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private double bodySize(boolean gzip) {
+        Entry entry = current.get();
+        if (entry == null) {
+            return Double.NaN;
+        }
+        return gzip ? entry.gzip().length : entry.json().length;
+    }
+
+    private byte[] serialize(List<DailyMixDto> dailyMixes) {
+        try {
+            return objectMapper.writeValueAsBytes(dailyMixes);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException("Could not serialize energy mix", ex);
+        }
+    }
+
+    ///  seconds until the next :00 or :30 boundary, when the snapshot is refreshed; none if the
+    ///  snapshot missed the last refresh, as the next request may already get a newer one
+    private Duration untilNextRefresh(Instant fetchedAt) {
+        long seconds = clock.instant().getEpochSecond();
+        long lastBoundary = seconds - Math.floorMod(seconds, SETTLEMENT_PERIOD_SECONDS);
+        if (fetchedAt.getEpochSecond() < lastBoundary) {
+            return Duration.ZERO;
+        }
+        return Duration.ofSeconds(lastBoundary + SETTLEMENT_PERIOD_SECONDS - seconds);
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not compress energy mix", ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private record Entry(List<DailyMixDto> dailyMixes, byte[] json, byte[] gzip, String etag) { }
+}
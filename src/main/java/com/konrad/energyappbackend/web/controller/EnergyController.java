@@ -1,33 +1,60 @@
 package com.konrad.energyappbackend.web.controller;
 
-import com.konrad.energyappbackend.exception.ExternalApiException;
+import com.konrad.energyappbackend.config.StreamingAsyncConfig;
+import com.konrad.energyappbackend.domain.ChargingWindowQuery;
 import com.konrad.energyappbackend.service.ChargingWindowService;
 import com.konrad.energyappbackend.service.EnergyMixService;
+import com.konrad.energyappbackend.service.FleetScheduleService;
+import com.konrad.energyappbackend.service.ForecastUpdateService;
+import com.konrad.energyappbackend.web.cache.EnergyMixResponseCache;
 import com.konrad.energyappbackend.web.dto.ChargingWindowDto;
-import com.konrad.energyappbackend.web.dto.DailyMixDto;
-import com.konrad.energyappbackend.web.dto.ErrorResponse;
+import com.konrad.energyappbackend.web.dto.ExportErrorDto;
+import com.konrad.energyappbackend.web.dto.FleetScheduleDto;
+import com.konrad.energyappbackend.web.dto.FleetScheduleRequest;
+import com.konrad.energyappbackend.web.dto.VehicleWindowDto;
+import com.konrad.energyappbackend.web.dto.VehicleWindowRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.validation.ConstraintViolation;
-import jakarta.validation.ConstraintViolationException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 /**
  * REST controller for UK energy mix data and EV charging optimization.
+ *
+ * <p>Active on the default servlet stack; {@link ReactiveEnergyController} serves the same
+ * API when the application runs on WebFlux.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api")
 @RequiredArgsConstructor
 @Validated
@@ -37,19 +64,121 @@ public class EnergyController {
 
     private final EnergyMixService energyMixService;
     private final ChargingWindowService chargingWindowService;
+    private final FleetScheduleService fleetScheduleService;
+    private final ForecastUpdateService forecastUpdateService;
+    private final EnergyMixResponseCache energyMixResponseCache;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Get aggregated energy mix for the next 3 days.
+     * Get aggregated energy mix for the next 3 days, or for every day of a given range.
+     *
+     * <p>The three-day view is written from bytes serialized once per forecast snapshot and
+     * carries an ETag, so polling clients get a 304 until the next refresh.
      */
     @GetMapping("/energy-mix")
-    @Operation(summary = "Get energy mix for three days")
-    public ResponseEntity<List<DailyMixDto>> getEnergyMix() {
-        log.info("Fetching energy mix data");
-        return ResponseEntity.ok(energyMixService.getDailyMixForThreeDays());
+    @Operation(summary = "Get energy mix for three days or for a range of days")
+    public ResponseEntity<?> getEnergyMix(
+            @Parameter(description = "First day of the range (ISO date, UTC)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @Parameter(description = "Last day of the range, inclusive (ISO date, UTC)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding) {
+        if (from == null && to == null) {
+            log.info("Fetching energy mix data");
+            EnergyMixService.ThreeDayMix forecast = energyMixService.getDailyMixForThreeDays();
+            return energyMixResponseCache.response(forecast.dailyMixes(), forecast.fetchedAt(), acceptEncoding);
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both 'from' and 'to' are required for a range");
+        }
+        log.info("Fetching energy mix data from {} to {}", from, to);
+        return ResponseEntity.ok(energyMixService.getDailyMix(from, to));
     }
 
     /**
-     * Find optimal EV charging window based on clean energy availability in the next 2 days time period.
+     * Stream the mix of every half-hour slot or of every day of a long range as NDJSON.
+     *
+     * <p>If the export fails after streaming started, its last line is an {@link ExportErrorDto}.
+     */
+    @GetMapping("/energy-mix/export")
+    @Operation(summary = "Export the energy mix of a range of days as NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportEnergyMix(
+            @Parameter(description = "First day of the range (ISO date, UTC)")
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @Parameter(description = "Last day of the range, inclusive (ISO date, UTC)")
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to,
+            @Parameter(description = "One line per half-hour 'slot' or per 'day'")
+            @RequestParam(defaultValue = "slot")
+            String granularity,
+            HttpServletRequest request) {
+        log.info("Exporting energy mix from {} to {} per {}", from, to, granularity);
+        ///  the range is validated before the response is committed, so a bad range is still a 400
+        StreamingResponseBody body = switch (granularity) {
+            case "slot" -> ndjson(energyMixService.exportSlots(from, to),
+                    slot -> slot.end().toLocalTime().equals(LocalTime.MIDNIGHT));
+            case "day" -> ndjson(energyMixService.exportDailyMix(from, to), day -> true);
+            default -> throw new IllegalArgumentException("Granularity must be 'slot' or 'day'");
+        };
+        request.setAttribute(StreamingAsyncConfig.EXPORT_REQUEST_ATTRIBUTE, Boolean.TRUE);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Writes one JSON line per row while the rows are produced. Rows are pulled from the flux
+     * as the output stream accepts them, and the output is flushed after every row matching
+     * {@code flushAfter} rather than after every row. A failure of the rows ends the output with
+     * an {@link ExportErrorDto} line.
+     */
+    private <T> StreamingResponseBody ndjson(Flux<T> rows, Predicate<T> flushAfter) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                try {
+                    for (T row : rows.toIterable()) {
+                        writer.writeValue(generator, row);
+                        generator.writeRaw('\n');
+                        if (flushAfter.test(row)) {
+                            generator.flush();
+                        }
+                    }
+                } catch (RuntimeException ex) {
+                    ///  the 200 is already sent, so the failure can only be reported in the body
+                    log.warn("Export failed after streaming started: {}", ex.getMessage());
+                    writer.writeValue(generator, ExportErrorDto.of(ex));
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+    }
+
+    /**
+     * Subscribe to forecast updates as Server-Sent Events instead of polling the energy mix and
+     * the charging window.
+     */
+    @GetMapping(value = "/forecast/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to forecast updates (Server-Sent Events)")
+    public Flux<ServerSentEvent<String>> getForecastUpdates(HttpServletRequest request) {
+        log.info("New forecast update subscriber");
+        request.setAttribute(StreamingAsyncConfig.EVENT_STREAM_REQUEST_ATTRIBUTE, Boolean.TRUE);
+        return forecastUpdateService.subscribe().map(ForecastEvents::toServerSentEvent);
+    }
+
+    /**
+     * Find optimal EV charging window based on clean energy availability in the next 2 days time period,
+     * optionally limited to an earliest start and a deadline, or to a minimum clean energy share.
      */
     @GetMapping("/charging-window")
     @Operation(summary = "Find optimal EV charging window")
@@ -58,56 +187,56 @@ public class EnergyController {
             @RequestParam(defaultValue = "3")
             @Min(value = 1, message = "Hours must be at least 1")
             @Max(value = 6, message = "Hours must be at most 6")
-            int hours) {
+            int hours,
+            @Parameter(description = "Window must not start before this time (ISO-8601)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            ZonedDateTime earliestStart,
+            @Parameter(description = "Window must end at or before this time (ISO-8601)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            ZonedDateTime deadline,
+            @Parameter(description = "Return the earliest window with at least this clean share (0-100)")
+            @RequestParam(required = false)
+            @DecimalMin(value = "0.0", message = "Minimum clean share must be at least 0")
+            @DecimalMax(value = "100.0", message = "Minimum clean share must be at most 100")
+            Double minCleanShare) {
 
-        log.info("Finding optimal charging window for {} hours", hours);
-        ChargingWindowDto result = chargingWindowService.getOptimalWindow(hours);
+        ChargingWindowQuery query = new ChargingWindowQuery(hours, earliestStart, deadline, minCleanShare);
+        log.info("Finding optimal charging window for {}", query);
+        ChargingWindowDto result = query.isUnconstrained()
+                ? chargingWindowService.getOptimalWindow(hours)
+                : chargingWindowService.getOptimalWindow(query);
         log.info("Found window: {} to {} ({}% clean)",
                 result.start(), result.end(), result.cleanEnergyShare());
         return ResponseEntity.ok(result);
     }
 
-    // ========================================
-    // Exception Handlers
-    // ========================================
-
-    @ExceptionHandler(ExternalApiException.class)
-    public ResponseEntity<ErrorResponse> handleExternalApiException(ExternalApiException ex) {
-        log.error("External API error: {}", ex.getMessage());
-        return ResponseEntity
-                .status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body(new ErrorResponse(503, "External API Unavailable", ex.getMessage()));
-    }
-
-    @ExceptionHandler(ConstraintViolationException.class)
-    public ResponseEntity<ErrorResponse> handleValidationException(ConstraintViolationException ex) {
-        String message = ex.getConstraintViolations().stream()
-                .map(ConstraintViolation::getMessage)
-                .collect(Collectors.joining(", "));
-
-        log.warn("Validation error: {}", message);
-        return ResponseEntity
-                .badRequest()
-                .body(new ErrorResponse(400, "Validation Failed", message));
-    }
-
-    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
-    public ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
-        String message = String.format("Invalid value '%s' for parameter '%s'",
-                ex.getValue(), ex.getName());
+    /**
+     * Find optimal charging windows for many vehicles against a single forecast snapshot.
+     */
+    @PostMapping("/charging-window/batch")
+    @Operation(summary = "Find optimal EV charging windows for a batch of vehicles")
+    public ResponseEntity<List<VehicleWindowDto>> getOptimalChargingWindows(
+            @RequestBody
+            @NotEmpty(message = "At least one vehicle is required")
+            @Size(max = 1000, message = "At most 1000 vehicles per request")
+            List<VehicleWindowRequest> vehicles) {
 
-        log.warn("Type mismatch: {}", message);
-        return ResponseEntity
-                .badRequest()
-                .body(new ErrorResponse(400, "Invalid Parameter", message));
+        log.info("Finding charging windows for {} vehicles", vehicles.size());
+        return ResponseEntity.ok(chargingWindowService.getOptimalWindows(vehicles));
     }
 
-    @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponse> handleGeneralException(Exception ex) {
-        log.error("Unexpected error", ex);
-        return ResponseEntity
-                .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(new ErrorResponse(500, "Internal Server Error",
-                        "An unexpected error occurred"));
+    /**
+     * Plan charging of a whole fleet so that the site power limit is never exceeded.
+     */
+    @PostMapping("/fleet-schedule")
+    @Operation(summary = "Schedule fleet charging under a site power limit")
+    public ResponseEntity<FleetScheduleDto> scheduleFleet(@Valid @RequestBody FleetScheduleRequest request) {
+        log.info("Scheduling {} vehicles under a {} kW site limit",
+                request.vehicles().size(), request.siteLimitKw());
+        FleetScheduleDto result = fleetScheduleService.schedule(request);
+        log.info("Scheduled {} kWh ({}% clean)", result.deliveredKwh(), result.cleanEnergyShare());
+        return ResponseEntity.ok(result);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,121 @@
+package com.konrad.energyappbackend.web.controller;
+
+import com.konrad.energyappbackend.exception.ChargingWindowNotFoundException;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import com.konrad.energyappbackend.web.dto.ErrorResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.stream.Collectors;
+
+/**
+ * Error responses of the Energy API, shared by the servlet and the reactive controller so
+ * both stacks answer every failure with the same status and {@link ErrorResponse}.
+ *
+ * <p>Binding and conversion errors are raised as different exceptions on each stack; they
+ * are mapped to the same responses here.
+ */
+@RestControllerAdvice(assignableTypes = {EnergyController.class, ReactiveEnergyController.class})
+@Slf4j
+public class EnergyExceptionHandler {
+
+    @ExceptionHandler(ExternalApiException.class)
+    public ResponseEntity<ErrorResponse> handleExternalApiException(ExternalApiException ex) {
+        log.error("External API error: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse(503, "External API Unavailable", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponse> handleValidationException(ConstraintViolationException ex) {
+        String message = ex.getConstraintViolations().stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining(", "));
+
+        log.warn("Validation error: {}", message);
+        return ResponseEntity
+                .badRequest()
+                .body(new ErrorResponse(400, "Validation Failed", message));
+    }
+
+    /**
+     * Invalid request body: {@link MethodArgumentNotValidException} on the servlet stack,
+     * {@link WebExchangeBindException} on WebFlux.
+     */
+    @ExceptionHandler({MethodArgumentNotValidException.class, WebExchangeBindException.class})
+    public ResponseEntity<ErrorResponse> handleInvalidBody(Exception ex) {
+        BindingResult bindingResult = ex instanceof MethodArgumentNotValidException invalid
+                ? invalid.getBindingResult()
+                : ((WebExchangeBindException) ex).getBindingResult();
+        String message = bindingResult.getFieldErrors().stream()
+                .map(error -> error.getField() + " " + error.getDefaultMessage())
+                .collect(Collectors.joining(", "));
+
+        log.warn("Validation error: {}", message);
+        return ResponseEntity
+                .badRequest()
+                .body(new ErrorResponse(400, "Validation Failed", message));
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        String message = String.format("Invalid value '%s' for parameter '%s'",
+                ex.getValue(), ex.getName());
+
+        log.warn("Type mismatch: {}", message);
+        return ResponseEntity
+                .badRequest()
+                .body(new ErrorResponse(400, "Invalid Parameter", message));
+    }
+
+    /**
+     * Unconvertible or missing parameter on WebFlux.
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidInput(ServerWebInputException ex) {
+        String message = ex.getMethodParameter() != null
+                ? String.format("Invalid value for parameter '%s'", ex.getMethodParameter().getParameterName())
+                : ex.getReason();
+
+        log.warn("Invalid input: {}", message);
+        return ResponseEntity
+                .badRequest()
+                .body(new ErrorResponse(400, "Invalid Parameter", message));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException ex) {
+        log.warn("Invalid request: {}", ex.getMessage());
+        return ResponseEntity
+                .badRequest()
+                .body(new ErrorResponse(400, "Invalid Parameter", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ChargingWindowNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleWindowNotFound(ChargingWindowNotFoundException ex) {
+        log.info("No charging window found: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse(404, "Charging Window Not Found", ex.getMessage()));
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGeneralException(Exception ex) {
+        log.error("Unexpected error", ex);
+        return ResponseEntity
+                .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse(500, "Internal Server Error",
+                        "An unexpected error occurred"));
+    }
+}
@@ -0,0 +1,29 @@
+package com.konrad.energyappbackend.web.controller;
+
+import com.konrad.energyappbackend.service.ForecastUpdateService.ForecastUpdate;
+import org.springframework.http.codec.ServerSentEvent;
+
+/**
+ * Server-Sent Events of the forecast update stream, shared by both controllers.
+ */
+final class ForecastEvents {
+
+    static final String EVENT_NAME = "forecast";
+
+    ///  a comment keeps idle connections open through proxies without waking up the clients
+    private static final ServerSentEvent<String> KEEP_ALIVE =
+            ServerSentEvent.<String>builder().comment("keep-alive").build();
+
+    private ForecastEvents() {
+    }
+
+    static ServerSentEvent<String> toServerSentEvent(ForecastUpdate update) {
+        if (update.isKeepAlive()) {
+            return KEEP_ALIVE;
+        }
+        return ServerSentEvent.builder(update.json())
+                .id(update.id())
+                .event(EVENT_NAME)
+                .build();
+    }
+}
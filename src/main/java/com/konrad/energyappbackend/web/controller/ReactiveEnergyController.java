@@ -0,0 +1,204 @@
+package com.konrad.energyappbackend.web.controller;
+
+import com.konrad.energyappbackend.domain.ChargingWindowQuery;
+import com.konrad.energyappbackend.service.ChargingWindowService;
+import com.konrad.energyappbackend.service.EnergyMixService;
+import com.konrad.energyappbackend.service.FleetScheduleService;
+import com.konrad.energyappbackend.service.ForecastUpdateService;
+import com.konrad.energyappbackend.web.cache.EnergyMixResponseCache;
+import com.konrad.energyappbackend.web.dto.ChargingWindowDto;
+import com.konrad.energyappbackend.web.dto.ExportErrorDto;
+import com.konrad.energyappbackend.web.dto.FleetScheduleDto;
+import com.konrad.energyappbackend.web.dto.FleetScheduleRequest;
+import com.konrad.energyappbackend.web.dto.VehicleWindowDto;
+import com.konrad.energyappbackend.web.dto.VehicleWindowRequest;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Non-blocking variant of {@link EnergyController} for WebFlux/Netty.
+ *
+ * <p>Active only when the application runs as a reactive web application (the {@code reactive}
+ * profile). Every endpoint returns a {@link Mono} built on the reactive forecast path, so no
+ * request thread waits for the Generation API. The API is identical, and both controllers
+ * share the error responses of {@link EnergyExceptionHandler}.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+@Tag(name = "Energy API", description = "UK Energy Mix and EV Charging Optimization")
+public class ReactiveEnergyController {
+
+    private final EnergyMixService energyMixService;
+    private final ChargingWindowService chargingWindowService;
+    private final FleetScheduleService fleetScheduleService;
+    private final ForecastUpdateService forecastUpdateService;
+    private final EnergyMixResponseCache energyMixResponseCache;
+
+    /**
+     * Get aggregated energy mix for the next 3 days, or for every day of a given range.
+     *
+     * <p>The three-day view is written from bytes serialized once per forecast snapshot and
+     * carries an ETag, so polling clients get a 304 until the next refresh.
+     */
+    @GetMapping("/energy-mix")
+    @Operation(summary = "Get energy mix for three days or for a range of days")
+    public Mono<ResponseEntity<?>> getEnergyMix(
+            @Parameter(description = "First day of the range (ISO date, UTC)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @Parameter(description = "Last day of the range, inclusive (ISO date, UTC)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding) {
+        if (from == null && to == null) {
+            log.info("Fetching energy mix data");
+            return energyMixService.getDailyMixForThreeDaysAsync()
+                    .map(forecast -> energyMixResponseCache.response(
+                            forecast.dailyMixes(), forecast.fetchedAt(), acceptEncoding));
+        }
+        if (from == null || to == null) {
+            return Mono.error(new IllegalArgumentException("Both 'from' and 'to' are required for a range"));
+        }
+        log.info("Fetching energy mix data from {} to {}", from, to);
+        return energyMixService.getDailyMixAsync(from, to).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Stream the mix of every half-hour slot or of every day of a long range as NDJSON.
+     *
+     * <p>If the export fails after streaming started, its last line is an {@link ExportErrorDto}.
+     */
+    @GetMapping("/energy-mix/export")
+    @Operation(summary = "Export the energy mix of a range of days as NDJSON")
+    public Mono<ResponseEntity<Flux<?>>> exportEnergyMix(
+            @Parameter(description = "First day of the range (ISO date, UTC)")
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @Parameter(description = "Last day of the range, inclusive (ISO date, UTC)")
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate to,
+            @Parameter(description = "One line per half-hour 'slot' or per 'day'")
+            @RequestParam(defaultValue = "slot")
+            String granularity) {
+        log.info("Exporting energy mix from {} to {} per {}", from, to, granularity);
+        ///  the NDJSON encoder writes every row as it is emitted and requests more as the socket drains
+        return Mono.fromSupplier(() -> {
+            Flux<Object> rows = switch (granularity) {
+                case "slot" -> energyMixService.exportSlots(from, to).cast(Object.class);
+                case "day" -> energyMixService.exportDailyMix(from, to).cast(Object.class);
+                default -> throw new IllegalArgumentException("Granularity must be 'slot' or 'day'");
+            };
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(rows.onErrorResume(RuntimeException.class, ex -> {
+                        log.warn("Export failed after streaming started: {}", ex.getMessage());
+                        return Mono.just(ExportErrorDto.of(ex));
+                    }));
+        });
+    }
+
+    /**
+     * Subscribe to forecast updates as Server-Sent Events instead of polling the energy mix and
+     * the charging window.
+     */
+    @GetMapping(value = "/forecast/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to forecast updates (Server-Sent Events)")
+    public Flux<ServerSentEvent<String>> getForecastUpdates() {
+        log.info("New forecast update subscriber");
+        return forecastUpdateService.subscribe().map(ForecastEvents::toServerSentEvent);
+    }
+
+    /**
+     * Find optimal EV charging window based on clean energy availability in the next 2 days time period,
+     * optionally limited to an earliest start and a deadline, or to a minimum clean energy share.
+     */
+    @GetMapping("/charging-window")
+    @Operation(summary = "Find optimal EV charging window")
+    public Mono<ResponseEntity<ChargingWindowDto>> getOptimalChargingWindow(
+            @Parameter(description = "Charging duration in hours (1-6)")
+            @RequestParam(defaultValue = "3")
+            @Min(value = 1, message = "Hours must be at least 1")
+            @Max(value = 6, message = "Hours must be at most 6")
+            int hours,
+            @Parameter(description = "Window must not start before this time (ISO-8601)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            ZonedDateTime earliestStart,
+            @Parameter(description = "Window must end at or before this time (ISO-8601)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            ZonedDateTime deadline,
+            @Parameter(description = "Return the earliest window with at least this clean share (0-100)")
+            @RequestParam(required = false)
+            @DecimalMin(value = "0.0", message = "Minimum clean share must be at least 0")
+            @DecimalMax(value = "100.0", message = "Minimum clean share must be at most 100")
+            Double minCleanShare) {
+
+        ChargingWindowQuery query = new ChargingWindowQuery(hours, earliestStart, deadline, minCleanShare);
+        log.info("Finding optimal charging window for {}", query);
+        return chargingWindowService.getOptimalWindowAsync(query)
+                .doOnNext(result -> log.info("Found window: {} to {} ({}% clean)",
+                        result.start(), result.end(), result.cleanEnergyShare()))
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Find optimal charging windows for many vehicles against a single forecast snapshot.
+     */
+    @PostMapping("/charging-window/batch")
+    @Operation(summary = "Find optimal EV charging windows for a batch of vehicles")
+    public Mono<ResponseEntity<List<VehicleWindowDto>>> getOptimalChargingWindows(
+            @RequestBody
+            @NotEmpty(message = "At least one vehicle is required")
+            @Size(max = 1000, message = "At most 1000 vehicles per request")
+            List<VehicleWindowRequest> vehicles) {
+
+        log.info("Finding charging windows for {} vehicles", vehicles.size());
+        return chargingWindowService.getOptimalWindowsAsync(vehicles).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Plan charging of a whole fleet so that the site power limit is never exceeded.
+     */
+    @PostMapping("/fleet-schedule")
+    @Operation(summary = "Schedule fleet charging under a site power limit")
+    public Mono<ResponseEntity<FleetScheduleDto>> scheduleFleet(@Valid @RequestBody FleetScheduleRequest request) {
+        log.info("Scheduling {} vehicles under a {} kW site limit",
+                request.vehicles().size(), request.siteLimitKw());
+        return fleetScheduleService.scheduleAsync(request).map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,6 @@
+package com.konrad.energyappbackend.web.dto;
+
+import java.time.ZonedDateTime;
+
+public record ChargingSlotDto(ZonedDateTime start, ZonedDateTime end, double energyKwh) {
+}
@@ -0,0 +1,19 @@
+package com.konrad.energyappbackend.web.dto;
+
+import com.konrad.energyappbackend.exception.ExternalApiException;
+
+/**
+ * Last line of an NDJSON export that failed after its {@code 200} was sent, so a client can
+ * tell a failed export from a complete one.
+ *
+ * @param error the failure, as it would have been answered before streaming started
+ */
+public record ExportErrorDto(ErrorResponse error) {
+
+    public static ExportErrorDto of(RuntimeException ex) {
+        if (ex instanceof ExternalApiException) {
+            return new ExportErrorDto(new ErrorResponse(503, "External API Unavailable", ex.getMessage()));
+        }
+        return new ExportErrorDto(new ErrorResponse(500, "Internal Server Error", "An unexpected error occurred"));
+    }
+}
@@ -0,0 +1,16 @@
+package com.konrad.energyappbackend.web.dto;
+
+import java.util.List;
+
+/**
+ * Charging plan of a whole fleet.
+ *
+ * @param deliveredKwh energy assigned to all vehicles
+ * @param cleanEnergyShare clean share (0-100) of all assigned energy
+ * @param vehicles per-vehicle plans, in request order
+ */
+public record FleetScheduleDto(
+        double deliveredKwh,
+        double cleanEnergyShare,
+        List<VehicleScheduleDto> vehicles
+) { }
@@ -0,0 +1,19 @@
+package com.konrad.energyappbackend.web.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Fleet schedule request.
+ *
+ * @param siteLimitKw site connection limit shared by all vehicles in every half-hour slot
+ * @param vehicles vehicles to schedule
+ */
+public record FleetScheduleRequest(
+        @Positive double siteLimitKw,
+        @NotEmpty @Size(max = 20000) List<@Valid FleetVehicleRequest> vehicles
+) { }
@@ -0,0 +1,23 @@
+package com.konrad.energyappbackend.web.dto;
+
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.time.ZonedDateTime;
+
+/**
+ * One vehicle of a fleet schedule request.
+ *
+ * @param vehicleId caller's identifier, echoed back in the response
+ * @param energyKwh energy the vehicle needs
+ * @param chargerKw maximum charging power of the vehicle's charger
+ * @param availableFrom vehicle is plugged in from this time, or null for the start of the charging period
+ * @param availableUntil vehicle must be charged by this time, or null for the end of the charging period
+ */
+public record FleetVehicleRequest(
+        String vehicleId,
+        @PositiveOrZero double energyKwh,
+        @Positive double chargerKw,
+        ZonedDateTime availableFrom,
+        ZonedDateTime availableUntil
+) { }
@@ -0,0 +1,13 @@
+package com.konrad.energyappbackend.web.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public record ForecastUpdateDto(
+        LocalDate day,
+        Instant fetchedAt,
+        List<DailyMixDto> dailyMixes,
+        Map<Integer, ChargingWindowDto> bestWindows
+) { }
@@ -0,0 +1,11 @@
+package com.konrad.energyappbackend.web.dto;
+
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+public record SlotMixDto(
+        ZonedDateTime start,
+        ZonedDateTime end,
+        Map<String, Double> mix,
+        double cleanPercentage
+) { }
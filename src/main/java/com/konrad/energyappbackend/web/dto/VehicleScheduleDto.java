@@ -0,0 +1,20 @@
+package com.konrad.energyappbackend.web.dto;
+
+import java.util.List;
+
+/**
+ * Charging plan of one vehicle.
+ *
+ * @param vehicleId identifier from the request
+ * @param deliveredKwh energy assigned to the vehicle
+ * @param cleanEnergyShare clean share (0-100) of the assigned energy
+ * @param complete true if the vehicle's full energy need is covered
+ * @param slots assigned half-hour slots, ordered by time
+ */
+public record VehicleScheduleDto(
+        String vehicleId,
+        double deliveredKwh,
+        double cleanEnergyShare,
+        boolean complete,
+        List<ChargingSlotDto> slots
+) { }
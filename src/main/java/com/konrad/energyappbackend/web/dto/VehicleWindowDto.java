@@ -0,0 +1,23 @@
+package com.konrad.energyappbackend.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Result for one vehicle of a batch charging window request. Exactly one of
+ * {@code window} and {@code error} is set.
+ *
+ * @param vehicleId identifier from the request
+ * @param window optimal window, or null if none could be found
+ * @param error reason the vehicle has no window, or null on success
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record VehicleWindowDto(String vehicleId, ChargingWindowDto window, String error) {
+
+    public static VehicleWindowDto of(String vehicleId, ChargingWindowDto window) {
+        return new VehicleWindowDto(vehicleId, window, null);
+    }
+
+    public static VehicleWindowDto failed(String vehicleId, String error) {
+        return new VehicleWindowDto(vehicleId, null, error);
+    }
+}
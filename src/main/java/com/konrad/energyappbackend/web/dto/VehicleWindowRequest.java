@@ -0,0 +1,24 @@
+package com.konrad.energyappbackend.web.dto;
+
+import com.konrad.energyappbackend.domain.ChargingWindowQuery;
+
+import java.time.ZonedDateTime;
+
+/**
+ * One vehicle of a batch charging window request.
+ *
+ * @param vehicleId caller's identifier, echoed back in the response
+ * @param hours charging duration in hours (1-6)
+ * @param earliestStart window must not start before this time, or null for no limit
+ * @param deadline window must end at or before this time, or null for no limit
+ */
+public record VehicleWindowRequest(
+        String vehicleId,
+        int hours,
+        ZonedDateTime earliestStart,
+        ZonedDateTime deadline
+) {
+    public ChargingWindowQuery toQuery() {
+        return new ChargingWindowQuery(hours, earliestStart, deadline, null);
+    }
+}
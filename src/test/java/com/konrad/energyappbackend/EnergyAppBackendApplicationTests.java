@@ -3,7 +3,7 @@ package com.konrad.energyappbackend;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.history.enabled=false")
 class EnergyAppBackendApplicationTests {
 
 	@Test
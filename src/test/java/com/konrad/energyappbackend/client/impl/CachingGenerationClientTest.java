@@ -0,0 +1,198 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CachingGenerationClient Tests")
+class CachingGenerationClientTest {
+
+    private static final ZonedDateTime FROM = ZonedDateTime.parse("2025-12-04T00:00:00Z");
+    private static final ZonedDateTime TO = FROM.plusDays(1);
+
+    @Mock
+    private GenerationClient delegate;
+
+    private MutableClock clock;
+    private CachingGenerationClient cachingClient;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-12-04T10:05:00Z"));
+        cachingClient = new CachingGenerationClient(delegate, 2, clock);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated requests from cache until the next half-hour boundary")
+    void shouldServeRepeatedRequestsFromCache() {
+        GenerationSeries response = GenerationSeries.from(List.of());
+        when(delegate.getGenerationSeries(FROM, TO)).thenReturn(response);
+
+        assertThat(cachingClient.getGenerationSeries(FROM, TO)).isSameAs(response);
+        clock.advance(Duration.ofMinutes(24));
+        assertThat(cachingClient.getGenerationSeries(FROM, TO)).isSameAs(response);
+
+        verify(delegate, times(1)).getGenerationSeries(FROM, TO);
+        assertThat(cachingClient.getHitCount()).isEqualTo(1);
+        assertThat(cachingClient.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should share cache entries between blocking and reactive callers")
+    void shouldShareEntriesWithReactiveCallers() {
+        GenerationSeries response = GenerationSeries.from(List.of());
+        when(delegate.fetchGenerationSeries(FROM, TO)).thenReturn(Mono.just(response));
+
+        StepVerifier.create(cachingClient.fetchGenerationSeries(FROM, TO)).expectNext(response).verifyComplete();
+        assertThat(cachingClient.getGenerationSeries(FROM, TO)).isSameAs(response);
+        StepVerifier.create(cachingClient.fetchGenerationSeries(FROM, TO)).expectNext(response).verifyComplete();
+
+        verify(delegate, times(1)).fetchGenerationSeries(FROM, TO);
+        verify(delegate, never()).getGenerationSeries(FROM, TO);
+        assertThat(cachingClient.getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should fetch again once the settlement boundary has passed")
+    void shouldFetchAgainAfterBoundary() {
+        when(delegate.getGenerationSeries(FROM, TO))
+                .thenReturn(GenerationSeries.from(List.of()), GenerationSeries.from(List.of()));
+
+        GenerationSeries first = cachingClient.getGenerationSeries(FROM, TO);
+        clock.advance(Duration.ofMinutes(25));
+        GenerationSeries second = cachingClient.getGenerationSeries(FROM, TO);
+
+        assertThat(second).isNotSameAs(first);
+        verify(delegate, times(2)).getGenerationSeries(FROM, TO);
+        assertThat(cachingClient.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should treat the same interval in different zones as one entry")
+    void shouldNormalizeZones() {
+        when(delegate.getGenerationSeries(any(), any())).thenReturn(GenerationSeries.from(List.of()));
+
+        cachingClient.getGenerationSeries(FROM, TO);
+        cachingClient.getGenerationSeries(
+                FROM.withZoneSameInstant(ZoneId.of("Europe/London")),
+                TO.withZoneSameInstant(ZoneId.of("Europe/Warsaw")));
+
+        verify(delegate, times(1)).getGenerationSeries(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should never hold more than the configured number of entries")
+    void shouldRespectMaxEntries() {
+        when(delegate.getGenerationSeries(any(), any())).thenReturn(GenerationSeries.from(List.of()));
+
+        for (int day = 0; day < 5; day++) {
+            cachingClient.getGenerationSeries(FROM.plusDays(day), TO.plusDays(day));
+        }
+
+        assertThat(cachingClient.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should stay within max entries when many distinct misses race")
+    void shouldRespectMaxEntriesUnderConcurrentMisses() throws Exception {
+        when(delegate.getGenerationSeries(any(), any())).thenReturn(GenerationSeries.from(List.of()));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int day = 0; day < 64; day++) {
+                int offset = day;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cachingClient.getGenerationSeries(FROM.plusDays(offset), TO.plusDays(offset));
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cachingClient.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should bypass storage when max entries is 0")
+    void shouldBypassCacheWhenDisabled() {
+        CachingGenerationClient disabled = new CachingGenerationClient(delegate, 0, clock);
+        when(delegate.getGenerationSeries(FROM, TO)).thenReturn(GenerationSeries.from(List.of()));
+
+        disabled.getGenerationSeries(FROM, TO);
+        disabled.getGenerationSeries(FROM, TO);
+
+        verify(delegate, times(2)).getGenerationSeries(FROM, TO);
+        assertThat(disabled.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should compute the next half-hour settlement boundary")
+    void shouldComputeNextSettlementBoundary() {
+        assertThat(CachingGenerationClient.nextSettlementBoundary(Instant.parse("2025-12-04T10:05:00Z")))
+                .isEqualTo(Instant.parse("2025-12-04T10:30:00Z"));
+        assertThat(CachingGenerationClient.nextSettlementBoundary(Instant.parse("2025-12-04T10:30:00Z")))
+                .isEqualTo(Instant.parse("2025-12-04T11:00:00Z"));
+        assertThat(CachingGenerationClient.nextSettlementBoundary(Instant.parse("2025-12-04T23:59:59Z")))
+                .isEqualTo(Instant.parse("2025-12-05T00:00:00Z"));
+    }
+
+    static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
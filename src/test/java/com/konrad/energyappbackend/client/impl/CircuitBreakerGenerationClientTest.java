@@ -0,0 +1,177 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.client.impl.CachingGenerationClientTest.MutableClock;
+import com.konrad.energyappbackend.client.impl.CircuitBreakerGenerationClient.State;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CircuitBreakerGenerationClient Tests")
+class CircuitBreakerGenerationClientTest {
+
+    private static final ZonedDateTime FROM = ZonedDateTime.parse("2025-12-04T00:00:00Z");
+    private static final ZonedDateTime TO = FROM.plusDays(1);
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicBoolean failing = new AtomicBoolean(true);
+    private MutableClock clock;
+    private CircuitBreakerGenerationClient client;
+
+    @BeforeEach
+    void setUp() {
+        GenerationClient delegate = (from, to) -> {
+            calls.incrementAndGet();
+            if (failing.get()) {
+                throw new ExternalApiException("Carbon Intensity API is unavailable");
+            }
+            return GenerationSeries.empty();
+        };
+        clock = new MutableClock(Instant.parse("2025-12-04T10:05:00Z"));
+        client = new CircuitBreakerGenerationClient(delegate, 3, OPEN_DURATION, 1, clock);
+    }
+
+    @Test
+    @DisplayName("Should stop calling the upstream after consecutive failures")
+    void shouldOpenAfterConsecutiveFailures() {
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> client.getGenerationSeries(FROM, TO))
+                    .hasMessageContaining("unavailable");
+        }
+
+        assertThat(client.getState()).isEqualTo(State.OPEN);
+        assertThatThrownBy(() -> client.getGenerationSeries(FROM, TO))
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessageContaining("circuit is open");
+        StepVerifier.create(client.fetchGenerationSeries(FROM, TO))
+                .expectError(ExternalApiException.class)
+                .verify();
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(client.getRejectedCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should pass client errors and unusable responses on without opening the circuit")
+    void shouldNotOpenOnClientErrors() {
+        List<ExternalApiException> errors = List.of(
+                new ExternalApiException("Generation API error 400 BAD_REQUEST: invalid range", 400),
+                new ExternalApiException("Generation API error 404 NOT_FOUND: ", 404),
+                ExternalApiException.invalidResponse("Generation API response exceeds 4194304 bytes"),
+                new ExternalApiException("Generation API error 400 BAD_REQUEST: invalid range", 400));
+        AtomicInteger next = new AtomicInteger();
+        CircuitBreakerGenerationClient breaker = new CircuitBreakerGenerationClient(
+                (from, to) -> {
+                    throw errors.get(next.getAndIncrement());
+                }, 3, OPEN_DURATION, 1, clock);
+
+        for (ExternalApiException error : errors) {
+            assertThatThrownBy(() -> breaker.getGenerationSeries(FROM, TO)).isSameAs(error);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.getRejectedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should count 5xx responses towards opening the circuit")
+    void shouldOpenOnServerErrors() {
+        CircuitBreakerGenerationClient breaker = new CircuitBreakerGenerationClient(
+                (from, to) -> {
+                    throw new ExternalApiException("Generation API error 502 BAD_GATEWAY: ", 502);
+                }, 3, OPEN_DURATION, 1, clock);
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> breaker.getGenerationSeries(FROM, TO)).hasMessageContaining("502");
+        }
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    @DisplayName("Should close again after a successful trial call once the open period is over")
+    void shouldCloseAfterSuccessfulTrial() {
+        openCircuit();
+        failing.set(false);
+
+        clock.advance(OPEN_DURATION);
+
+        assertThat(client.getGenerationSeries(FROM, TO)).isEqualTo(GenerationSeries.empty());
+        assertThat(client.getState()).isEqualTo(State.CLOSED);
+        assertThat(client.getGenerationSeries(FROM, TO)).isEqualTo(GenerationSeries.empty());
+    }
+
+    @Test
+    @DisplayName("Should open again for the full period when the trial call fails")
+    void shouldReopenAfterFailedTrial() {
+        openCircuit();
+        clock.advance(OPEN_DURATION);
+
+        assertThatThrownBy(() -> client.getGenerationSeries(FROM, TO))
+                .hasMessageContaining("unavailable");
+
+        assertThat(client.getState()).isEqualTo(State.OPEN);
+        clock.advance(OPEN_DURATION.minusSeconds(1));
+        assertThatThrownBy(() -> client.getGenerationSeries(FROM, TO))
+                .hasMessageContaining("circuit is open");
+        assertThat(calls.get()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should let only one trial call through while half-open")
+    void shouldLimitTrialCalls() {
+        Sinks.One<GenerationSeries> response = Sinks.one();
+        AtomicInteger trials = new AtomicInteger();
+        GenerationClient slow = new GenerationClient() {
+            @Override
+            public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+                throw new ExternalApiException("Carbon Intensity API is unavailable");
+            }
+
+            @Override
+            public Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+                trials.incrementAndGet();
+                return response.asMono();
+            }
+        };
+        CircuitBreakerGenerationClient breaker = new CircuitBreakerGenerationClient(slow, 1, OPEN_DURATION, 1, clock);
+        assertThatThrownBy(() -> breaker.getGenerationSeries(FROM, TO)).isInstanceOf(ExternalApiException.class);
+        clock.advance(OPEN_DURATION);
+
+        StepVerifier.create(breaker.fetchGenerationSeries(FROM, TO))
+                .then(() -> {
+                    assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+                    StepVerifier.create(breaker.fetchGenerationSeries(FROM, TO))
+                            .expectErrorMessage("Generation API circuit is open, not calling it until "
+                                    + Instant.parse("2025-12-04T10:05:30Z"))
+                            .verify();
+                    response.tryEmitValue(GenerationSeries.empty());
+                })
+                .expectNext(GenerationSeries.empty())
+                .verifyComplete();
+
+        assertThat(trials.get()).isEqualTo(1);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> client.getGenerationSeries(FROM, TO)).isInstanceOf(ExternalApiException.class);
+        }
+        assertThat(client.getState()).isEqualTo(State.OPEN);
+    }
+}
@@ -0,0 +1,161 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CoalescingGenerationClient Tests")
+class CoalescingGenerationClientTest {
+
+    private static final ZonedDateTime FROM = ZonedDateTime.parse("2025-12-04T00:00:00Z");
+    private static final ZonedDateTime TO = FROM.plusDays(1);
+    private static final int CALLERS = 8;
+
+    @Test
+    @DisplayName("Should share one upstream call between concurrent callers")
+    void shouldShareOneUpstreamCall() throws Exception {
+        GenerationSeries response = GenerationSeries.from(List.of());
+        BlockingDelegate delegate = new BlockingDelegate(() -> response);
+        CoalescingGenerationClient client = new CoalescingGenerationClient(delegate);
+
+        List<Future<GenerationSeries>> results = callConcurrently(client, delegate);
+
+        for (Future<GenerationSeries> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(response);
+        }
+        assertThat(delegate.calls.get()).isEqualTo(1);
+        assertThat(client.getCoalescedCount()).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    @DisplayName("Should deliver a failure to every waiter without retrying")
+    void shouldDeliverFailureToEveryWaiter() throws Exception {
+        BlockingDelegate delegate = new BlockingDelegate(() -> {
+            throw new ExternalApiException("Generation API error 503");
+        });
+        CoalescingGenerationClient client = new CoalescingGenerationClient(delegate);
+
+        List<Future<GenerationSeries>> results = callConcurrently(client, delegate);
+
+        for (Future<GenerationSeries> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(ExternalApiException.class);
+        }
+        assertThat(delegate.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should start a new call once the previous one has finished")
+    void shouldNotRememberFinishedCalls() {
+        AtomicInteger calls = new AtomicInteger();
+        GenerationClient delegate = (from, to) -> {
+            calls.incrementAndGet();
+            return GenerationSeries.from(List.of());
+        };
+        CoalescingGenerationClient client = new CoalescingGenerationClient(delegate);
+
+        client.getGenerationSeries(FROM, TO);
+        client.getGenerationSeries(FROM, TO);
+
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(client.getCoalescedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should share one reactive upstream call even if the first subscriber cancels")
+    void shouldShareReactiveCallAcrossCancellation() {
+        Sinks.One<GenerationSeries> upstream = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        GenerationClient delegate = new GenerationClient() {
+            @Override
+            public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+                calls.incrementAndGet();
+                return upstream.asMono();
+            }
+        };
+        CoalescingGenerationClient client = new CoalescingGenerationClient(delegate);
+        GenerationSeries response = GenerationSeries.from(List.of());
+
+        Disposable first = client.fetchGenerationSeries(FROM, TO).subscribe();
+        Mono<GenerationSeries> second = client.fetchGenerationSeries(FROM, TO);
+
+        StepVerifier.create(second)
+                .then(first::dispose)
+                .then(() -> upstream.tryEmitValue(response))
+                .expectNext(response)
+                .verifyComplete();
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(client.getCoalescedCount()).isEqualTo(1);
+    }
+
+    private List<Future<GenerationSeries>> callConcurrently(
+            CoalescingGenerationClient client, BlockingDelegate delegate) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<GenerationSeries>> results = new ArrayList<>();
+            results.add(executor.submit(() -> client.getGenerationSeries(FROM, TO)));
+            assertThat(delegate.started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            for (int i = 1; i < CALLERS; i++) {
+                results.add(executor.submit(() -> client.getGenerationSeries(FROM, TO)));
+            }
+            while (client.getCoalescedCount() < CALLERS - 1) {
+                Thread.sleep(5);
+            }
+
+            delegate.release.countDown();
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static final class BlockingDelegate implements GenerationClient {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+        private final Supplier<GenerationSeries> answer;
+
+        private BlockingDelegate(Supplier<GenerationSeries> answer) {
+            this.answer = answer;
+        }
+
+        @Override
+        public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return answer.get();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ConcurrencyLimitingGenerationClient Tests")
+class ConcurrencyLimitingGenerationClientTest {
+
+    private static final ZonedDateTime FROM = ZonedDateTime.parse("2025-12-04T00:00:00Z");
+    private static final ZonedDateTime TO = FROM.plusDays(1);
+
+    @Test
+    @DisplayName("Should never run more upstream calls at once than the limit")
+    void shouldRespectLimit() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        GenerationClient delegate = (from, to) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return GenerationSeries.empty();
+        };
+        ConcurrencyLimitingGenerationClient client =
+                new ConcurrencyLimitingGenerationClient(delegate, 3, Duration.ofSeconds(10));
+
+        ExecutorService pool = Executors.newFixedThreadPool(20);
+        try {
+            List<Future<GenerationSeries>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(pool.submit(() -> client.getGenerationSeries(FROM, TO)));
+            }
+            for (Future<GenerationSeries> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isNotNull();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(maxRunning.get()).isBetween(1, 3);
+        assertThat(client.getActiveCount()).isZero();
+        assertThat(client.getRejectedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject a call that gets no permit within the timeout")
+    void shouldRejectAfterPermitTimeout() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        GenerationClient delegate = (from, to) -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return GenerationSeries.empty();
+        };
+        ConcurrencyLimitingGenerationClient client =
+                new ConcurrencyLimitingGenerationClient(delegate, 1, Duration.ofMillis(50));
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<GenerationSeries> first = pool.submit(() -> client.getGenerationSeries(FROM, TO));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> client.getGenerationSeries(FROM, TO))
+                    .isInstanceOf(ExternalApiException.class)
+                    .hasMessageContaining("Too many concurrent Generation API calls");
+            assertThat(client.getRejectedCount()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isNotNull();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        ///  the rejected caller did not keep a permit
+        assertThat(client.getActiveCount()).isZero();
+        assertThat(client.getGenerationSeries(FROM, TO)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should queue reactive calls and hand the permit on when a call finishes or is cancelled")
+    void shouldQueueReactiveCalls() {
+        List<Sinks.One<GenerationSeries>> calls = new ArrayList<>();
+        GenerationClient delegate = new GenerationClient() {
+            @Override
+            public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+                throw new AssertionError("Reactive callers must not use the blocking call");
+            }
+
+            @Override
+            public Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+                Sinks.One<GenerationSeries> call = Sinks.one();
+                calls.add(call);
+                return call.asMono();
+            }
+        };
+        ConcurrencyLimitingGenerationClient client =
+                new ConcurrencyLimitingGenerationClient(delegate, 1, Duration.ofSeconds(10));
+
+        Disposable first = client.fetchGenerationSeries(FROM, TO).subscribe();
+        Disposable second = client.fetchGenerationSeries(FROM, TO).subscribe();
+        AtomicReference<GenerationSeries> third = new AtomicReference<>();
+        client.fetchGenerationSeries(FROM, TO).subscribe(third::set);
+
+        assertThat(calls).hasSize(1);
+
+        ///  the cancelled waiter is skipped, the permit of the cancelled call goes to the next one
+        second.dispose();
+        first.dispose();
+        assertThat(calls).hasSize(2);
+
+        GenerationSeries response = GenerationSeries.empty();
+        calls.get(1).tryEmitValue(response);
+
+        assertThat(third.get()).isSameAs(response);
+        assertThat(client.getActiveCount()).isZero();
+    }
+}
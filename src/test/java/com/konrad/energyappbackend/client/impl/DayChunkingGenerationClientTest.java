@@ -0,0 +1,136 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.domain.EnergySource;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("DayChunkingGenerationClient Tests")
+class DayChunkingGenerationClientTest {
+
+    private static final ZonedDateTime DAY = ZonedDateTime.parse("2025-12-04T00:00:00Z");
+    private static final int SLOTS_PER_DAY = 48;
+
+    private final List<IntervalKey> upstreamCalls = new CopyOnWriteArrayList<>();
+
+    ///  like the Generation API, also returns the slot ending at the requested start
+    private final GenerationClient upstream = (from, to) -> {
+        upstreamCalls.add(IntervalKey.of(from, to));
+        long first = from.toEpochSecond() - GenerationSeries.SLOT_SECONDS;
+        int size = (int) ((to.toEpochSecond() - first) / GenerationSeries.SLOT_SECONDS);
+        long[] slotStarts = new long[size];
+        double[][] columns = new double[EnergySource.values().length][size];
+        for (int slot = 0; slot < size; slot++) {
+            slotStarts[slot] = first + slot * GenerationSeries.SLOT_SECONDS;
+            columns[EnergySource.WIND.ordinal()][slot] = (slotStarts[slot] / GenerationSeries.SLOT_SECONDS) % 50;
+        }
+        return GenerationSeries.of(slotStarts, columns);
+    };
+
+    @Test
+    @DisplayName("Should fetch every UTC day separately and merge them without duplicate slots")
+    void shouldMergeDaysInOrder() {
+        DayChunkingGenerationClient client = new DayChunkingGenerationClient(upstream, 4);
+
+        GenerationSeries series = client.getGenerationSeries(DAY, DAY.plusDays(3));
+
+        assertThat(upstreamCalls).containsExactlyInAnyOrder(
+                IntervalKey.of(DAY, DAY.plusDays(1)),
+                IntervalKey.of(DAY.plusDays(1), DAY.plusDays(2)),
+                IntervalKey.of(DAY.plusDays(2), DAY.plusDays(3)));
+        assertThat(series.size()).isEqualTo(3 * SLOTS_PER_DAY);
+        assertThat(series.slotStart(0)).isEqualTo(DAY.toEpochSecond());
+        for (int slot = 1; slot < series.size(); slot++) {
+            assertThat(series.slotStart(slot) - series.slotStart(slot - 1)).isEqualTo(GenerationSeries.SLOT_SECONDS);
+        }
+        assertThat(client.getChunkCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should reuse cached days for overlapping requests")
+    void shouldReuseCachedDays() {
+        Clock clock = Clock.fixed(Instant.parse("2025-12-04T10:05:00Z"), ZoneOffset.UTC);
+        DayChunkingGenerationClient client = new DayChunkingGenerationClient(
+                new CachingGenerationClient(upstream, 16, clock), 4);
+
+        GenerationSeries threeDays = client.getGenerationSeries(DAY, DAY.plusDays(3));
+        GenerationSeries lastTwoDays = client.getGenerationSeries(DAY.plusDays(1), DAY.plusDays(3));
+
+        assertThat(upstreamCalls).hasSize(3);
+        assertThat(lastTwoDays).isEqualTo(threeDays.slice(SLOTS_PER_DAY, 3 * SLOTS_PER_DAY));
+    }
+
+    @Test
+    @DisplayName("Should fetch whole days and keep only the slots overlapping a partial range")
+    void shouldClipPartialRange() {
+        DayChunkingGenerationClient client = new DayChunkingGenerationClient(upstream, 4);
+
+        GenerationSeries series = client.getGenerationSeries(DAY.plusMinutes(615), DAY.plusHours(12));
+
+        assertThat(upstreamCalls).containsExactly(IntervalKey.of(DAY, DAY.plusDays(1)));
+        assertThat(series.size()).isEqualTo(4);
+        assertThat(series.slotStart(0)).isEqualTo(DAY.plusHours(10).toEpochSecond());
+        assertThat(series.slotEnd(3)).isEqualTo(DAY.plusHours(12).toEpochSecond());
+    }
+
+    @Test
+    @DisplayName("Should fetch at most the configured number of days at once")
+    void shouldLimitParallelDays() {
+        Map<Instant, CompletableFuture<GenerationSeries>> pending = new ConcurrentHashMap<>();
+        GenerationClient slowUpstream = new GenerationClient() {
+            @Override
+            public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+                return Mono.fromFuture(pending.computeIfAbsent(from.toInstant(), day -> new CompletableFuture<>()));
+            }
+        };
+        DayChunkingGenerationClient client = new DayChunkingGenerationClient(slowUpstream, 2);
+
+        StepVerifier.create(client.fetchGenerationSeries(DAY, DAY.plusDays(3)))
+                .then(() -> {
+                    assertThat(pending).hasSize(2);
+                    pending.get(DAY.toInstant()).complete(upstream.getGenerationSeries(DAY, DAY.plusDays(1)));
+                    assertThat(pending).hasSize(3);
+                    pending.forEach((day, call) -> call.complete(upstream.getGenerationSeries(
+                            day.atZone(ZoneOffset.UTC), day.atZone(ZoneOffset.UTC).plusDays(1))));
+                })
+                .assertNext(series -> assertThat(series.size()).isEqualTo(3 * SLOTS_PER_DAY))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should fail the whole request when one day fails")
+    void shouldFailWhenOneDayFails() {
+        GenerationClient failingUpstream = (from, to) -> {
+            if (from.equals(DAY.plusDays(1))) {
+                throw new ExternalApiException("Generation API unavailable");
+            }
+            return upstream.getGenerationSeries(from, to);
+        };
+        DayChunkingGenerationClient client = new DayChunkingGenerationClient(failingUpstream, 4);
+
+        assertThatThrownBy(() -> client.getGenerationSeries(DAY, DAY.plusDays(3)))
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessage("Generation API unavailable");
+    }
+}
@@ -0,0 +1,146 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.config.GenerationClientConfig;
+import com.konrad.energyappbackend.config.WebClientConfig;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import com.konrad.energyappbackend.store.GenerationHistory;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("GenerationClientImpl Tests")
+class GenerationClientImplTest {
+
+    private static final ZonedDateTime FROM = ZonedDateTime.parse("2025-12-04T00:00:00Z");
+    private static final ZonedDateTime TO = FROM.plusDays(1);
+
+    private static final String RESPONSE = """
+            {"data": [
+              {"from": "2025-12-04T00:00Z", "to": "2025-12-04T00:30Z",
+               "generationmix": [{"fuel": "wind", "perc": 40}, {"fuel": "gas", "perc": 60}]},
+              {"from": "2025-12-04T00:30Z", "to": "2025-12-04T01:00Z",
+               "generationmix": [{"fuel": "wind", "perc": 45}, {"fuel": "gas", "perc": 55}]}
+            ]}
+            """;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    ///  answers every exchange; the filters of the real WebClient still run
+    private Supplier<Mono<ClientResponse>> upstream = () -> Mono.just(ok());
+
+    private final GenerationClientImpl client = new GenerationClientImpl(
+            new WebClientConfig().generationWebClient("http://generation.test").mutate()
+                    .exchangeFunction(request -> upstream.get())
+                    .build(),
+            meterRegistry, DataSize.ofMegabytes(4));
+
+    @Test
+    @DisplayName("Should time a successful call with its status")
+    void shouldTimeSuccessfulCall() {
+        GenerationSeries series = client.getGenerationSeries(FROM, TO);
+
+        assertThat(series.size()).isEqualTo(2);
+        assertThat(requestTimer("200", "none", "SUCCESS").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should time an error response with the upstream status")
+    void shouldTimeErrorResponse() {
+        upstream = () -> Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).body("maintenance").build());
+
+        assertThatThrownBy(() -> client.getGenerationSeries(FROM, TO))
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessageContaining("503");
+
+        assertThat(requestTimer("503", "ExternalApiException", "ERROR").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should time a call the upstream never answers as an error without status")
+    void shouldTimeTimeout() {
+        upstream = Mono::never;
+
+        StepVerifier.withVirtualTime(() -> client.fetchGenerationSeries(FROM, TO))
+                .expectSubscription()
+                .thenAwait(Duration.ofSeconds(6))
+                .expectErrorMessage("Generation API did not respond within 6s")
+                .verify();
+
+        assertThat(requestTimer("NONE", "ExternalApiException", "ERROR").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should time a cancelled call as cancelled")
+    void shouldTimeCancelledCall() {
+        upstream = Mono::never;
+
+        StepVerifier.create(client.fetchGenerationSeries(FROM, TO))
+                .expectSubscription()
+                .thenCancel()
+                .verify();
+
+        assertThat(requestTimer("NONE", "none", "CANCELLED").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reuse one timer for calls with the same tags")
+    void shouldReuseRequestTimer() {
+        client.getGenerationSeries(FROM, TO);
+        client.getGenerationSeries(FROM, TO);
+
+        assertThat(meterRegistry.find(GenerationClientImpl.REQUEST_TIMER).timers()).hasSize(1);
+        assertThat(requestTimer("200", "none", "SUCCESS").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should count cache misses and hits of the forecast client")
+    void shouldCountCacheRequests() {
+        Clock clock = Clock.fixed(Instant.parse("2025-12-04T08:10:00Z"), ZoneOffset.UTC);
+        GenerationClient forecastClient = new GenerationClientConfig().generationClient(
+                new HistoryGenerationClient(client, GenerationHistory.disabled(), clock), clock, meterRegistry, 64, 4);
+
+        forecastClient.getGenerationSeries(FROM, TO);
+        forecastClient.getGenerationSeries(FROM, TO);
+
+        assertThat(meterRegistry.get("generation.cache.requests").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("generation.cache.requests").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(requestTimer("200", "none", "SUCCESS").count()).isEqualTo(1);
+    }
+
+    private Timer requestTimer(String status, String exception, String outcome) {
+        return meterRegistry.get(GenerationClientImpl.REQUEST_TIMER)
+                .tag("status", status)
+                .tag("exception", exception)
+                .tag("outcome", outcome)
+                .timer();
+    }
+
+    private static ClientResponse ok() {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(RESPONSE)
+                .build();
+    }
+}
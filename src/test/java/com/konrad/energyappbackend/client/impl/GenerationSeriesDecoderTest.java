@@ -0,0 +1,178 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.konrad.energyappbackend.client.dto.GenerationResponse;
+import com.konrad.energyappbackend.domain.EnergySource;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("GenerationSeriesDecoder Tests")
+class GenerationSeriesDecoderTest {
+
+    private static final String RESPONSE = """
+            {"data": [
+              {"from": "2025-12-03T00:30Z", "to": "2025-12-03T01:00Z",
+               "generationmix": [
+                 {"fuel": "biomass", "perc": 5.1}, {"fuel": "gas", "perc": 30},
+                 {"fuel": "wind", "perc": 40.4}, {"fuel": "Solar", "perc": 0}]},
+              {"from": "2025-12-03T00:00Z", "to": "2025-12-03T00:30Z",
+               "generationmix": [
+                 {"perc": 6.2, "fuel": "biomass"}, {"fuel": "unknown", "perc": 99},
+                 {"fuel": "nuclear", "perc": 15.3}, {"fuel": "coal", "perc": 1.5}],
+               "extra": {"nested": [1, 2, 3]}}
+            ]}
+            """;
+
+    @Test
+    @DisplayName("Should decode the same series as the record-based mapping")
+    void shouldMatchRecordMapping() throws IOException {
+        GenerationResponse response = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .readValue(RESPONSE, GenerationResponse.class);
+
+        GenerationSeries series = decode(RESPONSE);
+
+        assertThat(series).isEqualTo(GenerationSeries.from(response.data()));
+    }
+
+    @Test
+    @DisplayName("Should sort slots, skip unknown fields and keep unknown fuels under OTHER")
+    void shouldSortAndSkipUnknowns() throws IOException {
+        GenerationSeries series = decode(RESPONSE);
+
+        assertThat(series.size()).isEqualTo(2);
+        assertThat(series.slotStart(0)).isEqualTo(OffsetDateTime.parse("2025-12-03T00:00Z").toEpochSecond());
+        assertThat(series.percentage(EnergySource.BIOMASS, 0)).isEqualTo(6.2);
+        assertThat(series.percentage(EnergySource.NUCLEAR, 0)).isEqualTo(15.3);
+        assertThat(series.percentage(EnergySource.WIND, 1)).isEqualTo(40.4);
+        assertThat(series.percentage(EnergySource.OTHER, 0)).isEqualTo(99.0);
+        assertThat(series.cleanShare(0)).isCloseTo(21.5, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should grow beyond the expected number of slots")
+    void shouldGrowBeyondExpectedSlots() throws IOException {
+        StringBuilder json = new StringBuilder("{\"data\": [");
+        for (int slot = 0; slot < 100; slot++) {
+            json.append(slot == 0 ? "" : ",")
+                    .append("{\"from\": \"").append(OffsetDateTime.parse("2025-12-03T00:00Z").plusMinutes(30L * slot))
+                    .append("\", \"generationmix\": [{\"fuel\": \"wind\", \"perc\": ").append(slot % 100).append("}]}");
+        }
+        json.append("]}");
+
+        GenerationSeries series = GenerationSeriesDecoder.decode(
+                new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)), 1);
+
+        assertThat(series.size()).isEqualTo(100);
+        assertThat(series.percentage(EnergySource.WIND, 99)).isEqualTo(99.0);
+    }
+
+    @Test
+    @DisplayName("Should return an empty series for missing or empty data")
+    void shouldHandleEmptyData() throws IOException {
+        assertThat(decode("{\"data\": []}").isEmpty()).isTrue();
+        assertThat(decode("{\"data\": null}").isEmpty()).isTrue();
+        assertThat(decode("{}").isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject an interval without a start time")
+    void shouldRejectIntervalWithoutFrom() {
+        assertThatThrownBy(() -> decode("{\"data\": [{\"to\": \"2025-12-03T00:30Z\"}]}"))
+                .isInstanceOf(ExternalApiException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject an interval with an invalid start time as an upstream error")
+    void shouldRejectInvalidFrom() {
+        assertThatThrownBy(() -> decode("{\"data\": [{\"from\": \"yesterday\"}]}"))
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessageContaining("yesterday");
+    }
+
+    @Test
+    @DisplayName("Should decode a body split over several buffers")
+    void shouldJoinBuffers() {
+        byte[] bytes = RESPONSE.getBytes(StandardCharsets.UTF_8);
+        int half = bytes.length / 2;
+
+        StepVerifier.create(decode(Flux.just(
+                        buffer(Arrays.copyOfRange(bytes, 0, half)),
+                        buffer(Arrays.copyOfRange(bytes, half, bytes.length))), bytes.length))
+                .assertNext(series -> assertThat(series.size()).isEqualTo(2))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should reject a body larger than the limit")
+    void shouldRejectOversizedBody() {
+        byte[] bytes = RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+        StepVerifier.create(decode(Flux.just(buffer(bytes)), bytes.length - 1))
+                .expectError(ExternalApiException.class)
+                .verify();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2025-02-30T00:00Z", "2023-02-29T00:00Z", "2025-04-31T23:30:00Z", "2025-13-01T00:00Z"})
+    @DisplayName("Should reject an impossible date instead of rolling it over into the next month")
+    void shouldRejectImpossibleDate(String timestamp) {
+        char[] chars = timestamp.toCharArray();
+
+        assertThatThrownBy(() -> GenerationSeriesDecoder.parseEpochSecond(chars, 0, chars.length))
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessageContaining(timestamp);
+        assertThatThrownBy(() -> decode("{\"data\": [{\"from\": \"" + timestamp + "\"}]}"))
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessageContaining("invalid time");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2025-12-03T00:00Z",
+            "2025-12-03T23:30:00Z",
+            "2024-02-29T12:00:59.123Z",
+            "1999-12-31T23:59+01:00",
+            "2025-06-01T00:30:00-05:30"
+    })
+    @DisplayName("Should parse timestamps like OffsetDateTime")
+    void shouldParseTimestampsLikeOffsetDateTime(String timestamp) {
+        char[] chars = ("  " + timestamp + "  ").toCharArray();
+
+        assertThat(GenerationSeriesDecoder.parseEpochSecond(chars, 2, timestamp.length()))
+                .isEqualTo(OffsetDateTime.parse(timestamp).toEpochSecond());
+    }
+
+    private static Mono<GenerationSeries> decode(Flux<DataBuffer> body, int maxBytes) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        return GenerationSeriesDecoder.decode(body, 4, maxBytes,
+                registry.summary("payload"), registry.timer("decode"));
+    }
+
+    private static DataBuffer buffer(byte[] bytes) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(bytes);
+    }
+
+    private static GenerationSeries decode(String json) throws IOException {
+        return GenerationSeriesDecoder.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), 4);
+    }
+}
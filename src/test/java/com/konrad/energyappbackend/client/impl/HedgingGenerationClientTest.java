@@ -0,0 +1,205 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("HedgingGenerationClient Tests")
+class HedgingGenerationClientTest {
+
+    private static final ZonedDateTime FROM = ZonedDateTime.parse("2025-12-04T00:00:00Z");
+    private static final ZonedDateTime TO = FROM.plusDays(1);
+    private static final Duration MIN_DELAY = Duration.ofMillis(50);
+    private static final Duration MAX_DELAY = Duration.ofSeconds(1);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Supplier<Mono<GenerationSeries>>> responses = new ArrayList<>();
+    private final GenerationClient delegate = new GenerationClient() {
+        @Override
+        public GenerationSeries getGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+            return fetchGenerationSeries(from, to).block();
+        }
+
+        @Override
+        public Mono<GenerationSeries> fetchGenerationSeries(ZonedDateTime from, ZonedDateTime to) {
+            return responses.remove(0).get();
+        }
+    };
+
+    @Test
+    @DisplayName("Should use the hedge and cancel the first call when the first call is slow")
+    void shouldHedgeSlowCall() {
+        // Given
+        HedgingGenerationClient client = client(100);
+        AtomicBoolean firstCancelled = new AtomicBoolean();
+        GenerationSeries hedged = GenerationSeries.empty();
+        responses.add(() -> Mono.<GenerationSeries>never().doOnCancel(() -> firstCancelled.set(true)));
+        responses.add(() -> Mono.just(hedged));
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> client.fetchGenerationSeries(FROM, TO))
+                .expectSubscription()
+                .expectNoEvent(MAX_DELAY.minusMillis(1))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext(hedged)
+                .verifyComplete();
+        assertThat(firstCancelled).isTrue();
+        assertThat(client.getHedgeCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not hedge a call that answers before the delay")
+    void shouldNotHedgeFastCall() {
+        // Given
+        HedgingGenerationClient client = client(100);
+        responses.add(() -> Mono.delay(Duration.ofMillis(200)).thenReturn(GenerationSeries.empty()));
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> client.fetchGenerationSeries(FROM, TO))
+                .thenAwait(Duration.ofMillis(200))
+                .expectNext(GenerationSeries.empty())
+                .verifyComplete();
+        assertThat(responses).isEmpty();
+        assertThat(client.getHedgeCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should return a failure of the first call without waiting for a hedge")
+    void shouldFailFastWithoutHedge() {
+        // Given
+        HedgingGenerationClient client = client(100);
+        responses.add(() -> Mono.error(new ExternalApiException("Carbon Intensity API is unavailable")));
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> client.fetchGenerationSeries(FROM, TO))
+                .expectErrorMessage("Carbon Intensity API is unavailable")
+                .verify();
+        assertThat(client.getHedgeCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep a hedge in flight when the first call fails")
+    void shouldUseHedgeWhenFirstCallFails() {
+        // Given
+        HedgingGenerationClient client = client(100);
+        GenerationSeries hedged = GenerationSeries.empty();
+        responses.add(() -> Mono.delay(MAX_DELAY.plusMillis(100))
+                .then(Mono.error(new ExternalApiException("Carbon Intensity API error 502"))));
+        responses.add(() -> Mono.delay(Duration.ofMillis(500)).thenReturn(hedged));
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> client.fetchGenerationSeries(FROM, TO))
+                .expectSubscription()
+                .thenAwait(MAX_DELAY.plusMillis(100))
+                .expectNoEvent(Duration.ofMillis(399))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext(hedged)
+                .verifyComplete();
+        assertThat(client.getHedgeCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should return the last failure when both the first call and the hedge fail")
+    void shouldFailWhenFirstCallAndHedgeFail() {
+        // Given
+        HedgingGenerationClient client = client(100);
+        responses.add(() -> Mono.delay(MAX_DELAY.plusMillis(100))
+                .then(Mono.error(new ExternalApiException("Carbon Intensity API error 502"))));
+        responses.add(() -> Mono.delay(Duration.ofMillis(500))
+                .then(Mono.error(new ExternalApiException("Carbon Intensity API error 503"))));
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> client.fetchGenerationSeries(FROM, TO))
+                .thenAwait(MAX_DELAY.plusMillis(500))
+                .expectErrorMessage("Carbon Intensity API error 503")
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should make a hedge wait for a permit of the concurrency limit")
+    void shouldCountHedgesAgainstConcurrencyLimit() {
+        // Given
+        ConcurrencyLimitingGenerationClient limited =
+                new ConcurrencyLimitingGenerationClient(delegate, 1, Duration.ofSeconds(5));
+        HedgingGenerationClient client = new HedgingGenerationClient(
+                limited, 0.95, MIN_DELAY, MAX_DELAY, 100, meterRegistry);
+        responses.add(Mono::never);
+        responses.add(() -> Mono.just(GenerationSeries.empty()));
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> client.fetchGenerationSeries(FROM, TO))
+                .expectSubscription()
+                .thenAwait(MAX_DELAY.plusMillis(100))
+                .then(() -> {
+                    assertThat(client.getHedgeCount()).isEqualTo(1);
+                    assertThat(limited.getActiveCount()).isEqualTo(1);
+                    assertThat(responses).hasSize(1);
+                })
+                .thenCancel()
+                .verify();
+        assertThat(limited.getActiveCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should wait for the first call once the hedge budget is used up")
+    void shouldRespectHedgeBudget() {
+        // Given
+        HedgingGenerationClient client = client(10);
+        for (int i = 0; i < 10; i++) {
+            responses.add(() -> Mono.delay(MAX_DELAY.multipliedBy(2)).thenReturn(GenerationSeries.empty()));
+        }
+        responses.add(() -> Mono.just(GenerationSeries.empty()));
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            StepVerifier.withVirtualTime(() -> client.fetchGenerationSeries(FROM, TO))
+                    .thenAwait(MAX_DELAY.multipliedBy(2))
+                    .expectNext(GenerationSeries.empty())
+                    .verifyComplete();
+        }
+
+        // Then
+        assertThat(client.getHedgeCount()).isEqualTo(1);
+        assertThat(responses).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should derive the hedge delay from the measured latency percentile")
+    void shouldAdaptDelayToLatency() {
+        // Given
+        HedgingGenerationClient client = client(5);
+        assertThat(client.hedgeDelay()).isEqualTo(MAX_DELAY);
+
+        // When
+        for (int i = 0; i < HedgingGenerationClient.MIN_SAMPLES; i++) {
+            meterRegistry.timer("generation.upstream.latency").record(200, TimeUnit.MILLISECONDS);
+        }
+
+        // Then
+        assertThat(client.hedgeDelay()).isBetween(Duration.ofMillis(190), Duration.ofMillis(210));
+        for (int i = 0; i < 5; i++) {
+            meterRegistry.timer("generation.upstream.latency").record(10, TimeUnit.SECONDS);
+        }
+        assertThat(client.hedgeDelay()).isEqualTo(MAX_DELAY);
+    }
+
+    private HedgingGenerationClient client(double budgetPercent) {
+        return new HedgingGenerationClient(delegate, 0.95, MIN_DELAY, MAX_DELAY, budgetPercent, meterRegistry);
+    }
+}
@@ -0,0 +1,111 @@
+package com.konrad.energyappbackend.client.impl;
+
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.client.dto.FuelMix;
+import com.konrad.energyappbackend.client.dto.GenerationData;
+import com.konrad.energyappbackend.domain.EnergySource;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Record/Replay GenerationClient Tests")
+class ReplayGenerationClientTest {
+
+    private static final ZonedDateTime FROM = ZonedDateTime.parse("2025-12-04T00:00:00Z");
+    private static final ZonedDateTime TO = FROM.plusHours(1);
+
+    private static final GenerationSeries SERIES = GenerationSeries.from(List.of(
+            new GenerationData("2025-12-04T00:00Z", "2025-12-04T00:30Z", List.of(
+                    new FuelMix("wind", 40.0), new FuelMix("gas", 35.5), new FuelMix("nuclear", 24.5))),
+            new GenerationData("2025-12-04T00:30Z", "2025-12-04T01:00Z", List.of(
+                    new FuelMix("wind", 42.0), new FuelMix("gas", 30.0), new FuelMix("solar", 28.0)))));
+
+    @TempDir
+    Path recordings;
+
+    @Test
+    @DisplayName("Should replay a recorded response without calling the upstream")
+    void shouldReplayRecordedResponse() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        GenerationClient upstream = (from, to) -> {
+            upstreamCalls.incrementAndGet();
+            return SERIES;
+        };
+        new RecordingGenerationClient(upstream, recordings).getGenerationSeries(FROM, TO);
+
+        ReplayGenerationClient replay = new ReplayGenerationClient(recordings);
+        GenerationSeries first = replay.getGenerationSeries(FROM, TO);
+        GenerationSeries second = replay.getGenerationSeries(FROM.withZoneSameInstant(ZoneId.of("Europe/Warsaw")), TO);
+
+        assertThat(first).isEqualTo(SERIES);
+        assertThat(first.percentage(EnergySource.SOLAR, 1)).isEqualTo(28.0);
+        assertThat(second).isEqualTo(SERIES);
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(replay.mappedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should record reactive responses and replay them reactively")
+    void shouldRecordAndReplayReactively() {
+        GenerationClient upstream = (from, to) -> SERIES;
+        StepVerifier.create(new RecordingGenerationClient(upstream, recordings).fetchGenerationSeries(FROM, TO))
+                .expectNext(SERIES)
+                .verifyComplete();
+
+        StepVerifier.create(new ReplayGenerationClient(recordings).fetchGenerationSeries(FROM, TO))
+                .expectNext(SERIES)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should fail like an unavailable upstream when nothing was recorded")
+    void shouldFailWithoutRecording() {
+        ReplayGenerationClient replay = new ReplayGenerationClient(recordings);
+
+        assertThatThrownBy(() -> replay.getGenerationSeries(FROM, TO))
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessageContaining("No recorded Generation API response");
+        assertThat(replay.mappedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject a file that is not a recording")
+    void shouldRejectInvalidRecording() throws Exception {
+        Files.write(recordings.resolve(GenerationSeriesFile.fileName(IntervalKey.of(FROM, TO))), new byte[] {1, 2, 3, 4});
+
+        assertThatThrownBy(() -> new ReplayGenerationClient(recordings).getGenerationSeries(FROM, TO))
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessageContaining("Invalid recording");
+    }
+
+    @Test
+    @DisplayName("Should pick up a recording fixed on disk after a failed replay")
+    void shouldNotCacheFailures() throws Exception {
+        ReplayGenerationClient replay = new ReplayGenerationClient(recordings);
+        Path file = recordings.resolve(GenerationSeriesFile.fileName(IntervalKey.of(FROM, TO)));
+
+        assertThatThrownBy(() -> replay.getGenerationSeries(FROM, TO)).isInstanceOf(ExternalApiException.class);
+        Files.write(file, new byte[] {1, 2, 3, 4});
+        assertThatThrownBy(() -> replay.getGenerationSeries(FROM, TO))
+                .isInstanceOf(ExternalApiException.class)
+                .hasMessageContaining("Invalid recording");
+        assertThat(replay.mappedCount()).isZero();
+
+        new RecordingGenerationClient((from, to) -> SERIES, recordings).getGenerationSeries(FROM, TO);
+
+        assertThat(replay.getGenerationSeries(FROM, TO)).isEqualTo(SERIES);
+        assertThat(replay.mappedCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,53 @@
+package com.konrad.energyappbackend.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("BestWindowIndex Domain Tests")
+class BestWindowIndexTest {
+
+    @Test
+    @DisplayName("Should index the same window as a direct search for every length")
+    void shouldMatchDirectSearchForEveryLength() {
+        double[] cleanShares = new Random(7).doubles(144, 0.0, 100.0).toArray();
+        CleanShareWindows windows = new CleanShareWindows(CleanShareWindowsTest.seriesOf(cleanShares));
+
+        BestWindowIndex index = new BestWindowIndex(windows, 48, 144);
+
+        assertThat(index.maxLength()).isEqualTo(96);
+        for (int length = 1; length <= 96; length++) {
+            assertThat(index.bestStart(length))
+                    .as("window of %d slots", length)
+                    .isEqualTo(windows.bestStart(48, 144, length));
+        }
+    }
+
+    @Test
+    @DisplayName("Should return -1 for lengths outside the indexed range")
+    void shouldReturnMinusOneOutsideRange() {
+        CleanShareWindows windows = new CleanShareWindows(
+                CleanShareWindowsTest.seriesOf(new double[]{10, 20, 30, 40}));
+
+        BestWindowIndex index = new BestWindowIndex(windows, 0, 4);
+
+        assertThat(index.bestStart(0)).isEqualTo(-1);
+        assertThat(index.bestStart(5)).isEqualTo(-1);
+        assertThat(index.bestStart(4)).isZero();
+        assertThat(index.bestStart(1)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should build an empty index for an empty range")
+    void shouldHandleEmptyRange() {
+        CleanShareWindows windows = new CleanShareWindows(GenerationSeries.empty());
+
+        BestWindowIndex index = new BestWindowIndex(windows, 0, 0);
+
+        assertThat(index.maxLength()).isZero();
+        assertThat(index.bestStart(1)).isEqualTo(-1);
+    }
+}
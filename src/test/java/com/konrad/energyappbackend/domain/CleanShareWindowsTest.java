@@ -0,0 +1,81 @@
+package com.konrad.energyappbackend.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CleanShareWindows Domain Tests")
+class CleanShareWindowsTest {
+
+    @Test
+    @DisplayName("Should match a brute-force search for every window length")
+    void shouldMatchBruteForceForEveryLength() {
+        double[] cleanShares = new Random(42).doubles(96, 0.0, 100.0).toArray();
+        CleanShareWindows windows = new CleanShareWindows(seriesOf(cleanShares));
+
+        for (int length = 1; length <= cleanShares.length; length++) {
+            int expected = bruteForceBestStart(cleanShares, 10, 90, length);
+
+            assertThat(windows.bestStart(10, 90, length))
+                    .as("window of %d slots", length)
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Should prefer the earliest of equally clean windows")
+    void shouldPreferEarliestWindowOnTies() {
+        CleanShareWindows windows = new CleanShareWindows(seriesOf(new double[]{10, 50, 50, 10, 50, 50}));
+
+        assertThat(windows.bestStart(0, 6, 2)).isEqualTo(1);
+        assertThat(windows.average(1, 2)).isEqualTo(50.0);
+    }
+
+    @Test
+    @DisplayName("Should return -1 when no window of the requested length fits")
+    void shouldReturnMinusOneWhenWindowDoesNotFit() {
+        CleanShareWindows windows = new CleanShareWindows(seriesOf(new double[]{10, 20, 30}));
+
+        assertThat(windows.bestStart(0, 3, 4)).isEqualTo(-1);
+        assertThat(windows.bestStart(2, 3, 2)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should reject empty windows")
+    void shouldRejectEmptyWindows() {
+        CleanShareWindows windows = new CleanShareWindows(seriesOf(new double[]{10, 20}));
+
+        assertThatThrownBy(() -> windows.bestStart(0, 2, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static int bruteForceBestStart(double[] cleanShares, int from, int to, int length) {
+        int best = -1;
+        double bestSum = Double.NEGATIVE_INFINITY;
+        for (int start = from; start <= to - length; start++) {
+            double sum = 0.0;
+            for (int slot = start; slot < start + length; slot++) {
+                sum += cleanShares[slot];
+            }
+            if (sum > bestSum + 1e-9) {
+                bestSum = sum;
+                best = start;
+            }
+        }
+        return best;
+    }
+
+    static GenerationSeries seriesOf(double[] cleanShares) {
+        long[] slotStarts = new long[cleanShares.length];
+        double[][] columns = new double[EnergySource.values().length][cleanShares.length];
+        for (int slot = 0; slot < cleanShares.length; slot++) {
+            slotStarts[slot] = slot * GenerationSeries.SLOT_SECONDS;
+            columns[EnergySource.WIND.ordinal()][slot] = cleanShares[slot];
+            columns[EnergySource.GAS.ordinal()][slot] = 100.0 - cleanShares[slot];
+        }
+        return GenerationSeries.of(slotStarts, columns);
+    }
+}
@@ -1,5 +1,6 @@
 package com.konrad.energyappbackend.domain;
 
+import com.konrad.energyappbackend.client.dto.FuelMix;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -8,6 +9,7 @@ import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.*;
@@ -45,9 +47,34 @@ class EnergySourceTest {
         assertThat(EnergySource.fromFuelName(input)).isEqualTo(expected);
     }
 
+    @ParameterizedTest
+    @CsvSource({
+            "' wind', WIND",
+            "'gas ', GAS",
+            "'  Hydro  ', HYDRO"
+    })
+    @DisplayName("Should ignore surrounding whitespace in fuel names")
+    void shouldIgnoreSurroundingWhitespace(String input, EnergySource expected) {
+        assertThat(EnergySource.fromFuelName(input)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "'\"biomass\"', BIOMASS",
+            "'\"  Hydro \"', HYDRO",
+            "'\"windy\"', ",
+            "'\"\"', "
+    })
+    @DisplayName("Should parse fuel name from a character range")
+    void shouldParseFuelNameFromCharacterRange(String quoted, EnergySource expected) {
+        char[] chars = quoted.toCharArray();
+
+        assertThat(EnergySource.fromFuelName(chars, 1, chars.length - 2)).isEqualTo(expected);
+    }
+
     @ParameterizedTest
     @NullAndEmptySource
-    @ValueSource(strings = {"  ", "unknown", "invalid"})
+    @ValueSource(strings = {"  ", "unknown", "invalid", "win", "windy", "nuclear power"})
     @DisplayName("Should return null for invalid fuel names")
     void shouldReturnNullForInvalidFuelNames(String input) {
         assertThat(EnergySource.fromFuelName(input)).isNull();
@@ -82,6 +109,39 @@ class EnergySourceTest {
         assertThat(cleanPercentage).isEqualTo(60.0); // biomass + nuclear + wind
     }
 
+    @Test
+    @DisplayName("Should calculate clean percentage from an API fuel list")
+    void shouldCalculateCleanPercentageFromFuelList() {
+        List<FuelMix> generationMix = List.of(
+                new FuelMix("biomass", 10.0),
+                new FuelMix("Wind", 30.0),
+                new FuelMix("gas", 45.0),
+                new FuelMix("unknown", 15.0)
+        );
+
+        assertThat(EnergySource.calculateCleanPercentage(generationMix)).isEqualTo(40.0);
+    }
+
+    @Test
+    @DisplayName("Should calculate clean percentage from percentages indexed by ordinal")
+    void shouldCalculateCleanPercentageFromOrdinalArray() {
+        double[] percentages = new double[EnergySource.values().length];
+        percentages[EnergySource.NUCLEAR.ordinal()] = 20.0;
+        percentages[EnergySource.SOLAR.ordinal()] = 12.5;
+        percentages[EnergySource.COAL.ordinal()] = 67.5;
+
+        assertThat(EnergySource.calculateCleanPercentage(percentages)).isEqualTo(32.5);
+    }
+
+    @Test
+    @DisplayName("Should reject clean percentage above 100")
+    void shouldRejectCleanPercentageAbove100() {
+        List<FuelMix> generationMix = List.of(new FuelMix("wind", 70.0), new FuelMix("solar", 40.0));
+
+        assertThatThrownBy(() -> EnergySource.calculateCleanPercentage(generationMix))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
 //    @Test
 //    @DisplayName("Should return 0 for null fuel mix")
 //    void shouldReturnZeroForNullFuelMix() {
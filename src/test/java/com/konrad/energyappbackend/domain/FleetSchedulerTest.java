@@ -0,0 +1,114 @@
+package com.konrad.energyappbackend.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("FleetScheduler Domain Tests")
+class FleetSchedulerTest {
+
+    @Test
+    @DisplayName("Should charge a single vehicle in the cleanest slots of its availability")
+    void shouldUseCleanestSlots() {
+        GenerationSeries series = CleanShareWindowsTest.seriesOf(new double[]{10, 90, 40, 80, 20});
+        FleetScheduler scheduler = new FleetScheduler(series, 0, 5, 100.0);
+
+        FleetScheduler.Schedule schedule = scheduler.schedule(List.of(
+                new FleetScheduler.Demand("ev-1", 10.0, 10.0, 0, 5)));
+
+        FleetScheduler.Assignment assignment = schedule.assignments().get(0);
+        assertThat(assignment.allocations()).extracting(FleetScheduler.Allocation::slot).containsExactly(1, 3);
+        assertThat(assignment.complete()).isTrue();
+        assertThat(assignment.cleanShare()).isCloseTo(85.0, within(1e-9));
+        assertThat(schedule.cleanShare()).isCloseTo(85.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should never exceed the site limit in any slot")
+    void shouldRespectSiteLimit() {
+        GenerationSeries series = CleanShareWindowsTest.seriesOf(new double[]{10, 90, 40, 80});
+        FleetScheduler scheduler = new FleetScheduler(series, 0, 4, 20.0);
+
+        FleetScheduler.Schedule schedule = scheduler.schedule(List.of(
+                new FleetScheduler.Demand("ev-1", 10.0, 20.0, 0, 4),
+                new FleetScheduler.Demand("ev-2", 10.0, 20.0, 0, 4),
+                new FleetScheduler.Demand("ev-3", 10.0, 20.0, 0, 4)));
+
+        double[] used = new double[4];
+        for (FleetScheduler.Assignment assignment : schedule.assignments()) {
+            for (FleetScheduler.Allocation allocation : assignment.allocations()) {
+                used[allocation.slot()] += allocation.energyKwh();
+            }
+        }
+        for (double kwh : used) {
+            assertThat(kwh).isLessThanOrEqualTo(10.0 + 1e-9);
+        }
+        assertThat(schedule.deliveredKwh()).isCloseTo(30.0, within(1e-9));
+        assertThat(schedule.assignments()).allMatch(FleetScheduler.Assignment::complete);
+    }
+
+    @Test
+    @DisplayName("Should serve vehicles with less slack first")
+    void shouldServeTightVehiclesFirst() {
+        GenerationSeries series = CleanShareWindowsTest.seriesOf(new double[]{90, 50, 40});
+        FleetScheduler scheduler = new FleetScheduler(series, 0, 3, 10.0);
+
+        /// the flexible vehicle is listed first but must leave slot 0 to the one that can only use it
+        FleetScheduler.Schedule schedule = scheduler.schedule(List.of(
+                new FleetScheduler.Demand("flexible", 5.0, 10.0, 0, 3),
+                new FleetScheduler.Demand("tight", 5.0, 10.0, 0, 1)));
+
+        assertThat(schedule.assignments()).extracting(FleetScheduler.Assignment::vehicleId)
+                .containsExactly("flexible", "tight");
+        assertThat(schedule.assignments().get(1).allocations())
+                .containsExactly(new FleetScheduler.Allocation(0, 5.0));
+        assertThat(schedule.assignments().get(0).allocations())
+                .containsExactly(new FleetScheduler.Allocation(1, 5.0));
+    }
+
+    @Test
+    @DisplayName("Should report a vehicle as incomplete if its availability is too short")
+    void shouldReportIncompleteVehicle() {
+        GenerationSeries series = CleanShareWindowsTest.seriesOf(new double[]{50, 50, 50, 50});
+        FleetScheduler scheduler = new FleetScheduler(series, 0, 4, 100.0);
+
+        FleetScheduler.Assignment assignment = scheduler.schedule(List.of(
+                new FleetScheduler.Demand("ev-1", 20.0, 10.0, 1, 3))).assignments().get(0);
+
+        assertThat(assignment.complete()).isFalse();
+        assertThat(assignment.deliveredKwh()).isCloseTo(10.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should schedule a 10k-vehicle fleet without exceeding the site limit in any slot")
+    void shouldScheduleLargeFleetWithinSiteLimit() {
+        Random random = new Random(42);
+        GenerationSeries series = CleanShareWindowsTest.seriesOf(random.doubles(96, 0.0, 100.0).toArray());
+
+        List<FleetScheduler.Demand> demands = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            int from = random.nextInt(80);
+            demands.add(new FleetScheduler.Demand("ev-" + i,
+                    5 + random.nextInt(60), 7 + random.nextInt(15), from, from + 4 + random.nextInt(40)));
+        }
+        FleetScheduler scheduler = new FleetScheduler(series, 0, 96, 40_000.0);
+
+        FleetScheduler.Schedule schedule = scheduler.schedule(demands);
+
+        assertThat(schedule.assignments()).hasSize(10_000);
+        double[] slotKwh = new double[96];
+        for (FleetScheduler.Assignment assignment : schedule.assignments()) {
+            for (FleetScheduler.Allocation allocation : assignment.allocations()) {
+                slotKwh[allocation.slot()] += allocation.energyKwh();
+            }
+        }
+        /// 40 MW for half an hour
+        assertThat(Arrays.stream(slotKwh).max().orElseThrow()).isLessThanOrEqualTo(20_000.0 + 1e-6);
+    }
+}
@@ -0,0 +1,141 @@
+package com.konrad.energyappbackend.domain;
+
+import com.konrad.energyappbackend.client.dto.FuelMix;
+import com.konrad.energyappbackend.client.dto.GenerationData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("GenerationSeries Domain Tests")
+class GenerationSeriesTest {
+
+    private static final long DAY_START = Instant.parse("2025-12-04T00:00:00Z").getEpochSecond();
+
+    @Test
+    @DisplayName("Should store one column per energy source and sort slots by start")
+    void shouldConvertIntervalsToColumns() {
+        GenerationSeries series = GenerationSeries.from(List.of(
+                interval("2025-12-04T00:30Z", "2025-12-04T01:00Z", 40.0, 60.0),
+                interval("2025-12-04T00:00Z", "2025-12-04T00:30Z", 30.0, 70.0)
+        ));
+
+        assertThat(series.size()).isEqualTo(2);
+        assertThat(series.slotStart(0)).isEqualTo(DAY_START);
+        assertThat(series.slotEnd(1)).isEqualTo(DAY_START + 2 * GenerationSeries.SLOT_SECONDS);
+        assertThat(series.percentage(EnergySource.WIND, 0)).isEqualTo(30.0);
+        assertThat(series.percentage(EnergySource.GAS, 1)).isEqualTo(60.0);
+        assertThat(series.percentage(EnergySource.SOLAR, 0)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should precompute clean share per slot without counting unknown fuels")
+    void shouldPrecomputeCleanShare() {
+        GenerationSeries series = GenerationSeries.from(List.of(new GenerationData(
+                "2025-12-04T00:00Z",
+                "2025-12-04T00:30Z",
+                List.of(
+                        new FuelMix("wind", 30.0),
+                        new FuelMix("nuclear", 15.0),
+                        new FuelMix("gas", 50.0),
+                        new FuelMix("unknown", 5.0)
+                ))));
+
+        assertThat(series.cleanShare(0)).isEqualTo(45.0);
+    }
+
+    @Test
+    @DisplayName("Should keep unknown fuels under OTHER")
+    void shouldBucketUnknownFuelsAsOther() {
+        GenerationSeries series = GenerationSeries.from(List.of(new GenerationData(
+                "2025-12-04T00:00Z",
+                "2025-12-04T00:30Z",
+                List.of(
+                        new FuelMix("wind", 40.0),
+                        new FuelMix("other", 3.0),
+                        new FuelMix("pumped-storage", 2.0),
+                        new FuelMix("gas", 55.0)
+                ))));
+
+        assertThat(series.percentage(EnergySource.OTHER, 0)).isEqualTo(5.0);
+        assertThat(series.cleanShare(0)).isEqualTo(40.0);
+    }
+
+    @Test
+    @DisplayName("Should sum a source over a range of slots")
+    void shouldSumRange() {
+        GenerationSeries series = GenerationSeries.from(List.of(
+                interval("2025-12-04T00:00Z", "2025-12-04T00:30Z", 30.0, 70.0),
+                interval("2025-12-04T00:30Z", "2025-12-04T01:00Z", 40.0, 60.0),
+                interval("2025-12-04T01:00Z", "2025-12-04T01:30Z", 50.0, 50.0)
+        ));
+
+        assertThat(series.sum(EnergySource.WIND, 0, 3)).isEqualTo(120.0);
+        assertThat(series.sum(EnergySource.WIND, 1, 2)).isEqualTo(40.0);
+        assertThat(series.sum(EnergySource.WIND, 2, 2)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should find the first slot starting at or after a given time")
+    void shouldFindSlotIndex() {
+        GenerationSeries series = GenerationSeries.from(List.of(
+                interval("2025-12-04T00:00Z", "2025-12-04T00:30Z", 30.0, 70.0),
+                interval("2025-12-04T00:30Z", "2025-12-04T01:00Z", 40.0, 60.0)
+        ));
+
+        assertThat(series.indexOf(DAY_START - 1)).isZero();
+        assertThat(series.indexOf(DAY_START)).isZero();
+        assertThat(series.indexOf(DAY_START + 1)).isEqualTo(1);
+        assertThat(series.indexOf(DAY_START + GenerationSeries.SLOT_SECONDS)).isEqualTo(1);
+        assertThat(series.indexOf(DAY_START + 3600)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should slice a range of slots and join consecutive series back together")
+    void shouldSliceAndConcat() {
+        GenerationSeries series = GenerationSeries.from(List.of(
+                interval("2025-12-04T00:00Z", "2025-12-04T00:30Z", 30.0, 70.0),
+                interval("2025-12-04T00:30Z", "2025-12-04T01:00Z", 40.0, 60.0),
+                interval("2025-12-04T01:00Z", "2025-12-04T01:30Z", 50.0, 50.0)
+        ));
+
+        GenerationSeries head = series.slice(0, 1);
+        GenerationSeries tail = series.slice(1, 3);
+
+        assertThat(series.slice(0, 3)).isSameAs(series);
+        assertThat(tail.size()).isEqualTo(2);
+        assertThat(tail.slotStart(0)).isEqualTo(DAY_START + GenerationSeries.SLOT_SECONDS);
+        assertThat(tail.cleanShare(1)).isEqualTo(50.0);
+        assertThat(GenerationSeries.concat(List.of(head, GenerationSeries.empty(), tail))).isEqualTo(series);
+    }
+
+    @Test
+    @DisplayName("Should reject columns that do not match the slots")
+    void shouldRejectMismatchedColumns() {
+        double[][] columns = new double[EnergySource.values().length][2];
+
+        assertThatThrownBy(() -> GenerationSeries.of(new long[3], columns))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> GenerationSeries.of(new long[2], new double[2][2]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject slots with more than 100% clean energy")
+    void shouldRejectCleanShareAbove100() {
+        List<GenerationData> data = List.of(new GenerationData(
+                "2025-12-04T00:00Z",
+                "2025-12-04T00:30Z",
+                List.of(new FuelMix("wind", 80.0), new FuelMix("solar", 30.0))));
+
+        assertThatThrownBy(() -> GenerationSeries.from(data))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static GenerationData interval(String from, String to, double wind, double gas) {
+        return new GenerationData(from, to, List.of(new FuelMix("wind", wind), new FuelMix("gas", gas)));
+    }
+}
@@ -0,0 +1,58 @@
+package com.konrad.energyappbackend.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("WindowRangeIndex Domain Tests")
+class WindowRangeIndexTest {
+
+    @Test
+    @DisplayName("Should find the same cleanest window as a direct search in any range")
+    void shouldMatchDirectSearchInAnyRange() {
+        double[] cleanShares = new Random(11).doubles(96, 0.0, 100.0).toArray();
+        CleanShareWindows windows = new CleanShareWindows(CleanShareWindowsTest.seriesOf(cleanShares));
+        WindowRangeIndex index = new WindowRangeIndex(windows);
+
+        Random random = new Random(13);
+        for (int i = 0; i < 500; i++) {
+            int length = 1 + random.nextInt(12);
+            int from = random.nextInt(96);
+            int to = from + random.nextInt(97 - from);
+
+            assertThat(index.bestStart(length, from, to - length))
+                    .as("window of %d slots in [%d, %d)", length, from, to)
+                    .isEqualTo(windows.bestStart(from, to, length));
+        }
+    }
+
+    @Test
+    @DisplayName("Should find the earliest window reaching a minimum average")
+    void shouldFindEarliestWindowAtLeast() {
+        CleanShareWindows windows = new CleanShareWindows(
+                CleanShareWindowsTest.seriesOf(new double[]{10, 80, 20, 90, 90, 30, 95, 95}));
+        WindowRangeIndex index = new WindowRangeIndex(windows);
+
+        assertThat(index.firstStartAtLeast(2, 0, 6, 50.0)).isEqualTo(1);
+        assertThat(index.firstStartAtLeast(2, 0, 6, 90.0)).isEqualTo(3);
+        assertThat(index.firstStartAtLeast(2, 4, 6, 90.0)).isEqualTo(6);
+        assertThat(index.firstStartAtLeast(2, 0, 5, 95.0)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should return -1 for empty ranges and windows longer than the series")
+    void shouldReturnMinusOneForEmptyRanges() {
+        CleanShareWindows windows = new CleanShareWindows(
+                CleanShareWindowsTest.seriesOf(new double[]{10, 20, 30}));
+        WindowRangeIndex index = new WindowRangeIndex(windows);
+
+        assertThat(index.bestStart(4, 0, 0)).isEqualTo(-1);
+        assertThat(index.bestStart(1, 2, 1)).isEqualTo(-1);
+        assertThat(index.firstStartAtLeast(1, 3, 5, 0.0)).isEqualTo(-1);
+        assertThatThrownBy(() -> index.bestStart(0, 0, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,57 +1,70 @@
 package com.konrad.energyappbackend.service.impl;
 
-import com.konrad.energyappbackend.client.GenerationClient;
 import com.konrad.energyappbackend.client.dto.FuelMix;
 import com.konrad.energyappbackend.client.dto.GenerationData;
 import com.konrad.energyappbackend.client.dto.GenerationResponse;
+import com.konrad.energyappbackend.domain.ChargingWindowQuery;
+import com.konrad.energyappbackend.domain.ForecastSnapshot;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ChargingWindowNotFoundException;
+import com.konrad.energyappbackend.service.ForecastProvider;
 import com.konrad.energyappbackend.web.dto.ChargingWindowDto;
+import com.konrad.energyappbackend.web.dto.VehicleWindowDto;
+import com.konrad.energyappbackend.web.dto.VehicleWindowRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("ChargingWindowService Tests")
 class ChargingWindowServiceImplTest {
 
+    private static final ZonedDateTime DAY_START = ZonedDateTime.parse("2025-12-03T00:00:00Z");
+
     @Mock
-    private GenerationClient generationClient;
+    private ForecastProvider forecastProvider;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
-    @InjectMocks
     private ChargingWindowServiceImpl chargingWindowService;
 
     private GenerationResponse mockResponse;
+    private ForecastSnapshot mockSnapshot;
 
     @BeforeEach
     void setUp() {
+        chargingWindowService = new ChargingWindowServiceImpl(forecastProvider, meterRegistry);
+
         List<GenerationData> dataList = new ArrayList<>();
 
         // Create 48 slots (24 hours)
         for (int i = 0; i < 48; i++) {
             int hour = i / 2;
-            int minute = (i % 2) * 30;
 
             double windPercentage = hour >= 10 && hour <= 14 ? 40.0 : 20.0;
             double solarPercentage = hour >= 10 && hour <= 14 ? 25.0 : 5.0;
 
-            String from = String.format("2025-12-03T%02d:%02d:00Z", hour, minute);
-            String to = String.format("2025-12-03T%02d:%02d:00Z",
-                    minute == 30 ? hour + 1 : hour,
-                    minute == 30 ? 0 : 30);
+            ZonedDateTime slotStart = DAY_START.plusMinutes(30L * i);
+            String from = slotStart.toInstant().toString();
+            String to = slotStart.plusMinutes(30).toInstant().toString();
 
             dataList.add(new GenerationData(
                     from,
@@ -71,14 +84,16 @@ class ChargingWindowServiceImplTest {
         }
 
         mockResponse = new GenerationResponse(dataList);
+
+        // Snapshot built the day before, so the data falls into its "tomorrow"
+        mockSnapshot = ForecastSnapshot.of(LocalDate.of(2025, 12, 2), Instant.now(), GenerationSeries.from(mockResponse.data()));
     }
 
     @ParameterizedTest
     @ValueSource(ints = {1, 2, 3, 4, 5, 6})
     @DisplayName("Should find optimal window for valid hours")
     void shouldFindOptimalWindowForValidHours(int hours) {
-        when(generationClient.getGenerationInterval(any(ZonedDateTime.class), any(ZonedDateTime.class)))
-                .thenReturn(mockResponse);
+        when(forecastProvider.current()).thenReturn(mockSnapshot);
 
         ChargingWindowDto result = chargingWindowService.getOptimalWindow(hours);
 
@@ -90,8 +105,7 @@ class ChargingWindowServiceImplTest {
         Duration duration = Duration.between(result.start(), result.end());
         assertThat(duration.toHours()).isEqualTo(hours);
 
-        verify(generationClient, times(1))
-                .getGenerationInterval(any(ZonedDateTime.class), any(ZonedDateTime.class));
+        verify(forecastProvider, times(1)).current();
     }
 
     @ParameterizedTest
@@ -102,17 +116,146 @@ class ChargingWindowServiceImplTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Hours must be between 1 and 6");
 
-        verifyNoInteractions(generationClient);
+        verifyNoInteractions(forecastProvider);
     }
 
     @Test
     @DisplayName("Should select window with highest clean percentage")
     void shouldSelectWindowWithHighestCleanPercentage() {
-        when(generationClient.getGenerationInterval(any(ZonedDateTime.class), any(ZonedDateTime.class)))
-                .thenReturn(mockResponse);
+        when(forecastProvider.current()).thenReturn(mockSnapshot);
 
         ChargingWindowDto result = chargingWindowService.getOptimalWindow(3);
 
         assertThat(result.cleanEnergyShare()).isGreaterThan(0.0);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should pick the earliest of equally clean windows")
+    void shouldPickEarliestOfEquallyCleanWindows() {
+        when(forecastProvider.current()).thenReturn(mockSnapshot);
+
+        ChargingWindowDto result = chargingWindowService.getOptimalWindow(3);
+
+        assertThat(result.start()).isEqualTo(DAY_START.plusHours(10));
+        assertThat(result.end()).isEqualTo(DAY_START.plusHours(13));
+        assertThat(result.cleanEnergyShare()).isEqualTo(100.0);
+    }
+
+    @Test
+    @DisplayName("Should not start a constrained window before earliestStart")
+    void shouldRespectEarliestStart() {
+        when(forecastProvider.current()).thenReturn(mockSnapshot);
+
+        ChargingWindowDto result = chargingWindowService.getOptimalWindow(
+                new ChargingWindowQuery(3, DAY_START.plusHours(12), null, null));
+
+        assertThat(result.start()).isEqualTo(DAY_START.plusHours(12));
+        assertThat(result.end()).isEqualTo(DAY_START.plusHours(15));
+        assertThat(result.cleanEnergyShare()).isEqualTo(100.0);
+    }
+
+    @Test
+    @DisplayName("Should end a constrained window at or before the deadline")
+    void shouldRespectDeadline() {
+        when(forecastProvider.current()).thenReturn(mockSnapshot);
+
+        ChargingWindowDto result = chargingWindowService.getOptimalWindow(
+                new ChargingWindowQuery(2, null, DAY_START.plusHours(11), null));
+
+        assertThat(result.start()).isEqualTo(DAY_START.plusHours(9));
+        assertThat(result.end()).isEqualTo(DAY_START.plusHours(11));
+        assertThat(result.cleanEnergyShare()).isCloseTo(80.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should return the earliest window reaching minCleanShare")
+    void shouldReturnEarliestWindowReachingMinCleanShare() {
+        when(forecastProvider.current()).thenReturn(mockSnapshot);
+
+        ChargingWindowDto result = chargingWindowService.getOptimalWindow(
+                new ChargingWindowQuery(2, null, null, 70.0));
+
+        assertThat(result.start()).isEqualTo(DAY_START.plusHours(8).plusMinutes(30));
+        assertThat(result.cleanEnergyShare()).isCloseTo(70.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should throw not-found when the forecast is too short for the window")
+    void shouldThrowNotFoundForShortForecast() {
+        when(forecastProvider.current()).thenReturn(
+                ForecastSnapshot.of(LocalDate.of(2025, 12, 2), Instant.now(), GenerationSeries.empty()));
+
+        assertThatThrownBy(() -> chargingWindowService.getOptimalWindow(3))
+                .isInstanceOf(ChargingWindowNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should throw when no window satisfies the constraints")
+    void shouldThrowWhenNoWindowMatches() {
+        when(forecastProvider.current()).thenReturn(mockSnapshot);
+
+        assertThatThrownBy(() -> chargingWindowService.getOptimalWindow(
+                new ChargingWindowQuery(1, null, DAY_START.plusHours(10), 100.0)))
+                .isInstanceOf(ChargingWindowNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a deadline that is not after earliestStart")
+    void shouldRejectDeadlineBeforeEarliestStart() {
+        assertThatThrownBy(() -> chargingWindowService.getOptimalWindow(
+                new ChargingWindowQuery(1, DAY_START.plusHours(10), DAY_START.plusHours(9), null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Deadline must be after earliest start");
+
+        verifyNoInteractions(forecastProvider);
+    }
+
+    @Test
+    @DisplayName("Should evaluate a batch against one snapshot and report per-vehicle errors")
+    void shouldEvaluateBatchAgainstOneSnapshot() {
+        when(forecastProvider.current()).thenReturn(mockSnapshot);
+
+        List<VehicleWindowDto> results = chargingWindowService.getOptimalWindows(List.of(
+                new VehicleWindowRequest("ev-1", 3, null, null),
+                new VehicleWindowRequest("ev-2", 2, null, DAY_START.plusHours(11)),
+                new VehicleWindowRequest("ev-3", 7, null, null),
+                new VehicleWindowRequest("ev-4", 2, DAY_START.plusDays(3), null)
+        ));
+
+        assertThat(results).extracting(VehicleWindowDto::vehicleId)
+                .containsExactly("ev-1", "ev-2", "ev-3", "ev-4");
+        assertThat(results.get(0).window().start()).isEqualTo(DAY_START.plusHours(10));
+        assertThat(results.get(1).window().start()).isEqualTo(DAY_START.plusHours(9));
+        assertThat(results.get(2).window()).isNull();
+        assertThat(results.get(2).error()).contains("Hours must be between 1 and 6");
+        assertThat(results.get(3).window()).isNull();
+        assertThat(results.get(3).error()).contains("No charging window");
+
+        verify(forecastProvider, times(1)).current();
+        // every validated vehicle is one timed search, the one without a match included
+        assertThat(meterRegistry.get("charging.window.search").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should find a constrained window on the reactive path")
+    void shouldFindWindowReactively() {
+        when(forecastProvider.currentAsync()).thenReturn(Mono.just(mockSnapshot));
+
+        StepVerifier.create(chargingWindowService.getOptimalWindowAsync(
+                        new ChargingWindowQuery(3, DAY_START.plusHours(12), null, null)))
+                .assertNext(result -> assertThat(result.start()).isEqualTo(DAY_START.plusHours(12)))
+                .verifyComplete();
+
+        verify(forecastProvider, never()).current();
+    }
+
+    @Test
+    @DisplayName("Should signal invalid hours as an error on the reactive path")
+    void shouldSignalInvalidHoursReactively() {
+        StepVerifier.create(chargingWindowService.getOptimalWindowAsync(ChargingWindowQuery.ofHours(7)))
+                .expectErrorMessage("Hours must be between 1 and 6")
+                .verify();
+
+        verifyNoInteractions(forecastProvider);
+    }
+}
@@ -4,15 +4,22 @@ import com.konrad.energyappbackend.client.GenerationClient;
 import com.konrad.energyappbackend.client.dto.FuelMix;
 import com.konrad.energyappbackend.client.dto.GenerationData;
 import com.konrad.energyappbackend.client.dto.GenerationResponse;
+import com.konrad.energyappbackend.domain.ForecastSnapshot;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.service.EnergyMixService;
+import com.konrad.energyappbackend.service.ForecastProvider;
 import com.konrad.energyappbackend.web.dto.DailyMixDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -27,10 +34,16 @@ import static org.mockito.Mockito.*;
 @DisplayName("EnergyMixService Tests")
 class EnergyMixServiceImplTest {
 
+    private static final int CHUNK_PARALLELISM = 4;
+
+    @Mock
+    private ForecastProvider forecastProvider;
+
     @Mock
     private GenerationClient generationClient;
 
-    @InjectMocks
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private EnergyMixServiceImpl energyMixService;
 
     private GenerationResponse mockResponse;
@@ -40,6 +53,8 @@ class EnergyMixServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        energyMixService = new EnergyMixServiceImpl(forecastProvider, generationClient, meterRegistry, CHUNK_PARALLELISM);
+
         // Calculate dates based on current time (like the service does)
         ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
         tomorrow = now.toLocalDate();
@@ -116,30 +131,29 @@ class EnergyMixServiceImplTest {
     @DisplayName("Should return energy mix for three days")
     void shouldReturnEnergyMixForThreeDays() {
         // Given
-        when(generationClient.getGenerationInterval(any(ZonedDateTime.class), any(ZonedDateTime.class)))
-                .thenReturn(mockResponse);
+        when(forecastProvider.current())
+                .thenReturn(ForecastSnapshot.of(tomorrow, Instant.now(), GenerationSeries.from(mockResponse.data())));
 
         // When
-        List<DailyMixDto> result = energyMixService.getDailyMixForThreeDays();
+        List<DailyMixDto> result = energyMixService.getDailyMixForThreeDays().dailyMixes();
 
         // Then
         assertThat(result)
                 .isNotNull()
                 .hasSize(3);
 
-        verify(generationClient, times(1))
-                .getGenerationInterval(any(ZonedDateTime.class), any(ZonedDateTime.class));
+        verify(forecastProvider, times(1)).current();
     }
 
     @Test
     @DisplayName("Should calculate clean percentage correctly")
     void shouldCalculateCleanPercentageCorrectly() {
         // Given
-        when(generationClient.getGenerationInterval(any(ZonedDateTime.class), any(ZonedDateTime.class)))
-                .thenReturn(mockResponse);
+        when(forecastProvider.current())
+                .thenReturn(ForecastSnapshot.of(tomorrow, Instant.now(), GenerationSeries.from(mockResponse.data())));
 
         // When
-        List<DailyMixDto> result = energyMixService.getDailyMixForThreeDays();
+        List<DailyMixDto> result = energyMixService.getDailyMixForThreeDays().dailyMixes();
 
         // Then
         DailyMixDto firstDay = result.get(0);
@@ -153,11 +167,11 @@ class EnergyMixServiceImplTest {
     @DisplayName("Should group data by date")
     void shouldGroupDataByDate() {
         // Given
-        when(generationClient.getGenerationInterval(any(ZonedDateTime.class), any(ZonedDateTime.class)))
-                .thenReturn(mockResponse);
+        when(forecastProvider.current())
+                .thenReturn(ForecastSnapshot.of(tomorrow, Instant.now(), GenerationSeries.from(mockResponse.data())));
 
         // When
-        List<DailyMixDto> result = energyMixService.getDailyMixForThreeDays();
+        List<DailyMixDto> result = energyMixService.getDailyMixForThreeDays().dailyMixes();
 
         // Then
         assertThat(result)
@@ -174,11 +188,11 @@ class EnergyMixServiceImplTest {
     @DisplayName("Should sort results by date")
     void shouldSortResultsByDate() {
         // Given
-        when(generationClient.getGenerationInterval(any(ZonedDateTime.class), any(ZonedDateTime.class)))
-                .thenReturn(mockResponse);
+        when(forecastProvider.current())
+                .thenReturn(ForecastSnapshot.of(tomorrow, Instant.now(), GenerationSeries.from(mockResponse.data())));
 
         // When
-        List<DailyMixDto> result = energyMixService.getDailyMixForThreeDays();
+        List<DailyMixDto> result = energyMixService.getDailyMixForThreeDays().dailyMixes();
 
         // Then
         assertThat(result)
@@ -186,6 +200,126 @@ class EnergyMixServiceImplTest {
                 .isSortedAccordingTo(LocalDate::compareTo);
     }
 
+    @Test
+    @DisplayName("Should emit the snapshot's daily mixes on the reactive path")
+    void shouldReturnEnergyMixReactively() {
+        // Given
+        ForecastSnapshot snapshot = ForecastSnapshot.of(tomorrow, Instant.now(), GenerationSeries.from(mockResponse.data()));
+        when(forecastProvider.currentAsync()).thenReturn(Mono.just(snapshot));
+
+        // When & Then
+        StepVerifier.create(energyMixService.getDailyMixForThreeDaysAsync())
+                .expectNext(new EnergyMixService.ThreeDayMix(snapshot.dailyMixes(), snapshot.fetchedAt()))
+                .verifyComplete();
+
+        verify(forecastProvider, never()).current();
+    }
+
+    @Test
+    @DisplayName("Should fetch a range in weekly chunks and return one mix per day in order")
+    void shouldAggregateRangeInChunks() {
+        // Given - one slot at noon per day, with the day of month as wind share
+        stubNoonSlotPerDay();
+
+        // When
+        List<DailyMixDto> result = energyMixService.getDailyMix(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 20));
+
+        // Then
+        assertThat(result).hasSize(20);
+        assertThat(result).extracting(DailyMixDto::date).isSortedAccordingTo(LocalDate::compareTo);
+        assertThat(result.get(0).date()).isEqualTo(LocalDate.of(2025, 1, 1));
+        assertThat(result.get(19).mix()).containsEntry("wind", 20.0);
+        verify(generationClient).fetchGenerationSeries(
+                ZonedDateTime.parse("2025-01-01T00:00:00Z"), ZonedDateTime.parse("2025-01-08T00:00:00Z"));
+        verify(generationClient).fetchGenerationSeries(
+                ZonedDateTime.parse("2025-01-08T00:00:00Z"), ZonedDateTime.parse("2025-01-15T00:00:00Z"));
+        verify(generationClient).fetchGenerationSeries(
+                ZonedDateTime.parse("2025-01-15T00:00:00Z"), ZonedDateTime.parse("2025-01-21T00:00:00Z"));
+        verifyNoMoreInteractions(generationClient);
+        assertThat(meterRegistry.get("energy.mix.aggregation").tag("granularity", "day").timer().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should reject reversed and too long ranges without calling the API")
+    void shouldRejectInvalidRange() {
+        LocalDate day = LocalDate.of(2025, 1, 1);
+
+        assertThatThrownBy(() -> energyMixService.getDailyMix(day, day.minusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        StepVerifier.create(energyMixService.getDailyMixAsync(day, day.plusDays(EnergyMixService.MAX_RANGE_DAYS)))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(generationClient);
+    }
+
+    @Test
+    @DisplayName("Should export every slot of a range across chunk boundaries in start order")
+    void shouldExportSlots() {
+        // Given
+        stubNoonSlotPerDay();
+
+        // When & Then
+        StepVerifier.create(energyMixService.exportSlots(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 10)))
+                .assertNext(slot -> {
+                    assertThat(slot.start()).isEqualTo(ZonedDateTime.parse("2025-01-01T12:00:00Z"));
+                    assertThat(slot.end()).isEqualTo(ZonedDateTime.parse("2025-01-01T12:30:00Z"));
+                    assertThat(slot.mix()).containsEntry("wind", 1.0);
+                    assertThat(slot.cleanPercentage()).isEqualTo(1.0);
+                })
+                .expectNextCount(8)
+                .assertNext(slot -> assertThat(slot.start()).isEqualTo(ZonedDateTime.parse("2025-01-10T12:00:00Z")))
+                .verifyComplete();
+
+        verify(generationClient, times(2)).fetchGenerationSeries(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should fetch only a few chunks ahead of a slow export consumer")
+    void shouldFetchExportChunksOnDemand() {
+        // Given
+        stubNoonSlotPerDay();
+        LocalDate from = LocalDate.of(2025, 1, 1);
+
+        // When - a whole year is exported, but only the first day is requested
+        StepVerifier.create(energyMixService.exportDailyMix(from, from.plusDays(364)), 1)
+                .assertNext(day -> assertThat(day.date()).isEqualTo(from))
+                .thenCancel()
+                .verify();
+
+        // Then
+        verify(generationClient, atMost(CHUNK_PARALLELISM + 2))
+                .fetchGenerationSeries(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid export range before anything is fetched")
+    void shouldRejectInvalidExportRange() {
+        LocalDate day = LocalDate.of(2025, 1, 1);
+
+        assertThatThrownBy(() -> energyMixService.exportSlots(day, day.minusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> energyMixService.exportDailyMix(day, day.plusDays(EnergyMixService.MAX_EXPORT_DAYS)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(generationClient);
+    }
+
+    ///  answers every fetch with one slot at noon per day, with the day of month as wind share
+    private void stubNoonSlotPerDay() {
+        when(generationClient.fetchGenerationSeries(any(), any())).thenAnswer(invocation -> {
+            ZonedDateTime from = invocation.getArgument(0);
+            ZonedDateTime to = invocation.getArgument(1);
+            List<GenerationData> slots = new ArrayList<>();
+            for (ZonedDateTime day = from; day.isBefore(to); day = day.plusDays(1)) {
+                slots.add(createGenerationData(day.plusHours(12), day.plusHours(12).plusMinutes(30),
+                        List.of(new FuelMix("wind", day.getDayOfMonth()))));
+            }
+            return Mono.just(GenerationSeries.from(slots));
+        });
+    }
+
     private GenerationData createGenerationData(String from, String to, List<FuelMix> generationMix) {
         return new GenerationData(from, to, generationMix);
     }
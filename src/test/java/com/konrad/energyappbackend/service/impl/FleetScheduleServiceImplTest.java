@@ -0,0 +1,102 @@
+package com.konrad.energyappbackend.service.impl;
+
+import com.konrad.energyappbackend.domain.EnergySource;
+import com.konrad.energyappbackend.domain.ForecastSnapshot;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.service.ForecastProvider;
+import com.konrad.energyappbackend.web.dto.ChargingSlotDto;
+import com.konrad.energyappbackend.web.dto.FleetScheduleDto;
+import com.konrad.energyappbackend.web.dto.FleetScheduleRequest;
+import com.konrad.energyappbackend.web.dto.FleetVehicleRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FleetScheduleService Tests")
+class FleetScheduleServiceImplTest {
+
+    private static final ZonedDateTime DAY_START = ZonedDateTime.parse("2025-12-03T00:00:00Z");
+
+    @Mock
+    private ForecastProvider forecastProvider;
+
+    @InjectMocks
+    private FleetScheduleServiceImpl fleetScheduleService;
+
+    private ForecastSnapshot mockSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        // 48 slots of 2025-12-03: 90% clean from 12:00 to 14:00, 30% otherwise
+        long[] slotStarts = new long[48];
+        double[][] columns = new double[EnergySource.values().length][48];
+        for (int slot = 0; slot < 48; slot++) {
+            slotStarts[slot] = DAY_START.plusMinutes(30L * slot).toEpochSecond();
+            double clean = slot >= 24 && slot < 28 ? 90.0 : 30.0;
+            columns[EnergySource.WIND.ordinal()][slot] = clean;
+            columns[EnergySource.GAS.ordinal()][slot] = 100.0 - clean;
+        }
+
+        // Snapshot built the day before, so the data falls into its charging period
+        mockSnapshot = ForecastSnapshot.of(LocalDate.of(2025, 12, 2), Instant.now(),
+                GenerationSeries.of(slotStarts, columns));
+    }
+
+    @Test
+    @DisplayName("Should spread vehicles over the clean slots without exceeding the site limit")
+    void shouldScheduleWithinSiteLimit() {
+        when(forecastProvider.current()).thenReturn(mockSnapshot);
+
+        FleetScheduleDto result = fleetScheduleService.schedule(new FleetScheduleRequest(20.0, List.of(
+                new FleetVehicleRequest("ev-1", 20.0, 20.0, null, null),
+                new FleetVehicleRequest("ev-2", 20.0, 20.0, null, null))));
+
+        assertThat(result.deliveredKwh()).isCloseTo(40.0, within(1e-9));
+        assertThat(result.cleanEnergyShare()).isCloseTo(90.0, within(1e-9));
+        assertThat(result.vehicles()).extracting(v -> v.slots().size()).containsExactly(2, 2);
+        assertThat(result.vehicles().get(0).slots()).extracting(ChargingSlotDto::start)
+                .containsExactly(DAY_START.plusHours(12), DAY_START.plusHours(12).plusMinutes(30));
+        assertThat(result.vehicles().get(1).slots()).extracting(ChargingSlotDto::start)
+                .containsExactly(DAY_START.plusHours(13), DAY_START.plusHours(13).plusMinutes(30));
+    }
+
+    @Test
+    @DisplayName("Should keep a vehicle within its availability")
+    void shouldRespectAvailability() {
+        when(forecastProvider.current()).thenReturn(mockSnapshot);
+
+        FleetScheduleDto result = fleetScheduleService.schedule(new FleetScheduleRequest(100.0, List.of(
+                new FleetVehicleRequest("ev-1", 10.0, 10.0, DAY_START.plusHours(6), DAY_START.plusHours(8)))));
+
+        assertThat(result.vehicles().get(0).complete()).isTrue();
+        assertThat(result.vehicles().get(0).slots()).allSatisfy(slot -> {
+            assertThat(slot.start()).isAfterOrEqualTo(DAY_START.plusHours(6));
+            assertThat(slot.end()).isBeforeOrEqualTo(DAY_START.plusHours(8));
+        });
+        assertThat(result.cleanEnergyShare()).isCloseTo(30.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should reject a vehicle that is available only after its deadline")
+    void shouldRejectInvertedAvailability() {
+        when(forecastProvider.current()).thenReturn(mockSnapshot);
+
+        assertThatThrownBy(() -> fleetScheduleService.schedule(new FleetScheduleRequest(100.0, List.of(
+                new FleetVehicleRequest("ev-1", 10.0, 10.0, DAY_START.plusHours(8), DAY_START.plusHours(6))))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("ev-1");
+    }
+}
@@ -0,0 +1,395 @@
+package com.konrad.energyappbackend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.konrad.energyappbackend.client.GenerationClient;
+import com.konrad.energyappbackend.client.dto.FuelMix;
+import com.konrad.energyappbackend.client.dto.GenerationData;
+import com.konrad.energyappbackend.domain.ChargingWindowQuery;
+import com.konrad.energyappbackend.domain.ForecastSnapshot;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import com.konrad.energyappbackend.store.GenerationHistory;
+import com.konrad.energyappbackend.web.cache.EnergyMixResponseCache;
+import com.konrad.energyappbackend.web.dto.DailyMixDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ForecastProvider Tests")
+class ForecastProviderImplTest {
+
+    private static final Instant MORNING = Instant.parse("2025-12-04T08:10:00Z");
+
+    @Mock
+    private GenerationClient generationClient;
+
+    @Mock
+    private GenerationHistory history;
+
+    @Mock
+    private Clock clock;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ForecastProviderImpl forecastProvider;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        forecastProvider = new ForecastProviderImpl(generationClient, history, clock, meterRegistry,
+                Duration.ofHours(2));
+    }
+
+    @Test
+    @DisplayName("Should fetch today through the next three days on first access")
+    void shouldLoadSnapshotOnFirstAccess() {
+        when(clock.instant()).thenReturn(MORNING);
+        when(generationClient.getGenerationSeries(any(), any())).thenReturn(responseFor("2025-12-04"));
+
+        ForecastSnapshot snapshot = forecastProvider.current();
+
+        assertThat(snapshot.day()).isEqualTo(LocalDate.of(2025, 12, 4));
+        assertThat(snapshot.dailyMixes()).hasSize(3);
+        assertThat(snapshot.series().size()).isEqualTo(1);
+        verify(generationClient).getGenerationSeries(
+                ZonedDateTime.parse("2025-12-04T00:00:00Z[UTC]"),
+                ZonedDateTime.parse("2025-12-07T00:00:00Z[UTC]"));
+    }
+
+    @Test
+    @DisplayName("Should answer from the published snapshot without calling the API again")
+    void shouldServeFromMemory() {
+        when(clock.instant()).thenReturn(MORNING);
+        when(generationClient.getGenerationSeries(any(), any())).thenReturn(responseFor("2025-12-04"));
+
+        ForecastSnapshot first = forecastProvider.current();
+        ForecastSnapshot second = forecastProvider.current();
+
+        assertThat(second).isSameAs(first);
+        verify(generationClient, times(1)).getGenerationSeries(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should serve the previous snapshot and reload in the background when the UTC day changes")
+    void shouldReloadOnNewDay() {
+        when(clock.instant()).thenReturn(MORNING);
+        when(generationClient.getGenerationSeries(any(), any()))
+                .thenReturn(responseFor("2025-12-04"), responseFor("2025-12-05"));
+        ForecastSnapshot previous = forecastProvider.current();
+
+        when(clock.instant()).thenReturn(Instant.parse("2025-12-05T00:00:05Z"));
+        ForecastSnapshot stale = forecastProvider.current();
+        ForecastSnapshot snapshot = forecastProvider.revalidate().join();
+
+        assertThat(stale.day()).isEqualTo(previous.day());
+        assertThat(stale.series()).isSameAs(previous.series());
+        assertThat(stale.dailyMixes()).extracting(DailyMixDto::date)
+                .containsExactly(LocalDate.of(2025, 12, 5), LocalDate.of(2025, 12, 6));
+        assertThat(snapshot.day()).isEqualTo(LocalDate.of(2025, 12, 5));
+        assertThat(forecastProvider.current()).isSameAs(snapshot);
+        verify(generationClient, times(2)).getGenerationSeries(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should serve the previous snapshot reactively while the upstream fails")
+    void shouldServeStaleSnapshotReactively() {
+        when(clock.instant()).thenReturn(MORNING);
+        when(generationClient.getGenerationSeries(any(), any()))
+                .thenReturn(responseFor("2025-12-04"))
+                .thenThrow(new ExternalApiException("Generation API circuit is open"));
+        ForecastSnapshot previous = forecastProvider.current();
+
+        when(clock.instant()).thenReturn(Instant.parse("2025-12-05T00:00:05Z"));
+        StepVerifier.create(forecastProvider.currentAsync())
+                .assertNext(stale -> assertThat(stale.series()).isSameAs(previous.series()))
+                .verifyComplete();
+
+        assertThat(forecastProvider.revalidate()).failsWithin(Duration.ofSeconds(5));
+        assertThat(forecastProvider.current().series()).isSameAs(previous.series());
+        verify(generationClient, never()).fetchGenerationSeries(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should load synchronously when the last snapshot is older than yesterday's")
+    void shouldReloadWhenSnapshotIsTooOld() {
+        when(clock.instant()).thenReturn(MORNING);
+        when(generationClient.getGenerationSeries(any(), any()))
+                .thenReturn(responseFor("2025-12-04"), responseFor("2025-12-06"));
+        forecastProvider.current();
+
+        when(clock.instant()).thenReturn(Instant.parse("2025-12-06T00:00:05Z"));
+        ForecastSnapshot snapshot = forecastProvider.current();
+
+        assertThat(snapshot.day()).isEqualTo(LocalDate.of(2025, 12, 6));
+        verify(generationClient, times(2)).getGenerationSeries(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not recommend a window that started before now from the previous snapshot")
+    void shouldTrimStaleSnapshotToNow() {
+        ///  yesterday's forecast: today is clean until noon, dirty afterwards
+        GenerationSeries series = GenerationSeries.concat(List.of(
+                slots("2025-12-04T00:00Z", 48, 20.0),
+                slots("2025-12-05T00:00Z", 24, 90.0),
+                slots("2025-12-05T12:00Z", 24, 10.0),
+                slots("2025-12-06T00:00Z", 48, 30.0)));
+        when(clock.instant()).thenReturn(MORNING);
+        when(generationClient.getGenerationSeries(any(), any()))
+                .thenReturn(series)
+                .thenThrow(new ExternalApiException("Generation API error 503"));
+        forecastProvider.current();
+        ChargingWindowServiceImpl chargingWindowService = new ChargingWindowServiceImpl(forecastProvider, meterRegistry);
+
+        Instant now = Instant.parse("2025-12-05T09:10:00Z");
+        when(clock.instant()).thenReturn(now);
+
+        for (int hours = 1; hours <= 6; hours++) {
+            assertThat(chargingWindowService.getOptimalWindow(hours).start().toInstant())
+                    .isAfterOrEqualTo(now);
+            assertThat(chargingWindowService.getOptimalWindow(new ChargingWindowQuery(hours, null, null, 5.0))
+                    .start().toInstant()).isAfterOrEqualTo(now);
+        }
+        assertThat(chargingWindowService.getOptimalWindow(1).start().toInstant())
+                .isEqualTo(Instant.parse("2025-12-05T09:30:00Z"));
+        assertThat(forecastProvider.current()).isSameAs(forecastProvider.current());
+    }
+
+    @Test
+    @DisplayName("Should keep the snapshot and its indexes when the forecast has not changed")
+    void shouldNotRebuildUnchangedForecast() {
+        when(clock.instant()).thenReturn(MORNING);
+        when(generationClient.getGenerationSeries(any(), any()))
+                .thenReturn(responseFor("2025-12-04"), responseFor("2025-12-04"));
+        ForecastSnapshot published = forecastProvider.current();
+
+        ForecastSnapshot refreshed = forecastProvider.refresh();
+
+        assertThat(refreshed).isSameAs(published);
+        assertThat(meterRegistry.get("forecast.window.index.build").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep the energy mix cacheable when an unchanged forecast is refreshed after a boundary")
+    void shouldRecordFetchTimeOfUnchangedForecast() {
+        Instant nextRefresh = Instant.parse("2025-12-04T08:30:05Z");
+        when(clock.instant()).thenReturn(MORNING);
+        when(generationClient.getGenerationSeries(any(), any()))
+                .thenReturn(responseFor("2025-12-04"), responseFor("2025-12-04"));
+        ForecastSnapshot published = forecastProvider.current();
+
+        when(clock.instant()).thenReturn(nextRefresh);
+        ForecastSnapshot refreshed = forecastProvider.refresh();
+        EnergyMixResponseCache responseCache = new EnergyMixResponseCache(new ObjectMapper().findAndRegisterModules(),
+                Clock.fixed(Instant.parse("2025-12-04T08:45:00Z"), ZoneOffset.UTC));
+
+        assertThat(refreshed.fetchedAt()).isEqualTo(nextRefresh);
+        assertThat(refreshed.dailyMixes()).isSameAs(published.dailyMixes());
+        assertThat(refreshed.bestWindows()).isSameAs(published.bestWindows());
+        assertThat(forecastProvider.current()).isSameAs(refreshed);
+        assertThat(responseCache.response(refreshed.dailyMixes(), refreshed.fetchedAt(), null)
+                .getHeaders().getCacheControl()).isEqualTo("max-age=900");
+        assertThat(meterRegistry.get("forecast.window.index.build").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the window index when the forecast changes")
+    void shouldRebuildChangedForecast() {
+        when(clock.instant()).thenReturn(MORNING);
+        when(generationClient.getGenerationSeries(any(), any()))
+                .thenReturn(responseFor("2025-12-04"), GenerationSeries.from(List.of()));
+        ForecastSnapshot published = forecastProvider.current();
+
+        ForecastSnapshot refreshed = forecastProvider.refresh();
+
+        assertThat(refreshed).isNotSameAs(published);
+        assertThat(forecastProvider.current()).isSameAs(refreshed);
+        assertThat(meterRegistry.get("forecast.window.index.build").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should push a snapshot to subscribers only when the forecast changes")
+    void shouldPushChangedSnapshots() {
+        when(clock.instant()).thenReturn(MORNING);
+        when(generationClient.getGenerationSeries(any(), any()))
+                .thenReturn(responseFor("2025-12-04"), responseFor("2025-12-04"), GenerationSeries.from(List.of()));
+        ForecastSnapshot published = forecastProvider.current();
+
+        StepVerifier.create(forecastProvider.updates())
+                .expectNext(published)
+                .then(forecastProvider::refresh)
+                .then(forecastProvider::refresh)
+                .assertNext(snapshot -> assertThat(snapshot.series().isEmpty()).isTrue())
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should keep the previous snapshot when a scheduled refresh fails")
+    void shouldKeepSnapshotWhenScheduledRefreshFails() {
+        when(clock.instant()).thenReturn(MORNING);
+        when(generationClient.getGenerationSeries(any(), any()))
+                .thenReturn(responseFor("2025-12-04"))
+                .thenThrow(new ExternalApiException("Generation API error 503"));
+        ForecastSnapshot published = forecastProvider.current();
+
+        assertThatCode(() -> forecastProvider.scheduledRefresh()).doesNotThrowAnyException();
+
+        assertThat(forecastProvider.current()).isSameAs(published);
+    }
+
+    @Test
+    @DisplayName("Should propagate API errors when no snapshot is available")
+    void shouldPropagateErrorsWithoutSnapshot() {
+        when(clock.instant()).thenReturn(MORNING);
+        when(generationClient.getGenerationSeries(any(), any()))
+                .thenThrow(new ExternalApiException("Generation API error 503"));
+
+        assertThatThrownBy(() -> forecastProvider.current())
+                .isInstanceOf(ExternalApiException.class);
+    }
+
+    @Test
+    @DisplayName("Should load and publish the snapshot through the reactive client")
+    void shouldLoadSnapshotReactively() {
+        when(clock.instant()).thenReturn(MORNING);
+        when(generationClient.fetchGenerationSeries(any(), any())).thenReturn(Mono.just(responseFor("2025-12-04")));
+
+        StepVerifier.create(forecastProvider.currentAsync())
+                .assertNext(snapshot -> assertThat(snapshot.day()).isEqualTo(LocalDate.of(2025, 12, 4)))
+                .verifyComplete();
+
+        ///  published for blocking callers too
+        assertThat(forecastProvider.current().day()).isEqualTo(LocalDate.of(2025, 12, 4));
+        verify(generationClient, times(1)).fetchGenerationSeries(any(), any());
+        verify(generationClient, never()).getGenerationSeries(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should emit the published snapshot without calling the API")
+    void shouldServeFromMemoryReactively() {
+        when(clock.instant()).thenReturn(MORNING);
+        when(generationClient.getGenerationSeries(any(), any())).thenReturn(responseFor("2025-12-04"));
+        ForecastSnapshot published = forecastProvider.current();
+
+        StepVerifier.create(forecastProvider.currentAsync())
+                .expectNext(published)
+                .verifyComplete();
+
+        verify(generationClient, never()).fetchGenerationSeries(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should warm-start from history without calling the API")
+    void shouldWarmStartFromHistory() {
+        Instant fetchedAt = MORNING.minus(Duration.ofMinutes(40));
+        when(clock.instant()).thenReturn(MORNING);
+        when(history.read(any(), any())).thenReturn(forecastDays());
+        when(history.fetchedAt(any(), any())).thenReturn(fetchedAt);
+
+        forecastProvider.warmStart();
+        ForecastSnapshot snapshot = forecastProvider.current();
+
+        assertThat(snapshot.day()).isEqualTo(LocalDate.of(2025, 12, 4));
+        assertThat(snapshot.fetchedAt()).isEqualTo(fetchedAt);
+        assertThat(snapshot.series()).isEqualTo(forecastDays());
+        verify(history).read(
+                ZonedDateTime.parse("2025-12-04T00:00:00Z[UTC]"),
+                ZonedDateTime.parse("2025-12-07T00:00:00Z[UTC]"));
+        verifyNoInteractions(generationClient);
+    }
+
+    @Test
+    @DisplayName("Should load from the API in the background at startup when the history has nothing for today")
+    void shouldIgnoreHistoryWithoutToday() {
+        when(clock.instant()).thenReturn(MORNING);
+        when(history.read(any(), any())).thenReturn(responseFor("2025-12-05"));
+        when(generationClient.getGenerationSeries(any(), any())).thenReturn(responseFor("2025-12-04"));
+
+        forecastProvider.warmStart();
+        ForecastSnapshot loaded = forecastProvider.revalidate().join();
+
+        ///  loaded before any request asked for it
+        verify(generationClient, times(1)).getGenerationSeries(any(), any());
+        assertThat(loaded.series()).isEqualTo(responseFor("2025-12-04"));
+        assertThat(forecastProvider.current()).isSameAs(loaded);
+        verify(generationClient, times(1)).getGenerationSeries(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should load from the API when the history covers only part of the forecast days")
+    void shouldIgnorePartialHistory() {
+        GenerationSeries partial = GenerationSeries.concat(List.of(responseFor("2025-12-04"), responseFor("2025-12-05")));
+        when(clock.instant()).thenReturn(MORNING);
+        when(history.read(any(), any())).thenReturn(partial);
+        when(generationClient.getGenerationSeries(any(), any())).thenReturn(forecastDays());
+
+        forecastProvider.warmStart();
+        forecastProvider.revalidate().join();
+        ForecastSnapshot snapshot = forecastProvider.current();
+
+        assertThat(snapshot.series()).isEqualTo(forecastDays());
+        assertThat(snapshot.fetchedAt()).isEqualTo(MORNING);
+        verify(history, never()).fetchedAt(any(), any());
+        verify(generationClient, times(1)).getGenerationSeries(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should load from the API when the history was fetched too long ago")
+    void shouldIgnoreStaleHistory() {
+        when(clock.instant()).thenReturn(MORNING);
+        when(history.read(any(), any())).thenReturn(forecastDays());
+        when(history.fetchedAt(any(), any())).thenReturn(MORNING.minus(Duration.ofHours(3)));
+        when(generationClient.getGenerationSeries(any(), any())).thenReturn(forecastDays());
+
+        forecastProvider.warmStart();
+        forecastProvider.revalidate().join();
+        ForecastSnapshot snapshot = forecastProvider.current();
+
+        assertThat(snapshot.fetchedAt()).isEqualTo(MORNING);
+        verify(generationClient, times(1)).getGenerationSeries(any(), any());
+    }
+
+    ///  one slot on each of the forecast days starting on MORNING
+    private GenerationSeries forecastDays() {
+        return GenerationSeries.concat(List.of(
+                responseFor("2025-12-04"), responseFor("2025-12-05"), responseFor("2025-12-06")));
+    }
+
+    private GenerationSeries slots(String from, int size, double wind) {
+        ZonedDateTime start = ZonedDateTime.parse(from);
+        List<GenerationData> data = new ArrayList<>(size);
+        for (int slot = 0; slot < size; slot++) {
+            data.add(new GenerationData(
+                    start.plusMinutes(30L * slot).toString(),
+                    start.plusMinutes(30L * (slot + 1)).toString(),
+                    List.of(new FuelMix("wind", wind), new FuelMix("gas", 100.0 - wind))));
+        }
+        return GenerationSeries.from(data);
+    }
+
+    private GenerationSeries responseFor(String day) {
+        return GenerationSeries.from(List.of(new GenerationData(
+                day + "T00:00Z",
+                day + "T00:30Z",
+                List.of(new FuelMix("wind", 60.0), new FuelMix("gas", 40.0)))));
+    }
+}
@@ -0,0 +1,106 @@
+package com.konrad.energyappbackend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.konrad.energyappbackend.client.dto.FuelMix;
+import com.konrad.energyappbackend.client.dto.GenerationData;
+import com.konrad.energyappbackend.domain.ForecastSnapshot;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import com.konrad.energyappbackend.service.ForecastProvider;
+import com.konrad.energyappbackend.service.ForecastUpdateService.ForecastUpdate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ForecastUpdateService Tests")
+class ForecastUpdateServiceImplTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 12, 4);
+
+    @Mock
+    private ForecastProvider forecastProvider;
+
+    private final Sinks.Many<ForecastSnapshot> snapshots = Sinks.many().replay().latest();
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = spy(new ObjectMapper().findAndRegisterModules());
+        when(forecastProvider.updates()).thenReturn(snapshots.asFlux());
+    }
+
+    @Test
+    @DisplayName("Should send the current forecast first and then every new one")
+    void shouldSendCurrentAndNewForecasts() {
+        ForecastUpdateServiceImpl service = new ForecastUpdateServiceImpl(forecastProvider, objectMapper, Duration.ofHours(1));
+        snapshots.tryEmitNext(snapshot(Instant.parse("2025-12-04T08:00:00Z"), 60.0));
+
+        StepVerifier.create(service.subscribe())
+                .assertNext(update -> {
+                    assertThat(update.isKeepAlive()).isFalse();
+                    assertThat(update.id()).isEqualTo("2025-12-04T08:00:00Z");
+                    assertThat(update.json()).contains("\"dailyMixes\"").contains("\"bestWindows\":{\"1\":");
+                })
+                .then(() -> snapshots.tryEmitNext(snapshot(Instant.parse("2025-12-04T08:30:00Z"), 70.0)))
+                .assertNext(update -> assertThat(update.id()).isEqualTo("2025-12-04T08:30:00Z"))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should serialize every forecast once for all subscribers")
+    void shouldSerializeOnceForAllSubscribers() throws Exception {
+        ForecastUpdateServiceImpl service = new ForecastUpdateServiceImpl(forecastProvider, objectMapper, Duration.ofHours(1));
+        snapshots.tryEmitNext(snapshot(Instant.parse("2025-12-04T08:00:00Z"), 60.0));
+
+        List<ForecastUpdate> received = new ArrayList<>();
+        for (int subscriber = 0; subscriber < 3; subscriber++) {
+            received.add(service.subscribe().blockFirst());
+        }
+
+        assertThat(received).extracting(ForecastUpdate::json)
+                .allSatisfy(json -> assertThat(json).isSameAs(received.get(0).json()));
+        verify(objectMapper, times(1)).writeValueAsString(any());
+    }
+
+    @Test
+    @DisplayName("Should send keep-alives while the forecast does not change")
+    void shouldSendKeepAlive() {
+        StepVerifier.withVirtualTime(() ->
+                        new ForecastUpdateServiceImpl(forecastProvider, objectMapper, Duration.ofSeconds(30)).subscribe())
+                .expectSubscription()
+                .expectNoEvent(Duration.ofSeconds(29))
+                .thenAwait(Duration.ofSeconds(1))
+                .assertNext(update -> assertThat(update.isKeepAlive()).isTrue())
+                .thenCancel()
+                .verify();
+    }
+
+    private static ForecastSnapshot snapshot(Instant fetchedAt, double wind) {
+        ///  four slots from 10:00 tomorrow, inside the charging horizon
+        ZonedDateTime start = DAY.plusDays(1).atTime(10, 0).atZone(ZoneOffset.UTC);
+        List<GenerationData> slots = new ArrayList<>();
+        for (int slot = 0; slot < 4; slot++) {
+            slots.add(new GenerationData(start.plusMinutes(30L * slot).toString(),
+                    start.plusMinutes(30L * slot + 30).toString(),
+                    List.of(new FuelMix("wind", wind), new FuelMix("gas", 100.0 - wind))));
+        }
+        return ForecastSnapshot.of(DAY, fetchedAt, GenerationSeries.from(slots));
+    }
+}
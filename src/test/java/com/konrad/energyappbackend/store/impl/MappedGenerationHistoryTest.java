@@ -0,0 +1,160 @@
+package com.konrad.energyappbackend.store.impl;
+
+import com.konrad.energyappbackend.domain.EnergySource;
+import com.konrad.energyappbackend.domain.GenerationSeries;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MappedGenerationHistory Tests")
+class MappedGenerationHistoryTest {
+
+    private static final ZonedDateTime DAY = ZonedDateTime.parse("2025-12-04T00:00:00Z");
+    private static final Instant FETCHED_AT = Instant.parse("2025-12-04T06:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should read back any range of appended slots")
+    void shouldReadAppendedRange() throws IOException {
+        try (MappedGenerationHistory history = MappedGenerationHistory.open(directory.resolve("history.bin"))) {
+            history.append(slots(DAY, 96, 30.0), FETCHED_AT);
+
+            GenerationSeries range = history.read(DAY.plusHours(10), DAY.plusHours(12));
+
+            assertThat(range.size()).isEqualTo(4);
+            assertThat(range.slotStart(0)).isEqualTo(DAY.plusHours(10).toEpochSecond());
+            assertThat(range.percentage(EnergySource.WIND, 0)).isEqualTo(30.0);
+            assertThat(history.read(DAY, DAY.plusDays(2))).isEqualTo(slots(DAY, 96, 30.0));
+            assertThat(history.read(DAY.minusDays(1), DAY)).isEqualTo(GenerationSeries.empty());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the slots after the file is reopened")
+    void shouldPersistAcrossReopen() throws IOException {
+        Path file = directory.resolve("nested").resolve("history.bin");
+        try (MappedGenerationHistory history = MappedGenerationHistory.open(file)) {
+            history.append(slots(DAY, 48, 30.0), FETCHED_AT);
+        }
+
+        try (MappedGenerationHistory reopened = MappedGenerationHistory.open(file)) {
+            assertThat(reopened.slotCount()).isEqualTo(48);
+            assertThat(reopened.read(DAY, DAY.plusDays(1))).isEqualTo(slots(DAY, 48, 30.0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should replace a slot fetched again and skip slots that were never fetched")
+    void shouldReplaceSlotsAndSkipGaps() throws IOException {
+        try (MappedGenerationHistory history = MappedGenerationHistory.open(directory.resolve("history.bin"))) {
+            history.append(slots(DAY, 4, 30.0), FETCHED_AT);
+            history.append(slots(DAY.plusHours(1), 2, 45.0), FETCHED_AT);
+            history.append(slots(DAY.plusHours(3), 2, 50.0), FETCHED_AT);
+
+            GenerationSeries stored = history.read(DAY, DAY.plusDays(1));
+
+            assertThat(stored.size()).isEqualTo(6);
+            assertThat(stored.percentage(EnergySource.WIND, 1)).isEqualTo(30.0);
+            assertThat(stored.percentage(EnergySource.WIND, 2)).isEqualTo(45.0);
+            assertThat(stored.slotStart(4)).isEqualTo(DAY.plusHours(3).toEpochSecond());
+            assertThat(history.slotCount()).isEqualTo(8);
+        }
+    }
+
+    @Test
+    @DisplayName("Should grow the file for slots beyond its current size")
+    void shouldGrowFile() throws IOException {
+        Path file = directory.resolve("history.bin");
+        try (MappedGenerationHistory history = MappedGenerationHistory.open(file)) {
+            long initialSize = Files.size(file);
+            history.append(slots(DAY, 48, 20.0), FETCHED_AT);
+            history.append(slots(DAY.plusDays(60), 48, 30.0), FETCHED_AT);
+
+            assertThat(Files.size(file)).isGreaterThan(initialSize);
+            assertThat(history.read(DAY, DAY.plusDays(61)).size()).isEqualTo(96);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep a day older than the first day written")
+    void shouldKeepOlderDay() throws IOException {
+        Path file = directory.resolve("history.bin");
+        try (MappedGenerationHistory history = MappedGenerationHistory.open(file)) {
+            history.append(slots(DAY, 48, 30.0), FETCHED_AT);
+            history.append(slots(DAY.minusDays(1), 48, 40.0), FETCHED_AT);
+
+            assertThat(history.read(DAY.minusDays(1), DAY)).isEqualTo(slots(DAY.minusDays(1), 48, 40.0));
+            assertThat(history.read(DAY, DAY.plusDays(1))).isEqualTo(slots(DAY, 48, 30.0));
+            assertThat(history.read(DAY.minusDays(40), DAY.minusDays(1))).isEqualTo(GenerationSeries.empty());
+        }
+
+        try (MappedGenerationHistory reopened = MappedGenerationHistory.open(file)) {
+            assertThat(reopened.read(DAY.minusDays(1), DAY.plusDays(1)).size()).isEqualTo(96);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep every day when ranges far in the past arrive in any order")
+    void shouldKeepOlderRangesInAnyOrder() throws IOException {
+        try (MappedGenerationHistory history = MappedGenerationHistory.open(directory.resolve("history.bin"))) {
+            history.append(slots(DAY, 48, 30.0), FETCHED_AT);
+            history.append(slots(DAY.minusDays(90), 7 * 48, 20.0), FETCHED_AT);
+            history.append(slots(DAY.minusDays(200).plusHours(12), 4, 10.0), FETCHED_AT);
+            history.append(slots(DAY.minusDays(45), 48, 25.0), FETCHED_AT);
+
+            assertThat(history.read(DAY.minusDays(90), DAY.minusDays(83)))
+                    .isEqualTo(slots(DAY.minusDays(90), 7 * 48, 20.0));
+            assertThat(history.read(DAY.minusDays(201), DAY.minusDays(199)))
+                    .isEqualTo(slots(DAY.minusDays(200).plusHours(12), 4, 10.0));
+            assertThat(history.read(DAY.minusDays(45), DAY.minusDays(44)))
+                    .isEqualTo(slots(DAY.minusDays(45), 48, 25.0));
+            assertThat(history.read(DAY, DAY.plusDays(1))).isEqualTo(slots(DAY, 48, 30.0));
+            assertThat(history.read(DAY.minusDays(300), DAY.plusDays(1)).size()).isEqualTo(48 + 7 * 48 + 4 + 48);
+        }
+    }
+
+    @Test
+    @DisplayName("Should report when the least recently fetched slot of a range was fetched")
+    void shouldReportOldestFetchTime() throws IOException {
+        try (MappedGenerationHistory history = MappedGenerationHistory.open(directory.resolve("history.bin"))) {
+            history.append(slots(DAY, 48, 30.0), FETCHED_AT);
+            history.append(slots(DAY.plusDays(1), 48, 30.0), FETCHED_AT.plusSeconds(3600));
+
+            assertThat(history.fetchedAt(DAY.plusDays(1), DAY.plusDays(2))).isEqualTo(FETCHED_AT.plusSeconds(3600));
+            assertThat(history.fetchedAt(DAY, DAY.plusDays(2))).isEqualTo(FETCHED_AT);
+            assertThat(history.fetchedAt(DAY.plusDays(2), DAY.plusDays(3))).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse to open a file that is not a history")
+    void shouldRejectForeignFile() throws IOException {
+        Path file = directory.resolve("history.bin");
+        Files.write(file, new byte[64]);
+
+        assertThatThrownBy(() -> MappedGenerationHistory.open(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("not a generation history file");
+    }
+
+    private static GenerationSeries slots(ZonedDateTime from, int size, double wind) {
+        long[] slotStarts = new long[size];
+        double[][] columns = new double[EnergySource.values().length][size];
+        for (int slot = 0; slot < size; slot++) {
+            slotStarts[slot] = from.toEpochSecond() + slot * GenerationSeries.SLOT_SECONDS;
+            columns[EnergySource.WIND.ordinal()][slot] = wind;
+            columns[EnergySource.GAS.ordinal()][slot] = 100.0 - wind;
+        }
+        return GenerationSeries.of(slotStarts, columns);
+    }
+}
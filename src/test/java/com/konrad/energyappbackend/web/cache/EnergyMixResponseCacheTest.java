@@ -0,0 +1,96 @@
+package com.konrad.energyappbackend.web.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.konrad.energyappbackend.web.dto.DailyMixDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("EnergyMixResponseCache Tests")
+class EnergyMixResponseCacheTest {
+
+    private static final Instant FETCHED_AT = Instant.parse("2025-12-04T10:00:05Z");
+
+    private final EnergyMixResponseCache cache = new EnergyMixResponseCache(
+            new ObjectMapper().findAndRegisterModules(),
+            Clock.fixed(Instant.parse("2025-12-04T10:20:00Z"), ZoneOffset.UTC));
+
+    @Test
+    @DisplayName("Should serialize a list once and reuse the bytes until another list is given")
+    void shouldReuseBytesForSameList() {
+        List<DailyMixDto> first = mixes(40.0);
+
+        ResponseEntity<byte[]> response = cache.response(first, FETCHED_AT, null);
+
+        assertThat(new String(response.getBody())).contains("\"cleanPercentage\":40.0");
+        assertThat(cache.response(first, FETCHED_AT, null).getBody()).isSameAs(response.getBody());
+        assertThat(cache.response(mixes(30.0), FETCHED_AT, null).getHeaders().getETag())
+                .isNotEqualTo(response.getHeaders().getETag());
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should send a strong ETag and a max-age ending at the next half-hour refresh")
+    void shouldSetCachingHeaders() {
+        ResponseEntity<byte[]> response = cache.response(mixes(40.0), FETCHED_AT, null);
+
+        assertThat(response.getHeaders().getETag()).matches("\"[0-9a-f]{32}\"");
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("max-age=600");
+        assertThat(response.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    @DisplayName("Should send max-age=0 for a snapshot fetched before the last half-hour boundary")
+    void shouldNotCacheOverdueSnapshot() {
+        List<DailyMixDto> mixes = mixes(40.0);
+
+        ResponseEntity<byte[]> overdue = cache.response(mixes, Instant.parse("2025-12-04T09:45:00Z"), null);
+
+        assertThat(overdue.getHeaders().getCacheControl()).isEqualTo("max-age=0");
+        assertThat(cache.response(mixes, Instant.parse("2025-12-04T10:00:00Z"), null).getHeaders().getCacheControl())
+                .isEqualTo("max-age=600");
+    }
+
+    @Test
+    @DisplayName("Should send the gzip copy with its own ETag when the client accepts gzip")
+    void shouldSendGzipCopy() throws IOException {
+        List<DailyMixDto> mixes = mixes(40.0);
+        ResponseEntity<byte[]> plain = cache.response(mixes, FETCHED_AT, null);
+
+        ResponseEntity<byte[]> compressed = cache.response(mixes, FETCHED_AT, "br, gzip;q=0.8");
+
+        assertThat(compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(compressed.getHeaders().getETag()).isNotEqualTo(plain.getHeaders().getETag());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.getBody()))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain.getBody());
+        }
+    }
+
+    @Test
+    @DisplayName("Should only use gzip when it is accepted with a non-zero quality")
+    void shouldParseAcceptEncoding() {
+        assertThat(EnergyMixResponseCache.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(EnergyMixResponseCache.acceptsGzip("GZIP;q=0.5")).isTrue();
+        assertThat(EnergyMixResponseCache.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(EnergyMixResponseCache.acceptsGzip("deflate, br")).isFalse();
+        assertThat(EnergyMixResponseCache.acceptsGzip(null)).isFalse();
+    }
+
+    private static List<DailyMixDto> mixes(double wind) {
+        return List.of(new DailyMixDto(LocalDate.of(2025, 12, 4), Map.of("wind", wind), wind));
+    }
+}
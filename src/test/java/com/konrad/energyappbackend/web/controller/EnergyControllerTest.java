@@ -1,32 +1,60 @@
 package com.konrad.energyappbackend.web.controller;
 
+import com.konrad.energyappbackend.config.ForecastConfig;
+import com.konrad.energyappbackend.config.StreamingAsyncConfig;
+import com.konrad.energyappbackend.domain.ChargingWindowQuery;
+import com.konrad.energyappbackend.exception.ChargingWindowNotFoundException;
 import com.konrad.energyappbackend.exception.ExternalApiException;
 import com.konrad.energyappbackend.service.ChargingWindowService;
 import com.konrad.energyappbackend.service.EnergyMixService;
+import com.konrad.energyappbackend.service.FleetScheduleService;
+import com.konrad.energyappbackend.service.ForecastUpdateService;
+import com.konrad.energyappbackend.service.ForecastUpdateService.ForecastUpdate;
+import com.konrad.energyappbackend.web.cache.EnergyMixResponseCache;
 import com.konrad.energyappbackend.web.dto.ChargingWindowDto;
+import com.konrad.energyappbackend.web.dto.ChargingSlotDto;
 import com.konrad.energyappbackend.web.dto.DailyMixDto;
+import com.konrad.energyappbackend.web.dto.FleetScheduleDto;
+import com.konrad.energyappbackend.web.dto.FleetScheduleRequest;
+import com.konrad.energyappbackend.web.dto.VehicleScheduleDto;
+import com.konrad.energyappbackend.web.dto.VehicleWindowDto;
+import com.konrad.energyappbackend.web.dto.VehicleWindowRequest;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
 @WebMvcTest(EnergyController.class)
+@Import({EnergyMixResponseCache.class, ForecastConfig.class, StreamingAsyncConfig.class})
 @DisplayName("EnergyController REST API Tests")
 class EnergyControllerTest {
 
@@ -39,6 +67,12 @@ class EnergyControllerTest {
     @MockitoBean
     private ChargingWindowService chargingWindowService;
 
+    @MockitoBean
+    private FleetScheduleService fleetScheduleService;
+
+    @MockitoBean
+    private ForecastUpdateService forecastUpdateService;
+
     // ========================================
     // GET /api/energy-mix tests
     // ========================================
@@ -72,7 +106,7 @@ class EnergyControllerTest {
                 )
         );
 
-        when(energyMixService.getDailyMixForThreeDays()).thenReturn(mockData);
+        when(energyMixService.getDailyMixForThreeDays()).thenReturn(threeDayMix(mockData));
 
         // When & Then
         mockMvc.perform(get("/api/energy-mix")
@@ -90,6 +124,38 @@ class EnergyControllerTest {
                 .andExpect(jsonPath("$[1].cleanPercentage", is(80.0)));
     }
 
+    @Test
+    @DisplayName("GET /api/energy-mix should return 304 while the ETag still matches")
+    void shouldReturn304ForMatchingEtag() throws Exception {
+        // Given
+        when(energyMixService.getDailyMixForThreeDays()).thenReturn(threeDayMix(List.of(
+                new DailyMixDto(LocalDate.of(2025, 12, 5), Map.of("wind", 30.5), 30.5))));
+
+        String etag = mockMvc.perform(get("/api/energy-mix"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, startsWith("max-age=")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get("/api/energy-mix").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("GET /api/energy-mix should send the gzip copy when the client accepts gzip")
+    void shouldReturnGzipEnergyMix() throws Exception {
+        // Given
+        when(energyMixService.getDailyMixForThreeDays()).thenReturn(threeDayMix(List.of(
+                new DailyMixDto(LocalDate.of(2025, 12, 5), Map.of("wind", 30.5), 30.5))));
+
+        // When & Then
+        mockMvc.perform(get("/api/energy-mix").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)));
+    }
+
     @Test
     @DisplayName("GET /api/energy-mix should return 503 when external API fails")
     void shouldReturn503WhenExternalApiFails() throws Exception {
@@ -111,7 +177,7 @@ class EnergyControllerTest {
     @DisplayName("GET /api/energy-mix should return empty list when no data available")
     void shouldReturnEmptyListWhenNoData() throws Exception {
         // Given
-        when(energyMixService.getDailyMixForThreeDays()).thenReturn(List.of());
+        when(energyMixService.getDailyMixForThreeDays()).thenReturn(threeDayMix(List.of()));
 
         // When & Then
         mockMvc.perform(get("/api/energy-mix"))
@@ -120,6 +186,144 @@ class EnergyControllerTest {
                 .andExpect(jsonPath("$", hasSize(0)));
     }
 
+    @Test
+    @DisplayName("GET /api/energy-mix with from and to should return the mix of every day in the range")
+    void shouldReturnEnergyMixForRange() throws Exception {
+        // Given
+        when(energyMixService.getDailyMix(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31))).thenReturn(List.of(
+                new DailyMixDto(LocalDate.of(2025, 1, 1), Map.of("wind", 40.0), 40.0)));
+
+        // When & Then
+        mockMvc.perform(get("/api/energy-mix")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-03-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].date", is("2025-01-01")));
+
+        verify(energyMixService, never()).getDailyMixForThreeDays();
+    }
+
+    @Test
+    @DisplayName("GET /api/energy-mix should return 400 when only one end of the range is given")
+    void shouldReturn400ForHalfOpenRange() throws Exception {
+        mockMvc.perform(get("/api/energy-mix").param("from", "2025-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("'from' and 'to'")));
+
+        verifyNoInteractions(energyMixService);
+    }
+
+    // ========================================
+    // GET /api/energy-mix/export tests
+    // ========================================
+
+    @Test
+    @DisplayName("GET /api/energy-mix/export should stream one JSON line per day")
+    void shouldExportDailyMixAsNdjson() throws Exception {
+        // Given
+        when(energyMixService.exportDailyMix(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2))).thenReturn(Flux.just(
+                new DailyMixDto(LocalDate.of(2025, 1, 1), Map.of("wind", 40.0), 40.0),
+                new DailyMixDto(LocalDate.of(2025, 1, 2), Map.of("wind", 20.0), 20.0)));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/energy-mix/export")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-02")
+                        .param("granularity", "day"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(matchesPattern(
+                        "\\{\"date\":\"2025-01-01\".*\\}\n\\{\"date\":\"2025-01-02\".*\\}\n")));
+
+        verify(energyMixService, never()).exportSlots(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/energy-mix/export should end with an error line when the upstream fails mid-stream")
+    void shouldEndExportWithErrorLineOnUpstreamFailure() throws Exception {
+        // Given
+        when(energyMixService.exportDailyMix(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 14))).thenReturn(Flux.concat(
+                Flux.just(new DailyMixDto(LocalDate.of(2025, 1, 1), Map.of("wind", 40.0), 40.0)),
+                Flux.error(new ExternalApiException("Generation API unavailable"))));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/energy-mix/export")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-14")
+                        .param("granularity", "day"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(matchesPattern(
+                        "\\{\"date\":\"2025-01-01\".*\\}\n"
+                                + "\\{\"error\":\\{.*\"status\":503,.*\"message\":\"Generation API unavailable\"\\}\\}\n")));
+    }
+
+    @Test
+    @DisplayName("GET /api/energy-mix/export should get the export timeout instead of the default async timeout")
+    void shouldApplyExportTimeout() throws Exception {
+        // Given
+        when(energyMixService.exportSlots(any(), any())).thenReturn(Flux.empty());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/energy-mix/export")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-02"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(10).toMillis());
+    }
+
+    @Test
+    @DisplayName("GET /api/energy-mix/export should return 400 before streaming for an unknown granularity")
+    void shouldReturn400ForUnknownExportGranularity() throws Exception {
+        mockMvc.perform(get("/api/energy-mix/export")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-02")
+                        .param("granularity", "hour"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Granularity")));
+
+        verifyNoInteractions(energyMixService);
+    }
+
+    // ========================================
+    // GET /api/forecast/updates tests
+    // ========================================
+
+    @Test
+    @DisplayName("GET /api/forecast/updates should stream forecast events")
+    void shouldStreamForecastUpdates() throws Exception {
+        // Given
+        when(forecastUpdateService.subscribe()).thenReturn(Flux.just(
+                new ForecastUpdate("2025-12-04T08:00:00Z", "{\"day\":\"2025-12-04\"}"),
+                ForecastUpdate.KEEP_ALIVE));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/forecast/updates"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isZero();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString(
+                        "id:2025-12-04T08:00:00Z\nevent:forecast\ndata:{\"day\":\"2025-12-04\"}")))
+                .andExpect(content().string(containsString(":keep-alive")));
+    }
+
     // ========================================
     // GET /api/charging-window tests
     // ========================================
@@ -249,6 +453,178 @@ class EnergyControllerTest {
                 .andExpect(jsonPath("$.message", containsString("An unexpected error occurred")));
     }
 
+    @Test
+    @DisplayName("GET /api/charging-window should pass earliestStart, deadline and minCleanShare to the service")
+    void shouldPassConstraintsToService() throws Exception {
+        // Given
+        ChargingWindowQuery query = new ChargingWindowQuery(2,
+                ZonedDateTime.parse("2025-12-05T22:00:00Z"),
+                ZonedDateTime.parse("2025-12-06T07:00:00Z"),
+                60.0);
+        ChargingWindowDto mockWindow = new ChargingWindowDto(
+                ZonedDateTime.parse("2025-12-06T01:00:00Z"),
+                ZonedDateTime.parse("2025-12-06T03:00:00Z"),
+                64.0
+        );
+
+        when(chargingWindowService.getOptimalWindow(query)).thenReturn(mockWindow);
+
+        // When & Then
+        mockMvc.perform(get("/api/charging-window")
+                        .param("hours", "2")
+                        .param("earliestStart", "2025-12-05T22:00:00Z")
+                        .param("deadline", "2025-12-06T07:00:00Z")
+                        .param("minCleanShare", "60"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.start", is("2025-12-06T01:00:00Z")))
+                .andExpect(jsonPath("$.cleanEnergyShare", is(64.0)));
+    }
+
+    @Test
+    @DisplayName("GET /api/charging-window should return 404 when no window matches the constraints")
+    void shouldReturn404WhenNoWindowMatches() throws Exception {
+        // Given
+        when(chargingWindowService.getOptimalWindow(any(ChargingWindowQuery.class)))
+                .thenThrow(new ChargingWindowNotFoundException("No charging window matches the given constraints"));
+
+        // When & Then
+        mockMvc.perform(get("/api/charging-window")
+                        .param("hours", "3")
+                        .param("minCleanShare", "99"))
+                .andDo(print())
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status", is(404)))
+                .andExpect(jsonPath("$.error", is("Charging Window Not Found")));
+    }
+
+    @Test
+    @DisplayName("GET /api/charging-window should return 400 when the deadline is before earliestStart")
+    void shouldReturn400WhenDeadlineBeforeEarliestStart() throws Exception {
+        // Given
+        when(chargingWindowService.getOptimalWindow(any(ChargingWindowQuery.class)))
+                .thenThrow(new IllegalArgumentException("Deadline must be after earliest start"));
+
+        // When & Then
+        mockMvc.perform(get("/api/charging-window")
+                        .param("hours", "1")
+                        .param("earliestStart", "2025-12-06T07:00:00Z")
+                        .param("deadline", "2025-12-05T22:00:00Z"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid Parameter")))
+                .andExpect(jsonPath("$.message", containsString("Deadline must be after earliest start")));
+    }
+
+    @Test
+    @DisplayName("GET /api/charging-window should return 400 when minCleanShare > 100")
+    void shouldReturn400WhenMinCleanShareTooHigh() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/charging-window")
+                        .param("hours", "3")
+                        .param("minCleanShare", "101"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Validation Failed")))
+                .andExpect(jsonPath("$.message", containsString("Minimum clean share must be at most 100")));
+    }
+
+    // ========================================
+    // POST /api/charging-window/batch tests
+    // ========================================
+
+    @Test
+    @DisplayName("POST /api/charging-window/batch should return a result per vehicle")
+    void shouldReturnBatchResults() throws Exception {
+        // Given
+        List<VehicleWindowRequest> vehicles = List.of(
+                new VehicleWindowRequest("ev-1", 3, null, null),
+                new VehicleWindowRequest("ev-2", 9, null, null)
+        );
+        when(chargingWindowService.getOptimalWindows(vehicles)).thenReturn(List.of(
+                VehicleWindowDto.of("ev-1", new ChargingWindowDto(
+                        ZonedDateTime.parse("2025-12-05T12:00:00Z"),
+                        ZonedDateTime.parse("2025-12-05T15:00:00Z"),
+                        85.5)),
+                VehicleWindowDto.failed("ev-2", "Hours must be between 1 and 6")
+        ));
+
+        // When & Then
+        mockMvc.perform(post("/api/charging-window/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"vehicleId": "ev-1", "hours": 3},
+                                 {"vehicleId": "ev-2", "hours": 9}]
+                                """))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].vehicleId", is("ev-1")))
+                .andExpect(jsonPath("$[0].window.cleanEnergyShare", is(85.5)))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].vehicleId", is("ev-2")))
+                .andExpect(jsonPath("$[1].window").doesNotExist())
+                .andExpect(jsonPath("$[1].error", is("Hours must be between 1 and 6")));
+    }
+
+    @Test
+    @DisplayName("POST /api/charging-window/batch should return 400 for an empty batch")
+    void shouldReturn400ForEmptyBatch() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/charging-window/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("At least one vehicle is required")));
+    }
+
+    // ========================================
+    // POST /api/fleet-schedule tests
+    // ========================================
+
+    @Test
+    @DisplayName("POST /api/fleet-schedule should return the fleet plan")
+    void shouldReturnFleetSchedule() throws Exception {
+        // Given
+        when(fleetScheduleService.schedule(any(FleetScheduleRequest.class))).thenReturn(new FleetScheduleDto(
+                20.0, 72.5, List.of(new VehicleScheduleDto("ev-1", 20.0, 72.5, true, List.of(
+                        new ChargingSlotDto(
+                                ZonedDateTime.parse("2025-12-05T12:00:00Z"),
+                                ZonedDateTime.parse("2025-12-05T12:30:00Z"),
+                                20.0))))));
+
+        // When & Then
+        mockMvc.perform(post("/api/fleet-schedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"siteLimitKw": 50,
+                                 "vehicles": [{"vehicleId": "ev-1", "energyKwh": 20, "chargerKw": 40}]}
+                                """))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cleanEnergyShare", is(72.5)))
+                .andExpect(jsonPath("$.vehicles[0].vehicleId", is("ev-1")))
+                .andExpect(jsonPath("$.vehicles[0].complete", is(true)))
+                .andExpect(jsonPath("$.vehicles[0].slots[0].start", is("2025-12-05T12:00:00Z")));
+    }
+
+    @Test
+    @DisplayName("POST /api/fleet-schedule should return 400 when the site limit is not positive")
+    void shouldReturn400ForNonPositiveSiteLimit() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/fleet-schedule")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"siteLimitKw": 0,
+                                 "vehicles": [{"vehicleId": "ev-1", "energyKwh": 20, "chargerKw": 40}]}
+                                """))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Validation Failed")))
+                .andExpect(jsonPath("$.message", containsString("siteLimitKw")));
+    }
+
     // ========================================
     // CORS and Headers tests
     // ========================================
@@ -257,7 +633,7 @@ class EnergyControllerTest {
     @DisplayName("Should accept requests with correct Content-Type")
     void shouldAcceptCorrectContentType() throws Exception {
         // Given
-        when(energyMixService.getDailyMixForThreeDays()).thenReturn(List.of());
+        when(energyMixService.getDailyMixForThreeDays()).thenReturn(threeDayMix(List.of()));
 
         // When & Then
         mockMvc.perform(get("/api/energy-mix")
@@ -265,4 +641,8 @@ class EnergyControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    private static EnergyMixService.ThreeDayMix threeDayMix(List<DailyMixDto> dailyMixes) {
+        return new EnergyMixService.ThreeDayMix(dailyMixes, Instant.now());
+    }
+}
@@ -0,0 +1,250 @@
+package com.konrad.energyappbackend.web.controller;
+
+import com.konrad.energyappbackend.config.ForecastConfig;
+import com.konrad.energyappbackend.domain.ChargingWindowQuery;
+import com.konrad.energyappbackend.exception.ChargingWindowNotFoundException;
+import com.konrad.energyappbackend.exception.ExternalApiException;
+import com.konrad.energyappbackend.service.ChargingWindowService;
+import com.konrad.energyappbackend.service.EnergyMixService;
+import com.konrad.energyappbackend.service.FleetScheduleService;
+import com.konrad.energyappbackend.service.ForecastUpdateService;
+import com.konrad.energyappbackend.service.ForecastUpdateService.ForecastUpdate;
+import com.konrad.energyappbackend.web.cache.EnergyMixResponseCache;
+import com.konrad.energyappbackend.web.dto.ChargingWindowDto;
+import com.konrad.energyappbackend.web.dto.DailyMixDto;
+import com.konrad.energyappbackend.web.dto.SlotMixDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ReactiveEnergyController.class)
+@Import({EnergyMixResponseCache.class, ForecastConfig.class})
+@DisplayName("ReactiveEnergyController REST API Tests")
+class ReactiveEnergyControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private EnergyMixService energyMixService;
+
+    @MockitoBean
+    private ChargingWindowService chargingWindowService;
+
+    @MockitoBean
+    private FleetScheduleService fleetScheduleService;
+
+    @MockitoBean
+    private ForecastUpdateService forecastUpdateService;
+
+    @Test
+    @DisplayName("GET /api/energy-mix should return 200 from the reactive service")
+    void shouldReturnEnergyMix() {
+        // Given
+        when(energyMixService.getDailyMixForThreeDaysAsync()).thenReturn(Mono.just(threeDayMix(List.of(
+                new DailyMixDto(LocalDate.of(2025, 12, 5), Map.of("wind", 30.5), 30.5)))));
+
+        // When & Then
+        webTestClient.get().uri("/api/energy-mix")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].date").isEqualTo("2025-12-05")
+                .jsonPath("$[0].cleanPercentage").isEqualTo(30.5);
+
+        verify(energyMixService, never()).getDailyMixForThreeDays();
+    }
+
+    @Test
+    @DisplayName("GET /api/energy-mix should return 304 while the ETag still matches")
+    void shouldReturn304ForMatchingEtag() {
+        // Given
+        when(energyMixService.getDailyMixForThreeDaysAsync()).thenReturn(Mono.just(threeDayMix(List.of(
+                new DailyMixDto(LocalDate.of(2025, 12, 5), Map.of("wind", 30.5), 30.5)))));
+
+        String etag = webTestClient.get().uri("/api/energy-mix")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.CACHE_CONTROL, startsWith("max-age="))
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+
+        // When & Then
+        webTestClient.get().uri("/api/energy-mix")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    @DisplayName("GET /api/energy-mix with from and to should return the range from the reactive service")
+    void shouldReturnEnergyMixForRange() {
+        // Given
+        when(energyMixService.getDailyMixAsync(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2))).thenReturn(Mono.just(List.of(
+                new DailyMixDto(LocalDate.of(2025, 1, 1), Map.of("wind", 40.0), 40.0),
+                new DailyMixDto(LocalDate.of(2025, 1, 2), Map.of("wind", 20.0), 20.0))));
+
+        // When & Then
+        webTestClient.get().uri("/api/energy-mix?from=2025-01-01&to=2025-01-02")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[1].date").isEqualTo("2025-01-02");
+
+        verify(energyMixService, never()).getDailyMix(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/energy-mix/export should stream one JSON line per slot")
+    void shouldExportSlotsAsNdjson() {
+        // Given
+        when(energyMixService.exportSlots(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 1))).thenReturn(Flux.just(
+                new SlotMixDto(ZonedDateTime.parse("2025-01-01T00:00:00Z"), ZonedDateTime.parse("2025-01-01T00:30:00Z"),
+                        Map.of("wind", 40.0), 40.0),
+                new SlotMixDto(ZonedDateTime.parse("2025-01-01T00:30:00Z"), ZonedDateTime.parse("2025-01-01T01:00:00Z"),
+                        Map.of("wind", 20.0), 20.0)));
+
+        // When & Then
+        webTestClient.get().uri("/api/energy-mix/export?from=2025-01-01&to=2025-01-01")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(SlotMixDto.class)
+                .hasSize(2)
+                .value(slots -> slots.get(1).cleanPercentage(), is(20.0));
+    }
+
+    @Test
+    @DisplayName("GET /api/energy-mix/export should end with an error line when the upstream fails mid-stream")
+    void shouldEndExportWithErrorLineOnUpstreamFailure() {
+        // Given
+        when(energyMixService.exportDailyMix(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 14))).thenReturn(Flux.concat(
+                Flux.just(new DailyMixDto(LocalDate.of(2025, 1, 1), Map.of("wind", 40.0), 40.0)),
+                Flux.error(new ExternalApiException("Generation API unavailable"))));
+
+        // When & Then
+        webTestClient.get().uri("/api/energy-mix/export?from=2025-01-01&to=2025-01-14&granularity=day")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(matchesPattern("\\{\"date\":\"2025-01-01\".*\\}\n"
+                        + "\\{\"error\":\\{.*\"status\":503,.*\"message\":\"Generation API unavailable\"\\}\\}\n"));
+    }
+
+    @Test
+    @DisplayName("GET /api/forecast/updates should stream forecast events")
+    void shouldStreamForecastUpdates() {
+        // Given
+        when(forecastUpdateService.subscribe()).thenReturn(Flux.just(
+                new ForecastUpdate("2025-12-04T08:00:00Z", "{\"day\":\"2025-12-04\"}")));
+
+        // When & Then
+        webTestClient.get().uri("/api/forecast/updates")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .expectBody(String.class)
+                .value(containsString("id:2025-12-04T08:00:00Z\nevent:forecast\ndata:{\"day\":\"2025-12-04\"}"));
+    }
+
+    @Test
+    @DisplayName("GET /api/charging-window should return 200 with optimal window")
+    void shouldReturnOptimalChargingWindow() {
+        // Given
+        when(chargingWindowService.getOptimalWindowAsync(ChargingWindowQuery.ofHours(3))).thenReturn(Mono.just(
+                new ChargingWindowDto(
+                        ZonedDateTime.parse("2025-12-05T12:00:00Z"),
+                        ZonedDateTime.parse("2025-12-05T15:00:00Z"),
+                        85.5)));
+
+        // When & Then
+        webTestClient.get().uri("/api/charging-window?hours=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.start").isEqualTo("2025-12-05T12:00:00Z")
+                .jsonPath("$.cleanEnergyShare").isEqualTo(85.5);
+    }
+
+    @Test
+    @DisplayName("GET /api/charging-window should return 400 when hours > 6")
+    void shouldReturn400WhenHoursTooHigh() {
+        // When & Then
+        webTestClient.get().uri("/api/charging-window?hours=7")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Validation Failed")
+                .jsonPath("$.message").value(containsString("Hours must be at most 6"));
+    }
+
+    @Test
+    @DisplayName("GET /api/charging-window should return 404 when no window matches")
+    void shouldReturn404WhenNoWindowMatches() {
+        // Given
+        when(chargingWindowService.getOptimalWindowAsync(any(ChargingWindowQuery.class)))
+                .thenReturn(Mono.error(new ChargingWindowNotFoundException("No charging window matches the given constraints")));
+
+        // When & Then
+        webTestClient.get().uri("/api/charging-window?hours=3&minCleanShare=99")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404);
+    }
+
+    @Test
+    @DisplayName("GET /api/charging-window should return 503 when external API fails")
+    void shouldReturn503WhenExternalApiFails() {
+        // Given
+        when(chargingWindowService.getOptimalWindowAsync(any(ChargingWindowQuery.class)))
+                .thenReturn(Mono.error(new ExternalApiException("Failed to fetch generation data")));
+
+        // When & Then
+        webTestClient.get().uri("/api/charging-window?hours=3")
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("External API Unavailable");
+    }
+
+    @Test
+    @DisplayName("POST /api/fleet-schedule should return 400 when the site limit is not positive")
+    void shouldReturn400ForNonPositiveSiteLimit() {
+        // When & Then
+        webTestClient.post().uri("/api/fleet-schedule")
+                .header("Content-Type", "application/json")
+                .bodyValue("""
+                        {"siteLimitKw": 0,
+                         "vehicles": [{"vehicleId": "ev-1", "energyKwh": 20, "chargerKw": 40}]}
+                        """)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").value(containsString("siteLimitKw"));
+    }
+
+    private static EnergyMixService.ThreeDayMix threeDayMix(List<DailyMixDto> dailyMixes) {
+        return new EnergyMixService.ThreeDayMix(dailyMixes, Instant.now());
+    }
+}